@@ -3,6 +3,7 @@ plugins {
     application
     id("org.openjfx.javafxplugin") version "0.1.0"
     id("com.github.johnrengelman.shadow") version "8.1.1"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "io.worldportal"
@@ -22,6 +23,11 @@ dependencies {
     implementation("com.github.mwiede:jsch:2.27.2")
 
     testImplementation("org.junit.jupiter:junit-jupiter:5.11.4")
+    testImplementation("org.apache.sshd:sshd-sftp:2.14.0")
+}
+
+jmh {
+    jmhVersion = "1.37"
 }
 
 javafx {
@@ -95,5 +101,20 @@ tasks.register("packageAppImage") {
 }
 
 tasks.test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+tasks.register<Test>("benchmarkTest") {
+    group = "verification"
+    description = "Runs the tagged round-trip and throughput benchmarks."
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
 }
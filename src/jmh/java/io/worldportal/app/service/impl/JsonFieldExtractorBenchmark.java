@@ -0,0 +1,108 @@
+package io.worldportal.app.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonFieldExtractorBenchmark {
+    private static final Pattern DISPLAY_NAME_PATTERN = Pattern.compile("\"DisplayName\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern GAME_MODE_PATTERN = Pattern.compile("\"GameMode\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern UUID_BINARY_PATTERN = Pattern.compile(
+            "\"UUID\"\\s*:\\s*\\{[^}]*\"\\$binary\"\\s*:\\s*\"([^\"]+)\"", Pattern.DOTALL);
+    private static final Pattern GAME_TIME_PATTERN = Pattern.compile("\"GameTime\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ENABLED_PATTERN = Pattern.compile(
+            "\\\"enabled\\\"\\s*:\\s*(true|false)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LIST_ARRAY_PATTERN = Pattern.compile("\\\"list\\\"\\s*:\\s*\\[(.*?)\\]", Pattern.DOTALL);
+    private static final Pattern ARRAY_STRING_PATTERN = Pattern.compile("\\\"([^\\\"]+)\\\"");
+    private static final List<String> CONFIG_FIELDS = List.of("DisplayName", "GameMode", "GameTime", "UUID.$binary");
+    private static final List<String> WHITELIST_FIELDS = List.of("enabled", "list", "players", JsonFieldExtractor.ROOT);
+
+    @Param({"4096", "1048576"})
+    public int payloadBytes;
+
+    @Param({"true", "false"})
+    public boolean fieldsFirst;
+
+    private byte[] config;
+    private byte[] whitelist;
+
+    @Setup
+    public void setUp() {
+        StringBuilder payload = new StringBuilder();
+        int index = 0;
+        while (payload.length() < payloadBytes) {
+            payload.append("{\"Id\":").append(index).append(",\"Name\":\"entity-").append(index++).append("\"},");
+        }
+        payload.setLength(payload.length() - 1);
+        String fields = "\"DisplayName\":\"Benchmark World\",\"GameMode\":\"Adventure\","
+                + "\"UUID\":{\"$binary\":\"q83vEjRWeJCrze8SNFZ4kA==\",\"$type\":\"04\"},"
+                + "\"GameTime\":\"2026-01-01T00:00:00Z\"";
+        String entities = "\"Entities\":[" + payload + "]";
+        config = ("{" + (fieldsFirst ? fields + "," + entities : entities + "," + fields) + "}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        StringBuilder players = new StringBuilder();
+        for (int player = 0; players.length() < payloadBytes; player++) {
+            players.append(player == 0 ? "" : ",").append("\"%08x-0000-0000-0000-000000000000\"".formatted(player));
+        }
+        whitelist = ("{\"enabled\":true,\"list\":[" + players + "]}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void configRegex(Blackhole blackhole) {
+        String content = new String(config, StandardCharsets.UTF_8);
+        blackhole.consume(firstGroup(DISPLAY_NAME_PATTERN, content));
+        blackhole.consume(firstGroup(GAME_MODE_PATTERN, content));
+        blackhole.consume(firstGroup(UUID_BINARY_PATTERN, content));
+        blackhole.consume(firstGroup(GAME_TIME_PATTERN, content));
+    }
+
+    @Benchmark
+    public JsonFieldExtractor.Fields configExtractor() throws IOException {
+        return JsonFieldExtractor.extract(new ByteArrayInputStream(config), CONFIG_FIELDS);
+    }
+
+    @Benchmark
+    public void whitelistRegex(Blackhole blackhole) {
+        String content = new String(whitelist, StandardCharsets.UTF_8);
+        blackhole.consume(firstGroup(ENABLED_PATTERN, content));
+        String players = firstGroup(LIST_ARRAY_PATTERN, content);
+        Matcher matcher = ARRAY_STRING_PATTERN.matcher(players == null ? content : players);
+        while (matcher.find()) {
+            blackhole.consume(matcher.group(1));
+        }
+    }
+
+    @Benchmark
+    public JsonFieldExtractor.Fields whitelistExtractor() throws IOException {
+        return JsonFieldExtractor.extract(new ByteArrayInputStream(whitelist), WHITELIST_FIELDS);
+    }
+
+    private static String firstGroup(Pattern pattern, String content) {
+        Matcher matcher = pattern.matcher(content);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
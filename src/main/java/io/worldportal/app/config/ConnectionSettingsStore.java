@@ -18,6 +18,8 @@ public class ConnectionSettingsStore {
     private static final String KEY_AUTH_TYPE = "authType";
     private static final String KEY_PUBLIC_KEY = "publicKeyFile";
     private static final String KEY_LOCAL_WORLDS_PATH = "localWorldsPath";
+    private static final String KEY_TRANSFER_PARALLELISM = "transferParallelism";
+    private static final String KEY_MAX_SESSIONS = "maxSessions";
 
     private final Path settingsFile;
 
@@ -49,6 +51,12 @@ public class ConnectionSettingsStore {
             properties.setProperty(KEY_PUBLIC_KEY, valueOrEmpty(profile.getPublicKeyFilePath()));
         }
         properties.setProperty(KEY_LOCAL_WORLDS_PATH, valueOrEmpty(profile.getLocalWorldsPath()));
+        if (profile.getTransferParallelism() > 0) {
+            properties.setProperty(KEY_TRANSFER_PARALLELISM, Integer.toString(profile.getTransferParallelism()));
+        }
+        if (profile.getMaxSessions() > 0) {
+            properties.setProperty(KEY_MAX_SESSIONS, Integer.toString(profile.getMaxSessions()));
+        }
 
         try {
             if (settingsFile.getParent() != null) {
@@ -80,7 +88,21 @@ public class ConnectionSettingsStore {
             parsedPort = 22;
         }
 
-        return new RemoteProfile(
+        int parsedTransferParallelism;
+        try {
+            parsedTransferParallelism = Integer.parseInt(properties.getProperty(KEY_TRANSFER_PARALLELISM, "0"));
+        } catch (NumberFormatException exception) {
+            parsedTransferParallelism = 0;
+        }
+
+        int parsedMaxSessions;
+        try {
+            parsedMaxSessions = Integer.parseInt(properties.getProperty(KEY_MAX_SESSIONS, "0"));
+        } catch (NumberFormatException exception) {
+            parsedMaxSessions = 0;
+        }
+
+        RemoteProfile profile = new RemoteProfile(
                 properties.getProperty(KEY_HOST, ""),
                 parsedPort,
                 properties.getProperty(KEY_USERNAME, ""),
@@ -90,6 +112,9 @@ public class ConnectionSettingsStore {
                 properties.getProperty(KEY_PUBLIC_KEY, ""),
                 properties.getProperty(KEY_LOCAL_WORLDS_PATH, "")
         );
+        profile.setTransferParallelism(Math.max(0, parsedTransferParallelism));
+        profile.setMaxSessions(Math.max(0, parsedMaxSessions));
+        return profile;
     }
 
     private String valueOrEmpty(String value) {
@@ -0,0 +1,203 @@
+package io.worldportal.app.config;
+
+import io.worldportal.app.model.RemoteProfile;
+import io.worldportal.app.model.WorldEntry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+public class RemoteWorldCacheStore {
+    private static final String KEY_COUNT = "count";
+    private static final String KEY_REMOTE_PATH = "remotePath";
+
+    private final Path cacheDirectory;
+
+    public RemoteWorldCacheStore() {
+        this(resolveCacheDirectory(
+                System.getProperty("os.name", ""),
+                System.getProperty("user.home", "."),
+                System.getenv("LOCALAPPDATA"),
+                System.getenv("XDG_CACHE_HOME")
+        ));
+    }
+
+    public RemoteWorldCacheStore(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public List<CachedWorld> load(RemoteProfile profile) {
+        Path cacheFile = cacheFile(profile);
+        if (cacheFile == null || !Files.exists(cacheFile)) {
+            return Collections.emptyList();
+        }
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(cacheFile)) {
+            properties.load(inputStream);
+        } catch (IOException | IllegalArgumentException exception) {
+            return Collections.emptyList();
+        }
+        if (!profile.getRemoteBasePath().equals(properties.getProperty(KEY_REMOTE_PATH))) {
+            return Collections.emptyList();
+        }
+
+        List<CachedWorld> worlds = new ArrayList<>();
+        try {
+            int count = Integer.parseInt(properties.getProperty(KEY_COUNT, "0"));
+            for (int index = 0; index < count; index++) {
+                String prefix = "world." + index + ".";
+                String id = properties.getProperty(prefix + "id");
+                if (id == null || id.isBlank()) {
+                    continue;
+                }
+                WorldEntry world = new WorldEntry(
+                        id,
+                        properties.getProperty(prefix + "name", id),
+                        properties.getProperty(prefix + "path", ""),
+                        properties.getProperty(prefix + "previewImagePath"),
+                        properties.getProperty(prefix + "gameMode", "Unknown"),
+                        properties.getProperty(prefix + "patchLine", "Unknown"),
+                        Instant.ofEpochSecond(Long.parseLong(properties.getProperty(prefix + "lastModified", "0"))));
+                world.setUuidBinary(properties.getProperty(prefix + "uuidBinary"));
+                world.setGameTimeIso(properties.getProperty(prefix + "gameTime"));
+                worlds.add(new CachedWorld(
+                        world,
+                        readStamp(properties, prefix + "config"),
+                        readStamp(properties, prefix + "clientMetadata")));
+            }
+        } catch (NumberFormatException exception) {
+            return Collections.emptyList();
+        }
+        return worlds;
+    }
+
+    public void save(RemoteProfile profile, List<CachedWorld> worlds) {
+        Path cacheFile = cacheFile(profile);
+        if (cacheFile == null || worlds == null) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty(KEY_REMOTE_PATH, profile.getRemoteBasePath());
+        properties.setProperty(KEY_COUNT, Integer.toString(worlds.size()));
+        for (int index = 0; index < worlds.size(); index++) {
+            String prefix = "world." + index + ".";
+            CachedWorld cached = worlds.get(index);
+            WorldEntry world = cached.world();
+            setIfPresent(properties, prefix + "id", world.getId());
+            setIfPresent(properties, prefix + "name", world.getName());
+            setIfPresent(properties, prefix + "path", world.getPath());
+            setIfPresent(properties, prefix + "previewImagePath", world.getPreviewImagePath());
+            setIfPresent(properties, prefix + "gameMode", world.getGameMode());
+            setIfPresent(properties, prefix + "patchLine", world.getPatchLine());
+            setIfPresent(properties, prefix + "uuidBinary", world.getUuidBinary());
+            setIfPresent(properties, prefix + "gameTime", world.getGameTimeIso());
+            Instant lastModified = world.getLastModified() == null ? Instant.EPOCH : world.getLastModified();
+            properties.setProperty(prefix + "lastModified", Long.toString(lastModified.getEpochSecond()));
+            writeStamp(properties, prefix + "config", cached.config());
+            writeStamp(properties, prefix + "clientMetadata", cached.clientMetadata());
+        }
+
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                properties.store(outputStream, "world-portal remote world cache");
+            }
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    Path cacheFile(RemoteProfile profile) {
+        if (profile == null || profile.getHost() == null || profile.getHost().isBlank()
+                || profile.getRemoteBasePath() == null || profile.getRemoteBasePath().isBlank()) {
+            return null;
+        }
+        int port = profile.getPort() > 0 ? profile.getPort() : 22;
+        String username = profile.getUsername() == null ? "" : profile.getUsername().trim();
+        String identity = username + "@" + profile.getHost().trim() + ":" + port + profile.getRemoteBasePath();
+        String readable = (username.isEmpty() ? "" : username + "@") + profile.getHost().trim() + "_" + port;
+        return cacheDirectory.resolve(
+                readable.replaceAll("[^a-zA-Z0-9._@-]", "_") + "-" + shortHash(identity) + ".properties");
+    }
+
+    private static CachedWorld.FileStamp readStamp(Properties properties, String prefix) {
+        String modified = properties.getProperty(prefix + ".mtime");
+        String size = properties.getProperty(prefix + ".size");
+        if (modified == null || size == null) {
+            return null;
+        }
+        return new CachedWorld.FileStamp(Long.parseLong(modified), Long.parseLong(size));
+    }
+
+    private static void writeStamp(Properties properties, String prefix, CachedWorld.FileStamp stamp) {
+        if (stamp == null) {
+            return;
+        }
+        properties.setProperty(prefix + ".mtime", Long.toString(stamp.modifiedSeconds()));
+        properties.setProperty(prefix + ".size", Long.toString(stamp.size()));
+    }
+
+    private static void setIfPresent(Properties properties, String key, String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        }
+    }
+
+    private static String shortHash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException exception) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+
+    static Path resolveCacheDirectory(String osName, String userHome, String localAppData, String xdgCacheHome) {
+        String normalizedOs = osName == null ? "" : osName.toLowerCase();
+        String normalizedHome = userHome == null || userHome.isBlank() ? "." : userHome;
+
+        if (normalizedOs.contains("win")) {
+            if (localAppData != null && !localAppData.isBlank()) {
+                return Paths.get(localAppData, "world-portal", "remote-worlds");
+            }
+            return Paths.get(normalizedHome, "AppData", "Local", "world-portal", "remote-worlds");
+        }
+
+        if (xdgCacheHome != null && !xdgCacheHome.isBlank()) {
+            return Paths.get(xdgCacheHome, "world-portal", "remote-worlds");
+        }
+        return Paths.get(normalizedHome, ".cache", "world-portal", "remote-worlds");
+    }
+
+    public record CachedWorld(WorldEntry world, FileStamp config, FileStamp clientMetadata) {
+        public boolean matches(FileStamp currentConfig, FileStamp currentClientMetadata) {
+            return Objects.equals(config, currentConfig)
+                    && Objects.equals(clientMetadata, currentClientMetadata);
+        }
+
+        public record FileStamp(long modifiedSeconds, long size) {
+        }
+    }
+}
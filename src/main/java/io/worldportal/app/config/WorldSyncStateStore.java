@@ -0,0 +1,153 @@
+package io.worldportal.app.config;
+
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+import io.worldportal.app.model.RemoteProfile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+
+public class WorldSyncStateStore {
+    private static final String KEY_COUNT = "count";
+    private static final String KEY_PAIR = "pair";
+
+    private final Path stateDirectory;
+
+    public WorldSyncStateStore() {
+        this(RemoteWorldCacheStore.resolveCacheDirectory(
+                System.getProperty("os.name", ""),
+                System.getProperty("user.home", "."),
+                System.getenv("LOCALAPPDATA"),
+                System.getenv("XDG_CACHE_HOME")
+        ).resolveSibling("sync-state"));
+    }
+
+    public WorldSyncStateStore(Path stateDirectory) {
+        this.stateDirectory = stateDirectory;
+    }
+
+    public Map<String, SyncedFile> load(RemoteProfile profile, String remoteWorldPath, Path localWorldPath) {
+        Path stateFile = stateFile(profile, remoteWorldPath, localWorldPath);
+        if (stateFile == null || !Files.exists(stateFile)) {
+            return Collections.emptyMap();
+        }
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(stateFile)) {
+            properties.load(inputStream);
+        } catch (IOException | IllegalArgumentException exception) {
+            return Collections.emptyMap();
+        }
+        if (!pairIdentity(profile, remoteWorldPath, localWorldPath).equals(properties.getProperty(KEY_PAIR))) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, SyncedFile> files = new HashMap<>();
+        try {
+            int count = Integer.parseInt(properties.getProperty(KEY_COUNT, "0"));
+            for (int index = 0; index < count; index++) {
+                String prefix = "file." + index + ".";
+                String path = properties.getProperty(prefix + "path");
+                FileStamp local = readStamp(properties, prefix + "local");
+                FileStamp remote = readStamp(properties, prefix + "remote");
+                if (path == null || local == null || remote == null) {
+                    continue;
+                }
+                files.put(path, new SyncedFile(local, remote, properties.getProperty(prefix + "sha256")));
+            }
+        } catch (NumberFormatException exception) {
+            return Collections.emptyMap();
+        }
+        return files;
+    }
+
+    public void save(RemoteProfile profile, String remoteWorldPath, Path localWorldPath, Map<String, SyncedFile> files) {
+        Path stateFile = stateFile(profile, remoteWorldPath, localWorldPath);
+        if (stateFile == null || files == null) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty(KEY_PAIR, pairIdentity(profile, remoteWorldPath, localWorldPath));
+        properties.setProperty(KEY_COUNT, Integer.toString(files.size()));
+        int index = 0;
+        for (Map.Entry<String, SyncedFile> file : files.entrySet()) {
+            String prefix = "file." + index++ + ".";
+            properties.setProperty(prefix + "path", file.getKey());
+            writeStamp(properties, prefix + "local", file.getValue().local());
+            writeStamp(properties, prefix + "remote", file.getValue().remote());
+            if (file.getValue().sha256() != null) {
+                properties.setProperty(prefix + "sha256", file.getValue().sha256());
+            }
+        }
+
+        try {
+            Files.createDirectories(stateFile.getParent());
+            Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                properties.store(outputStream, "world-portal world sync state");
+            }
+            try {
+                Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    Path stateFile(RemoteProfile profile, String remoteWorldPath, Path localWorldPath) {
+        if (profile == null || profile.getHost() == null || profile.getHost().isBlank()
+                || remoteWorldPath == null || remoteWorldPath.isBlank() || localWorldPath == null) {
+            return null;
+        }
+        String identity = pairIdentity(profile, remoteWorldPath, localWorldPath);
+        String readable = localWorldPath.getFileName() == null ? "world" : localWorldPath.getFileName().toString();
+        return stateDirectory.resolve(readable.replaceAll("[^a-zA-Z0-9._-]", "_") + "-" + hash(identity) + ".properties");
+    }
+
+    private static String pairIdentity(RemoteProfile profile, String remoteWorldPath, Path localWorldPath) {
+        int port = profile.getPort() > 0 ? profile.getPort() : 22;
+        String username = profile.getUsername() == null ? "" : profile.getUsername().trim();
+        return username + "@" + profile.getHost().trim() + ":" + port + remoteWorldPath
+                + "|" + localWorldPath.toAbsolutePath().normalize();
+    }
+
+    private static FileStamp readStamp(Properties properties, String prefix) {
+        String modified = properties.getProperty(prefix + ".mtime");
+        String size = properties.getProperty(prefix + ".size");
+        if (modified == null || size == null) {
+            return null;
+        }
+        return new FileStamp(Long.parseLong(modified), Long.parseLong(size));
+    }
+
+    private static void writeStamp(Properties properties, String prefix, FileStamp stamp) {
+        properties.setProperty(prefix + ".mtime", Long.toString(stamp.modifiedSeconds()));
+        properties.setProperty(prefix + ".size", Long.toString(stamp.size()));
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException exception) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+
+    public record SyncedFile(FileStamp local, FileStamp remote, String sha256) {
+    }
+}
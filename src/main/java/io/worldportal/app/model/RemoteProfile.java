@@ -9,6 +9,8 @@ public class RemoteProfile {
     private String password;
     private String publicKeyFilePath;
     private String localWorldsPath;
+    private int transferParallelism;
+    private int maxSessions;
 
     public RemoteProfile() {
     }
@@ -104,4 +106,20 @@ public class RemoteProfile {
     public void setLocalWorldsPath(String localWorldsPath) {
         this.localWorldsPath = localWorldsPath;
     }
+
+    public int getTransferParallelism() {
+        return transferParallelism;
+    }
+
+    public void setTransferParallelism(int transferParallelism) {
+        this.transferParallelism = transferParallelism;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public void setMaxSessions(int maxSessions) {
+        this.maxSessions = maxSessions;
+    }
 }
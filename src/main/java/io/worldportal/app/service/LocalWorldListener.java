@@ -0,0 +1,9 @@
+package io.worldportal.app.service;
+
+import io.worldportal.app.model.WorldEntry;
+
+public interface LocalWorldListener {
+    void worldUpdated(WorldEntry world);
+
+    void worldRemoved(String worldId);
+}
@@ -0,0 +1,8 @@
+package io.worldportal.app.service;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface RemoteFilePatch {
+    byte[] apply(byte[] currentContent) throws IOException;
+}
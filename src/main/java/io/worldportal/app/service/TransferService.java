@@ -20,7 +20,23 @@ public interface TransferService {
         throw new UnsupportedOperationException("Remote rename is not supported.");
     }
 
+    default String duplicateRemoteWorld(WorldEntry remoteWorld, RemoteProfile profile) {
+        throw new UnsupportedOperationException("Remote duplicate is not supported.");
+    }
+
     default void deleteRemoteWorld(WorldEntry remoteWorld, RemoteProfile profile) {
         throw new UnsupportedOperationException("Remote delete is not supported.");
     }
+
+    default byte[] readRemoteFile(WorldEntry remoteWorld, String relativePath, RemoteProfile profile) {
+        throw new UnsupportedOperationException("Remote file reads are not supported.");
+    }
+
+    default void patchRemoteFile(
+            WorldEntry remoteWorld,
+            String relativePath,
+            RemoteFilePatch patch,
+            RemoteProfile profile) {
+        throw new UnsupportedOperationException("Remote file patching is not supported.");
+    }
 }
@@ -3,14 +3,48 @@ package io.worldportal.app.service;
 import io.worldportal.app.model.RemoteProfile;
 import io.worldportal.app.model.WorldEntry;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface WorldService {
     List<WorldEntry> listLocalWorlds(String localWorldsPath);
 
+    default List<WorldEntry> rescanLocalWorlds(String localWorldsPath) {
+        return listLocalWorlds(localWorldsPath);
+    }
+
     List<WorldEntry> listRemoteWorlds(RemoteProfile profile);
 
+    default List<WorldEntry> listRemoteWorlds(RemoteProfile profile, Consumer<WorldEntry> sink) {
+        List<WorldEntry> worlds = listRemoteWorlds(profile);
+        worlds.forEach(sink);
+        return worlds;
+    }
+
+    default List<WorldEntry> listCachedRemoteWorlds(RemoteProfile profile) {
+        return Collections.emptyList();
+    }
+
+    default AutoCloseable watchLocalWorlds(String localWorldsPath, LocalWorldListener listener) {
+        return () -> {
+        };
+    }
+
     default String downloadRemotePreview(WorldEntry world, RemoteProfile profile) {
         return null;
     }
+
+    default Map<String, String> downloadRemotePreviews(List<WorldEntry> worlds, RemoteProfile profile) {
+        Map<String, String> previews = new HashMap<>();
+        for (WorldEntry world : worlds) {
+            String preview = downloadRemotePreview(world, profile);
+            if (preview != null) {
+                previews.put(world.getId(), preview);
+            }
+        }
+        return previews;
+    }
 }
@@ -0,0 +1,342 @@
+package io.worldportal.app.service.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class BlockDelta {
+    static final int MIN_BLOCK_SIZE = 2 * 1024;
+    static final int MAX_BLOCK_SIZE = 64 * 1024;
+    static final int STRONG_BYTES = 16;
+    static final int OP_COPY = 'C';
+    static final int OP_LITERAL = 'L';
+    static final int OP_END = 'E';
+    private static final int MAX_LITERAL_BYTES = 1024 * 1024;
+
+    private BlockDelta() {
+    }
+
+    static int blockSizeFor(long length) {
+        long rounded = ((long) Math.ceil(Math.sqrt(length) / 1024.0)) * 1024L;
+        return (int) Math.max(MIN_BLOCK_SIZE, Math.min(MAX_BLOCK_SIZE, rounded));
+    }
+
+    static int weakChecksum(byte[] data, int offset, int length) {
+        int a = 0;
+        int b = 0;
+        for (int index = 0; index < length; index++) {
+            int value = data[offset + index] & 0xff;
+            a += value;
+            b += (length - index) * value;
+        }
+        return (b << 16) | (a & 0xffff);
+    }
+
+    static Signature signature(InputStream input, int blockSize) throws IOException {
+        MessageDigest whole = digest("SHA-256");
+        MessageDigest strong = digest("MD5");
+        List<Integer> weak = new ArrayList<>();
+        List<byte[]> strongHashes = new ArrayList<>();
+        byte[] block = new byte[blockSize];
+        long length = 0;
+        int read;
+        while ((read = input.readNBytes(block, 0, blockSize)) > 0) {
+            weak.add(weakChecksum(block, 0, read));
+            strong.update(block, 0, read);
+            strongHashes.add(strong.digest());
+            whole.update(block, 0, read);
+            length += read;
+        }
+        return new Signature(
+                length,
+                blockSize,
+                weak.stream().mapToInt(Integer::intValue).toArray(),
+                strongHashes.toArray(byte[][]::new),
+                whole.digest());
+    }
+
+    static Signature readSignature(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+        long length = input.readLong();
+        int blockSize = input.readInt();
+        if (length < 0 || blockSize < MIN_BLOCK_SIZE || blockSize > MAX_BLOCK_SIZE) {
+            throw new IOException("Malformed block signature header.");
+        }
+        long blocks = (length + blockSize - 1) / blockSize;
+        if (blocks > Integer.MAX_VALUE) {
+            throw new IOException("Block signature too large.");
+        }
+        int[] weak = new int[(int) blocks];
+        byte[][] strong = new byte[(int) blocks][];
+        for (int index = 0; index < blocks; index++) {
+            weak[index] = input.readInt();
+            strong[index] = input.readNBytes(STRONG_BYTES);
+            if (strong[index].length != STRONG_BYTES) {
+                throw new IOException("Block signature ended early.");
+            }
+        }
+        byte[] sha256 = input.readNBytes(32);
+        if (sha256.length != 32) {
+            throw new IOException("Block signature ended early.");
+        }
+        return new Signature(length, blockSize, weak, strong, sha256);
+    }
+
+    static Stats encode(InputStream source, Signature target, OutputStream stream) throws IOException {
+        DataOutputStream output = new DataOutputStream(stream);
+        int blockSize = target.blockSize();
+        Encoder encoder = new Encoder(source, output, blockSize);
+        int fullBlocks = (int) (target.length() / blockSize);
+        WeakIndex blocksByWeak = new WeakIndex(target.weak(), fullBlocks);
+
+        MessageDigest strong = digest("MD5");
+        long position = 0;
+        int a = 0;
+        int b = 0;
+        boolean fresh = true;
+        while (fullBlocks > 0 && encoder.ensure(position, position + blockSize)) {
+            byte[] window = encoder.window();
+            int offset = encoder.offset(position);
+            if (fresh) {
+                int weak = weakChecksum(window, offset, blockSize);
+                a = weak & 0xffff;
+                b = weak >>> 16;
+                fresh = false;
+            }
+            int match = -1;
+            int candidate = blocksByWeak.first((b << 16) | (a & 0xffff));
+            if (candidate >= 0) {
+                strong.update(window, offset, blockSize);
+                byte[] hash = strong.digest();
+                for (; candidate >= 0; candidate = blocksByWeak.next(candidate)) {
+                    if (Arrays.equals(hash, target.strong()[candidate])) {
+                        match = candidate;
+                        if (encoder.continuesRun(candidate)) {
+                            break;
+                        }
+                    }
+                }
+            }
+            if (match >= 0) {
+                encoder.copy(position, match, blockSize);
+                position += blockSize;
+                fresh = true;
+                continue;
+            }
+            if (encoder.ensure(position, position + blockSize + 1)) {
+                window = encoder.window();
+                offset = encoder.offset(position);
+                int removed = window[offset] & 0xff;
+                int added = window[offset + blockSize] & 0xff;
+                a = a - removed + added;
+                b = b - blockSize * removed + a;
+            }
+            position++;
+        }
+
+        int tailLength = (int) (target.length() % blockSize);
+        long length = encoder.readToEnd(tailLength);
+        int lastBlock = target.weak().length - 1;
+        long tailStart = length - tailLength;
+        if (tailLength > 0 && tailStart >= encoder.literalStart()
+                && target.weak()[lastBlock] == weakChecksum(encoder.window(), encoder.offset(tailStart), tailLength)) {
+            strong.update(encoder.window(), encoder.offset(tailStart), tailLength);
+            if (Arrays.equals(strong.digest(), target.strong()[lastBlock])) {
+                encoder.copy(tailStart, lastBlock, tailLength);
+            }
+        }
+        return encoder.finish();
+    }
+
+    static byte[] sha256(InputStream input) throws IOException {
+        MessageDigest digest = digest("SHA-256");
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = input.read(buffer)) > 0) {
+            digest.update(buffer, 0, read);
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest digest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(algorithm + " is not available.", exception);
+        }
+    }
+
+    record Signature(long length, int blockSize, int[] weak, byte[][] strong, byte[] sha256) {
+        int blockCount() {
+            return weak.length;
+        }
+
+        int blockLength(int index) {
+            return (int) Math.min(blockSize, length - (long) index * blockSize);
+        }
+
+        boolean sameBlock(int index, Signature other, int otherIndex) {
+            return blockLength(index) == other.blockLength(otherIndex)
+                    && weak[index] == other.weak[otherIndex]
+                    && Arrays.equals(strong[index], other.strong[otherIndex]);
+        }
+    }
+
+    record Stats(long copiedBytes, long literalBytes) {
+    }
+
+    private static final class WeakIndex {
+        private final int[] keys;
+        private final int[] heads;
+        private final int[] next;
+        private final int mask;
+
+        private WeakIndex(int[] weak, int count) {
+            int capacity = Integer.highestOneBit(Math.max(1, count)) * 4;
+            keys = new int[capacity];
+            heads = new int[capacity];
+            next = new int[count];
+            mask = capacity - 1;
+            Arrays.fill(heads, -1);
+            // Insert backwards so each chain lists its blocks in ascending order.
+            for (int block = count - 1; block >= 0; block--) {
+                int slot = slot(weak[block]);
+                keys[slot] = weak[block];
+                next[block] = heads[slot];
+                heads[slot] = block;
+            }
+        }
+
+        private int first(int weak) {
+            return heads[slot(weak)];
+        }
+
+        private int next(int block) {
+            return next[block];
+        }
+
+        private int slot(int weak) {
+            int hash = weak * 0x9e3779b9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (heads[slot] >= 0 && keys[slot] != weak) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    private static final class Encoder {
+        private final InputStream source;
+        private final DataOutputStream output;
+        private final byte[] window;
+        private long base;
+        private int filled;
+        private boolean eof;
+        private long literalStart;
+        private int runStart = -1;
+        private int runCount;
+        private long copiedBytes;
+        private long literalBytes;
+
+        private Encoder(InputStream source, DataOutputStream output, int blockSize) {
+            this.source = source;
+            this.output = output;
+            this.window = new byte[MAX_LITERAL_BYTES + 2 * blockSize];
+        }
+
+        private byte[] window() {
+            return window;
+        }
+
+        private int offset(long position) {
+            return (int) (position - base);
+        }
+
+        private long literalStart() {
+            return literalStart;
+        }
+
+        private boolean ensure(long position, long end) throws IOException {
+            while (end > base + filled) {
+                if (eof) {
+                    return false;
+                }
+                if (position - literalStart >= MAX_LITERAL_BYTES) {
+                    flushLiteral(position);
+                }
+                int discard = offset(literalStart);
+                System.arraycopy(window, discard, window, 0, filled - discard);
+                base = literalStart;
+                filled -= discard;
+                int wanted = window.length - filled;
+                int read = source.readNBytes(window, filled, wanted);
+                filled += read;
+                eof = read < wanted;
+            }
+            return true;
+        }
+
+        private long readToEnd(int keep) throws IOException {
+            while (!eof) {
+                ensure(Math.max(literalStart, base + filled - keep), base + filled + 1);
+            }
+            return base + filled;
+        }
+
+        private boolean continuesRun(int block) {
+            return runStart >= 0 && block == runStart + runCount;
+        }
+
+        private void copy(long position, int block, int length) throws IOException {
+            flushLiteral(position);
+            if (!continuesRun(block)) {
+                flushRun();
+                runStart = block;
+            }
+            runCount++;
+            copiedBytes += length;
+            literalStart = position + length;
+        }
+
+        private void flushLiteral(long end) throws IOException {
+            if (end <= literalStart) {
+                return;
+            }
+            flushRun();
+            for (long start = literalStart; start < end; start += MAX_LITERAL_BYTES) {
+                int length = (int) Math.min(MAX_LITERAL_BYTES, end - start);
+                output.writeByte(OP_LITERAL);
+                output.writeInt(length);
+                output.write(window, offset(start), length);
+            }
+            literalBytes += end - literalStart;
+            literalStart = end;
+        }
+
+        private void flushRun() throws IOException {
+            if (runStart < 0) {
+                return;
+            }
+            output.writeByte(OP_COPY);
+            output.writeInt(runStart);
+            output.writeInt(runCount);
+            runStart = -1;
+            runCount = 0;
+        }
+
+        private Stats finish() throws IOException {
+            flushLiteral(readToEnd(0));
+            flushRun();
+            output.writeByte(OP_END);
+            output.flush();
+            return new Stats(copiedBytes, literalBytes);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class BlockDeltaTransfer {
+    static final long MIN_FILE_BYTES = 64 * 1024;
+    static final long MAX_FILE_BYTES = 256L * 1024 * 1024;
+    static final int EXIT_VERIFY_FAILED = 4;
+    private static final long COMMAND_TIMEOUT_MILLIS = 300_000L;
+    private static final String HELPER = """
+            import hashlib, itertools, os, struct, sys, tempfile
+            def weak(block):
+                return ((sum(itertools.accumulate(block)) & 0xffff) << 16) | (sum(block) & 0xffff)
+            def read_exact(stream, size):
+                data = stream.read(size)
+                if len(data) != size:
+                    sys.exit(3)
+                return data
+            mode, size, path = sys.argv[1], int(sys.argv[2]), sys.argv[3]
+            if mode == "sig":
+                out = sys.stdout.buffer
+                whole = hashlib.sha256()
+                with open(path, "rb") as source:
+                    out.write(struct.pack(">qi", os.fstat(source.fileno()).st_size, size))
+                    while True:
+                        block = source.read(size)
+                        if not block:
+                            break
+                        whole.update(block)
+                        out.write(struct.pack(">I", weak(block)) + hashlib.md5(block).digest())
+                out.write(whole.digest())
+            elif mode == "patch":
+                stdin = sys.stdin.buffer
+                fd, temp = tempfile.mkstemp(prefix=".wp-delta-", dir=os.path.dirname(path) or ".")
+                whole = hashlib.sha256()
+                try:
+                    with open(path, "rb") as old, os.fdopen(fd, "wb") as new:
+                        while True:
+                            op = read_exact(stdin, 1)
+                            if op == b"E":
+                                break
+                            if op == b"C":
+                                index, count = struct.unpack(">ii", read_exact(stdin, 8))
+                                old.seek(index * size)
+                                remaining = count * size
+                                while remaining > 0:
+                                    data = old.read(min(remaining, 1048576))
+                                    if not data:
+                                        break
+                                    new.write(data)
+                                    whole.update(data)
+                                    remaining -= len(data)
+                            elif op == b"L":
+                                data = read_exact(stdin, struct.unpack(">i", read_exact(stdin, 4))[0])
+                                new.write(data)
+                                whole.update(data)
+                            else:
+                                sys.exit(3)
+                    if whole.hexdigest() != sys.argv[4]:
+                        sys.exit(4)
+                    os.chmod(temp, os.stat(path).st_mode & 0o7777)
+                    os.replace(temp, path)
+                finally:
+                    if os.path.exists(temp):
+                        os.unlink(temp)
+            else:
+                sys.exit(2)
+            """;
+
+    private BlockDeltaTransfer() {
+    }
+
+    static boolean eligible(long localSize, long remoteSize) {
+        return localSize >= MIN_FILE_BYTES && remoteSize >= MIN_FILE_BYTES
+                && localSize <= MAX_FILE_BYTES && remoteSize <= MAX_FILE_BYTES;
+    }
+
+    static BlockDelta.Stats upload(Session session, Path localFile, String remoteFile, long remoteSize)
+            throws Exception {
+        BlockDelta.Signature remote = remoteSignature(session, remoteFile, BlockDelta.blockSizeFor(remoteSize));
+        if (remote == null) {
+            return null;
+        }
+
+        String expected;
+        try (InputStream source = Files.newInputStream(localFile)) {
+            expected = HexFormat.of().formatHex(BlockDelta.sha256(source));
+        }
+        AtomicReference<BlockDelta.Stats> stats = new AtomicReference<>();
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                command("patch", remote.blockSize(), remoteFile, expected),
+                COMMAND_TIMEOUT_MILLIS,
+                stdin -> {
+                    try (InputStream source = Files.newInputStream(localFile)) {
+                        stats.set(BlockDelta.encode(source, remote, new BufferedOutputStream(stdin, 64 * 1024)));
+                    }
+                },
+                stdout -> {
+                });
+        if (result.exitStatus() == RemoteCommands.EXIT_MISSING_TOOLS) {
+            return null;
+        }
+        if (result.exitStatus() == EXIT_VERIFY_FAILED) {
+            throw new IOException("Delta upload did not reproduce " + remoteFile + ".");
+        }
+        if (result.exitStatus() != 0) {
+            throw new IOException("Delta upload failed with exit status " + result.exitStatus() + ".");
+        }
+        return stats.get();
+    }
+
+    static BlockDelta.Stats download(
+            Session session,
+            ChannelSftp channel,
+            String remoteFile,
+            Path localFile,
+            long remoteSize) throws Exception {
+        BlockDelta.Signature remote = remoteSignature(session, remoteFile, BlockDelta.blockSizeFor(remoteSize));
+        if (remote == null) {
+            return null;
+        }
+        BlockDelta.Signature local;
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(localFile))) {
+            local = BlockDelta.signature(inputStream, remote.blockSize());
+        }
+
+        Path tempFile = Files.createTempFile(localFile.getParent(), "." + localFile.getFileName(), ".delta");
+        try {
+            MessageDigest digest = sha256Digest();
+            long copied = 0L;
+            long fetched = 0L;
+            try (InputStream old = Files.newInputStream(localFile);
+                    OutputStream out = new DigestOutputStream(
+                            new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024), digest)) {
+                long oldPosition = 0L;
+                int index = 0;
+                while (index < remote.blockCount()) {
+                    long offset = (long) index * remote.blockSize();
+                    if (reusable(remote, local, index)) {
+                        old.skipNBytes(offset - oldPosition);
+                        int length = remote.blockLength(index);
+                        copyExactly(old, out, length);
+                        oldPosition = offset + length;
+                        copied += length;
+                        index++;
+                        continue;
+                    }
+                    int end = index + 1;
+                    while (end < remote.blockCount() && !reusable(remote, local, end)) {
+                        end++;
+                    }
+                    long length = Math.min(remote.length(), (long) end * remote.blockSize()) - offset;
+                    try (InputStream range = channel.get(remoteFile, null, offset)) {
+                        copyExactly(range, out, length);
+                    }
+                    fetched += length;
+                    index = end;
+                }
+            }
+            if (!Arrays.equals(digest.digest(), remote.sha256())) {
+                throw new IOException("Delta download did not reproduce " + remoteFile + ".");
+            }
+            try {
+                Files.move(tempFile, localFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(tempFile, localFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new BlockDelta.Stats(copied, fetched);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    static BlockDelta.Signature remoteSignature(Session session, String remoteFile, int blockSize) throws Exception {
+        AtomicReference<BlockDelta.Signature> signature = new AtomicReference<>();
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                command("sig", blockSize, remoteFile, null),
+                COMMAND_TIMEOUT_MILLIS,
+                stdout -> signature.set(BlockDelta.readSignature(new BufferedInputStream(stdout, 64 * 1024))));
+        if (result.exitStatus() == RemoteCommands.EXIT_MISSING_TOOLS) {
+            return null;
+        }
+        if (result.exitStatus() != 0 || signature.get() == null) {
+            throw new IOException("Remote block signature failed with exit status " + result.exitStatus() + ".");
+        }
+        return signature.get();
+    }
+
+    static String command(String mode, int blockSize, String remoteFile, String expectedSha256) {
+        StringBuilder command = new StringBuilder()
+                .append("command -v python3 >/dev/null 2>&1 || exit ").append(RemoteCommands.EXIT_MISSING_TOOLS)
+                .append("\nexec python3 -c ").append(RemoteCommands.quote(HELPER))
+                .append(' ').append(mode)
+                .append(' ').append(blockSize)
+                .append(' ').append(RemoteCommands.quote(remoteFile));
+        if (expectedSha256 != null) {
+            command.append(' ').append(expectedSha256);
+        }
+        return command.toString();
+    }
+
+    private static boolean reusable(BlockDelta.Signature remote, BlockDelta.Signature local, int index) {
+        return index < local.blockCount() && remote.sameBlock(index, local, index);
+    }
+
+    private static void copyExactly(InputStream input, OutputStream output, long length) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(64 * 1024, Math.max(1L, length))];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                throw new IOException("File ended before the expected block range.");
+            }
+            output.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available.", exception);
+        }
+    }
+}
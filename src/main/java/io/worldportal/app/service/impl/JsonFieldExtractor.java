@@ -0,0 +1,468 @@
+package io.worldportal.app.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class JsonFieldExtractor {
+    public static final String ROOT = "";
+    private static final int MAX_DEPTH = 256;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream input;
+    private final String[] paths;
+    private final String[][] segments;
+    private final String[] segmentNames;
+    private final byte[][] segmentBytes;
+    private final String[] keyStack = new String[MAX_DEPTH];
+    private final boolean[] foundPaths;
+    private final Map<String, Object> values = new HashMap<>();
+    private final Map<String, Span> spans = new HashMap<>();
+    private final byte[] buffer;
+    private byte[] text = new byte[64];
+    private int textLength;
+    private int bufferPosition;
+    private int bufferLimit;
+    private int bufferOffset;
+    private int depth;
+    private int nesting;
+    private int unreachable;
+
+    private JsonFieldExtractor(InputStream input, byte[] buffer, int bufferLimit, Collection<String> paths) {
+        this.input = input;
+        this.buffer = buffer;
+        this.bufferLimit = bufferLimit;
+        this.paths = paths.toArray(String[]::new);
+        this.segments = new String[this.paths.length][];
+        this.foundPaths = new boolean[this.paths.length];
+        List<String> names = new ArrayList<>();
+        for (int index = 0; index < this.paths.length; index++) {
+            this.segments[index] = this.paths[index].isEmpty() ? new String[0] : this.paths[index].split("\\.");
+            for (String segment : this.segments[index]) {
+                if (!names.contains(segment)) {
+                    names.add(segment);
+                }
+            }
+        }
+        this.segmentNames = names.toArray(String[]::new);
+        this.segmentBytes = new byte[segmentNames.length][];
+        for (int index = 0; index < segmentNames.length; index++) {
+            this.segmentBytes[index] = segmentNames[index].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public static Fields extract(String json, Collection<String> paths) {
+        if (json == null) {
+            return Fields.EMPTY;
+        }
+        return extract(json.getBytes(StandardCharsets.UTF_8), paths);
+    }
+
+    public static Fields extract(byte[] json, Collection<String> paths) {
+        if (json == null) {
+            return Fields.EMPTY;
+        }
+        try {
+            return new JsonFieldExtractor(null, json, json.length, paths).run();
+        } catch (IOException exception) {
+            return Fields.EMPTY;
+        }
+    }
+
+    public static Fields extract(InputStream inputStream, Collection<String> paths) throws IOException {
+        return new JsonFieldExtractor(inputStream, new byte[BUFFER_SIZE], 0, paths).run();
+    }
+
+    private Fields run() throws IOException {
+        try {
+            skipWhitespace();
+            if (peek() != '[') {
+                skipRootPaths();
+            }
+            readValue();
+        } catch (AllFieldsFound | MalformedJsonException ignored) {
+        }
+        return new Fields(values, spans);
+    }
+
+    private void readValue() throws IOException {
+        int match = matchingPath();
+        int next = peek();
+        switch (next) {
+            case '{' -> readObject();
+            case '[' -> readArray(match);
+            case '"' -> {
+                int start = position();
+                if (match < 0) {
+                    skipString();
+                } else {
+                    String value = readString();
+                    spans.put(paths[match], new Span(start, position()));
+                    found(match, value);
+                }
+            }
+            default -> {
+                int start = position();
+                if (match < 0) {
+                    skipLiteral();
+                    return;
+                }
+                String literal = readLiteral();
+                if (!"null".equals(literal)) {
+                    spans.put(paths[match], new Span(start, position()));
+                    found(match, literal);
+                }
+            }
+        }
+    }
+
+    private void readObject() throws IOException {
+        enterNested();
+        read();
+        skipWhitespace();
+        if (peek() == '}') {
+            read();
+            nesting--;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            keyStack[depth++] = readKey();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            readValue();
+            depth--;
+            skipWhitespace();
+            int next = read();
+            if (next == '}') {
+                nesting--;
+                return;
+            }
+            if (next != ',') {
+                throw new MalformedJsonException();
+            }
+        }
+    }
+
+    private void readArray(int match) throws IOException {
+        enterNested();
+        read();
+        skipWhitespace();
+        List<String> elements = match >= 0 ? new ArrayList<>() : null;
+        if (peek() == ']') {
+            read();
+        } else {
+            while (true) {
+                skipWhitespace();
+                int next = peek();
+                if (elements != null && next == '"') {
+                    elements.add(readString());
+                } else if (elements != null && next != '{' && next != '[') {
+                    String literal = readLiteral();
+                    if (!"null".equals(literal)) {
+                        elements.add(literal);
+                    }
+                } else {
+                    readValue();
+                }
+                skipWhitespace();
+                next = read();
+                if (next == ']') {
+                    break;
+                }
+                if (next != ',') {
+                    throw new MalformedJsonException();
+                }
+            }
+        }
+        nesting--;
+        if (elements != null) {
+            found(match, Collections.unmodifiableList(elements));
+        }
+    }
+
+    private void enterNested() throws MalformedJsonException {
+        if (nesting == MAX_DEPTH) {
+            throw new MalformedJsonException();
+        }
+        nesting++;
+    }
+
+    private void skipRootPaths() {
+        for (int index = 0; index < paths.length; index++) {
+            if (segments[index].length == 0) {
+                foundPaths[index] = true;
+                unreachable++;
+            }
+        }
+    }
+
+    private void found(int match, Object value) {
+        foundPaths[match] = true;
+        values.put(paths[match], value);
+        if (values.size() + unreachable == paths.length) {
+            throw AllFieldsFound.INSTANCE;
+        }
+    }
+
+    private int matchingPath() {
+        if (depth > 0 && keyStack[depth - 1] == null) {
+            return -1;
+        }
+        for (int index = 0; index < paths.length; index++) {
+            if (foundPaths[index]) {
+                continue;
+            }
+            String[] path = segments[index];
+            if (path.length == 0) {
+                if (depth == 0) {
+                    return index;
+                }
+                continue;
+            }
+            if (path.length > depth) {
+                continue;
+            }
+            boolean matches = true;
+            for (int segment = 0; segment < path.length && matches; segment++) {
+                matches = path[segment] == keyStack[depth - path.length + segment];
+            }
+            if (matches) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private String readKey() throws IOException {
+        readText();
+        for (int index = 0; index < segmentBytes.length; index++) {
+            byte[] candidate = segmentBytes[index];
+            if (candidate.length == textLength && Arrays.equals(text, 0, textLength, candidate, 0, textLength)) {
+                return segmentNames[index];
+            }
+        }
+        return null;
+    }
+
+    private String readString() throws IOException {
+        readText();
+        return new String(text, 0, textLength, StandardCharsets.UTF_8);
+    }
+
+    private void readText() throws IOException {
+        expect('"');
+        textLength = 0;
+        while (true) {
+            if (bufferPosition == bufferLimit && fill() == -1) {
+                throw new MalformedJsonException();
+            }
+            int runStart = bufferPosition;
+            while (bufferPosition < bufferLimit) {
+                byte next = buffer[bufferPosition];
+                if (next == '"' || next == '\\') {
+                    break;
+                }
+                bufferPosition++;
+            }
+            appendText(buffer, runStart, bufferPosition - runStart);
+            if (bufferPosition == bufferLimit) {
+                continue;
+            }
+            if (buffer[bufferPosition++] == '"') {
+                return;
+            }
+            int escaped = read();
+            if (escaped == 'u') {
+                appendCodeUnit(readUnicodeEscape());
+            } else {
+                appendByte((byte) unescape(escaped));
+            }
+        }
+    }
+
+    private void appendCodeUnit(char codeUnit) throws IOException {
+        String decoded = String.valueOf(codeUnit);
+        if (Character.isHighSurrogate(codeUnit) && peek() == '\\') {
+            read();
+            if (read() != 'u') {
+                throw new MalformedJsonException();
+            }
+            decoded = new String(new char[] {codeUnit, readUnicodeEscape()});
+        }
+        byte[] encoded = decoded.getBytes(StandardCharsets.UTF_8);
+        appendText(encoded, 0, encoded.length);
+    }
+
+    private void appendText(byte[] source, int offset, int length) {
+        if (textLength + length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + length));
+        }
+        System.arraycopy(source, offset, text, textLength, length);
+        textLength += length;
+    }
+
+    private void appendByte(byte value) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, text.length * 2);
+        }
+        text[textLength++] = value;
+    }
+
+    private static char unescape(int escaped) throws MalformedJsonException {
+        return switch (escaped) {
+            case '"', '\\', '/' -> (char) escaped;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            default -> throw new MalformedJsonException();
+        };
+    }
+
+    private void skipString() throws IOException {
+        expect('"');
+        while (true) {
+            if (bufferPosition == bufferLimit && fill() == -1) {
+                throw new MalformedJsonException();
+            }
+            byte next = buffer[bufferPosition++];
+            if (next == '"') {
+                return;
+            }
+            if (next == '\\') {
+                read();
+            }
+        }
+    }
+
+    private char readUnicodeEscape() throws IOException {
+        int value = 0;
+        for (int index = 0; index < 4; index++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw new MalformedJsonException();
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    private String readLiteral() throws IOException {
+        textLength = 0;
+        while (!isLiteralEnd(peek())) {
+            appendByte(buffer[bufferPosition++]);
+        }
+        if (textLength == 0) {
+            throw new MalformedJsonException();
+        }
+        return new String(text, 0, textLength, StandardCharsets.US_ASCII);
+    }
+
+    private void skipLiteral() throws IOException {
+        int start = position();
+        while (!isLiteralEnd(peek())) {
+            bufferPosition++;
+        }
+        if (position() == start) {
+            throw new MalformedJsonException();
+        }
+    }
+
+    private static boolean isLiteralEnd(int next) {
+        return next == -1 || next == ',' || next == '}' || next == ']'
+                || next == ' ' || next == '\n' || next == '\r' || next == '\t';
+    }
+
+    private void expect(char expected) throws IOException {
+        if (read() != expected) {
+            throw new MalformedJsonException();
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (true) {
+            int next = peek();
+            if (next != ' ' && next != '\n' && next != '\r' && next != '\t') {
+                return;
+            }
+            bufferPosition++;
+        }
+    }
+
+    private int read() throws IOException {
+        int next = peek();
+        if (next == -1) {
+            throw new MalformedJsonException();
+        }
+        bufferPosition++;
+        return next;
+    }
+
+    private int peek() throws IOException {
+        if (bufferPosition == bufferLimit && fill() == -1) {
+            return -1;
+        }
+        return buffer[bufferPosition] & 0xff;
+    }
+
+    private int fill() throws IOException {
+        if (input == null) {
+            return -1;
+        }
+        bufferOffset += bufferLimit;
+        bufferPosition = 0;
+        bufferLimit = Math.max(0, input.read(buffer));
+        return bufferLimit == 0 ? -1 : bufferLimit;
+    }
+
+    private int position() {
+        return bufferOffset + bufferPosition;
+    }
+
+    public record Fields(Map<String, Object> values, Map<String, Span> spans) {
+        static final Fields EMPTY = new Fields(Map.of(), Map.of());
+
+        public String string(String path) {
+            return values.get(path) instanceof String value ? value : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        public List<String> strings(String path) {
+            return values.get(path) instanceof List<?> value ? (List<String>) value : null;
+        }
+
+        public Span span(String path) {
+            return spans.get(path);
+        }
+    }
+
+    public record Span(int start, int end) {
+    }
+
+    private static final class MalformedJsonException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private MalformedJsonException() {
+            super("Malformed JSON.");
+        }
+    }
+
+    private static final class AllFieldsFound extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private static final AllFieldsFound INSTANCE = new AllFieldsFound();
+
+        private AllFieldsFound() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.WorldEntry;
+import io.worldportal.app.service.LocalWorldListener;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+final class LocalWorldIndex implements AutoCloseable {
+    static final String PREVIEW_RELATIVE_PATH = "preview.png";
+    private static final List<String> WATCHED_FILES = List.of(
+            WorldMetadataReader.CONFIG_RELATIVE_PATH,
+            WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH,
+            PREVIEW_RELATIVE_PATH);
+    private static final long SETTLE_MILLIS = 150L;
+    private static final long MAX_BATCH_MILLIS = 1_000L;
+
+    private final Path root;
+    private final Function<Path, WorldEntry> loader;
+    private final LocalWorldListener listener;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private final Map<String, WorldEntry> worlds = new ConcurrentHashMap<>();
+    private final Thread watcher;
+    private volatile boolean closed;
+
+    private LocalWorldIndex(
+            Path root,
+            Function<Path, WorldEntry> loader,
+            LocalWorldListener listener) throws IOException {
+        this.root = root;
+        this.loader = loader;
+        this.listener = listener;
+        this.watchService = root.getFileSystem().newWatchService();
+        this.watcher = new Thread(this::watchLoop, "local-world-watcher");
+        this.watcher.setDaemon(true);
+    }
+
+    static LocalWorldIndex open(
+            Path root,
+            Function<Path, WorldEntry> loader,
+            LocalWorldListener listener) throws IOException {
+        LocalWorldIndex index = new LocalWorldIndex(root, loader, listener);
+        try {
+            index.register(root);
+            index.registerWorlds();
+        } catch (IOException exception) {
+            index.close();
+            throw exception;
+        }
+        index.watcher.start();
+        return index;
+    }
+
+    synchronized void reseed(List<WorldEntry> scannedWorlds) {
+        Set<String> scannedIds = new LinkedHashSet<>();
+        for (WorldEntry world : scannedWorlds) {
+            scannedIds.add(world.getId());
+            worlds.put(world.getId(), world);
+        }
+        worlds.keySet().retainAll(scannedIds);
+        try {
+            registerWorlds();
+        } catch (IOException ignored) {
+        }
+    }
+
+    List<WorldEntry> snapshot() {
+        List<WorldEntry> result = new ArrayList<>(worlds.values());
+        result.sort((left, right) -> right.getLastModified().compareTo(left.getLastModified()));
+        return result;
+    }
+
+    boolean isOpen() {
+        return !closed;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                Set<String> changedWorlds = new LinkedHashSet<>();
+                boolean rescan = collect(key, changedWorlds);
+                long deadline = System.currentTimeMillis() + MAX_BATCH_MILLIS;
+                WatchKey next;
+                while (System.currentTimeMillis() < deadline
+                        && (next = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    rescan |= collect(next, changedWorlds);
+                }
+                if (rescan) {
+                    changedWorlds.addAll(worlds.keySet());
+                    try (Stream<Path> entries = Files.list(root)) {
+                        entries.forEach(entry -> changedWorlds.add(entry.getFileName().toString()));
+                    } catch (IOException ignored) {
+                    }
+                }
+                for (String worldName : changedWorlds) {
+                    reload(worldName);
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private boolean collect(WatchKey key, Set<String> changedWorlds) {
+        Path directory = watchedDirectories.get(key);
+        boolean rescan = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                rescan = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            Path relative = root.relativize(directory.resolve((Path) event.context()));
+            if (relative.getNameCount() == 1) {
+                changedWorlds.add(relative.toString());
+            } else if (isWatchedPath(relative.subpath(1, relative.getNameCount()))) {
+                changedWorlds.add(relative.getName(0).toString());
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+        return rescan;
+    }
+
+    private synchronized void reload(String worldName) {
+        Path worldDirectory = root.resolve(worldName);
+        WorldEntry world = Files.isDirectory(worldDirectory) ? loader.apply(worldDirectory) : null;
+        if (world == null) {
+            if (Files.isDirectory(worldDirectory)) {
+                registerWorld(worldDirectory);
+            }
+            if (worlds.remove(worldName) != null) {
+                listener.worldRemoved(worldName);
+            }
+            return;
+        }
+        registerWorld(worldDirectory);
+        worlds.put(worldName, world);
+        listener.worldUpdated(world);
+    }
+
+    private void registerWorlds() throws IOException {
+        try (Stream<Path> entries = Files.list(root)) {
+            entries.filter(Files::isDirectory).forEach(this::registerWorld);
+        }
+    }
+
+    private void registerWorld(Path worldDirectory) {
+        try {
+            register(worldDirectory);
+            Path directory = worldDirectory;
+            Path configDirectory = Path.of(WorldMetadataReader.CONFIG_RELATIVE_PATH).getParent();
+            for (Path segment : configDirectory) {
+                directory = directory.resolve(segment.toString());
+                if (!Files.isDirectory(directory)) {
+                    return;
+                }
+                register(directory);
+            }
+        } catch (IOException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        WatchKey key = directory.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        watchedDirectories.put(key, directory);
+    }
+
+    private static boolean isWatchedPath(Path pathInWorld) {
+        String relative = pathInWorld.toString().replace('\\', '/');
+        for (String watchedFile : WATCHED_FILES) {
+            if (watchedFile.equals(relative) || watchedFile.startsWith(relative + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
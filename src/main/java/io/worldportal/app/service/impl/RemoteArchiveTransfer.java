@@ -0,0 +1,114 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.Session;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+final class RemoteArchiveTransfer {
+    static final int MIN_FILE_COUNT = 32;
+    private static final long TRANSFER_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(2);
+    private static final int STREAM_BUFFER_BYTES = 256 * 1024;
+    private static final String REQUIRE_TOOLS =
+            "{ command -v tar && command -v gzip; } >/dev/null 2>&1 || exit 97";
+    private static final String UPLOAD_SCRIPT = """
+            %1$s
+            mkdir -p -- %2$s && cd -- %2$s || exit 98
+            exec tar -xzf -
+            """;
+    private static final String DOWNLOAD_SCRIPT = """
+            LC_ALL=C; export LC_ALL
+            cd -- %2$s 2>/dev/null || exit 98
+            %1$s
+            set --
+            for f in %3$s; do [ -e "$f" ] && set -- "$@" "$f"; done
+            [ $# -gt 0 ] || exit 0
+            exec tar -czf - -- "$@"
+            """;
+
+    private RemoteArchiveTransfer() {
+    }
+
+    static boolean upload(Session session, Path localWorld, String remoteWorldPath, Collection<String> relativeFiles)
+            throws Exception {
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                UPLOAD_SCRIPT.formatted(REQUIRE_TOOLS, RemoteCommands.quote(remoteWorldPath)),
+                TRANSFER_TIMEOUT_MILLIS,
+                stdin -> {
+                    BufferedOutputStream buffered = new BufferedOutputStream(stdin, STREAM_BUFFER_BYTES);
+                    GZIPOutputStream gzip = new GZIPOutputStream(buffered, STREAM_BUFFER_BYTES);
+                    TarStreams.Writer writer = new TarStreams.Writer(gzip);
+                    for (String relativeFile : relativeFiles) {
+                        writer.putFile(relativeFile, localWorld.resolve(relativeFile));
+                    }
+                    writer.finish();
+                    gzip.finish();
+                    buffered.flush();
+                },
+                stdout -> {
+                });
+        return checkExit(result, "upload");
+    }
+
+    static boolean download(
+            Session session,
+            String remoteWorldPath,
+            Path localWorld,
+            Collection<String> rootEntries) throws Exception {
+        String entries = rootEntries.stream().map(RemoteCommands::quote).collect(Collectors.joining(" "));
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                DOWNLOAD_SCRIPT.formatted(REQUIRE_TOOLS, RemoteCommands.quote(remoteWorldPath), entries),
+                TRANSFER_TIMEOUT_MILLIS,
+                stdout -> extract(stdout, localWorld));
+        return checkExit(result, "download");
+    }
+
+    static void extract(InputStream stream, Path targetDirectory) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(stream, 1);
+        int first = input.read();
+        if (first < 0) {
+            return;
+        }
+        input.unread(first);
+
+        Path root = targetDirectory.toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        TarStreams.read(new GZIPInputStream(input, STREAM_BUFFER_BYTES), (entry, payload) -> {
+            Path output = root.resolve(entry.name()).normalize();
+            if (!output.startsWith(root) || output.equals(root)) {
+                return;
+            }
+            if (entry.isDirectory()) {
+                Files.createDirectories(output);
+            } else if (entry.isFile()) {
+                Files.createDirectories(output.getParent());
+                Files.copy(payload, output, StandardCopyOption.REPLACE_EXISTING);
+                Files.setLastModifiedTime(output, FileTime.from(entry.modifiedSeconds(), TimeUnit.SECONDS));
+            }
+        });
+    }
+
+    private static boolean checkExit(RemoteCommands.Result result, String direction) throws IOException {
+        if (result.exitStatus() == RemoteCommands.EXIT_MISSING_TOOLS) {
+            return false;
+        }
+        if (result.exitStatus() != 0) {
+            throw new IOException("Archive " + direction + " failed with exit status " + result.exitStatus()
+                    + (result.stderr().isEmpty() ? "." : ": " + result.stderr()));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,124 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+final class RemoteCommands {
+    static final long DEFAULT_TIMEOUT_MILLIS = 30_000L;
+    static final int EXIT_MISSING_TOOLS = 97;
+    private static final int CHANNEL_CONNECT_TIMEOUT_MILLIS = 15000;
+    private static final ScheduledExecutorService TIMEOUTS = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "remote-command-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private RemoteCommands() {
+    }
+
+    static String quote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
+    static void run(Session session, String command) throws Exception {
+        run(session, command, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    static void run(Session session, String command, long timeoutMillis) throws Exception {
+        Result result = stream(session, command, timeoutMillis, stdout -> {
+        });
+        if (result.exitStatus() != 0) {
+            throw new IOException(result.stderr().isEmpty() ? "Remote command failed." : result.stderr());
+        }
+    }
+
+    static Result stream(Session session, String command, long timeoutMillis, OutputConsumer consumer) throws Exception {
+        return stream(session, command, timeoutMillis, null, consumer);
+    }
+
+    static Result stream(
+            Session session,
+            String command,
+            long timeoutMillis,
+            InputProducer producer,
+            OutputConsumer consumer) throws Exception {
+        ChannelExec exec = (ChannelExec) session.openChannel("exec");
+        ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> watchdog = null;
+        try {
+            exec.setCommand(command);
+            OutputStream stdin = null;
+            if (producer == null) {
+                exec.setInputStream(null);
+            } else {
+                stdin = exec.getOutputStream();
+            }
+            exec.setErrStream(errorStream);
+            InputStream stdout = exec.getInputStream();
+            exec.connect(CHANNEL_CONNECT_TIMEOUT_MILLIS);
+            watchdog = TIMEOUTS.schedule(() -> {
+                timedOut.set(true);
+                exec.disconnect();
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+
+            try {
+                if (stdin != null) {
+                    try (OutputStream input = stdin) {
+                        producer.write(input);
+                    }
+                }
+                consumer.accept(stdout);
+                stdout.transferTo(OutputStream.nullOutputStream());
+            } catch (IOException exception) {
+                if (timedOut.get()) {
+                    throw new IOException("Remote command timed out.", exception);
+                }
+                throw exception;
+            }
+
+            while (!exec.isClosed()) {
+                if (timedOut.get()) {
+                    throw new IOException("Remote command timed out.");
+                }
+                Thread.sleep(10);
+            }
+            if (timedOut.get()) {
+                throw new IOException("Remote command timed out.");
+            }
+
+            return new Result(exec.getExitStatus(), errorStream.toString(StandardCharsets.UTF_8).trim());
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (exec.isConnected()) {
+                exec.disconnect();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface InputProducer {
+        void write(OutputStream stdin) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface OutputConsumer {
+        void accept(InputStream stdout) throws IOException;
+    }
+
+    record Result(int exitStatus, String stderr) {
+    }
+}
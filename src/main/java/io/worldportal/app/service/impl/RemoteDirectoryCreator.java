@@ -0,0 +1,112 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+final class RemoteDirectoryCreator {
+    private final ChannelSftp channel;
+    private final Set<String> existing = new HashSet<>();
+    private final Set<String> created = new HashSet<>();
+    private long requests;
+
+    RemoteDirectoryCreator(ChannelSftp channel) {
+        this.channel = channel;
+    }
+
+    void ensure(String remoteDirectory) throws Exception {
+        ensureAll(List.of(remoteDirectory));
+    }
+
+    void ensureAll(Collection<String> remoteDirectories) throws Exception {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String remoteDirectory : remoteDirectories) {
+            for (String path : withAncestors(remoteDirectory)) {
+                if (!isKnown(path)) {
+                    missing.add(path);
+                }
+            }
+        }
+
+        List<String> ordered = new ArrayList<>(missing);
+        ordered.sort(Comparator.comparingInt(RemoteDirectoryCreator::depth).thenComparing(Comparator.naturalOrder()));
+        for (String path : ordered) {
+            String parent = parentOf(path);
+            if (parent == null || !created.contains(parent)) {
+                SftpATTRS attrs = stat(path);
+                if (attrs != null) {
+                    if (!attrs.isDir()) {
+                        throw new IOException("Remote path is not a directory: " + path);
+                    }
+                    existing.add(path);
+                    continue;
+                }
+            }
+            requests++;
+            channel.mkdir(path);
+            created.add(path);
+        }
+    }
+
+    long requests() {
+        return requests;
+    }
+
+    private boolean isKnown(String path) {
+        return existing.contains(path) || created.contains(path);
+    }
+
+    private SftpATTRS stat(String path) {
+        requests++;
+        try {
+            return channel.stat(path);
+        } catch (SftpException exception) {
+            return null;
+        }
+    }
+
+    static List<String> withAncestors(String remoteDirectory) {
+        String normalized = remoteDirectory.replace('\\', '/');
+        boolean absolute = normalized.startsWith("/");
+        List<String> paths = new ArrayList<>();
+        StringBuilder current = new StringBuilder(absolute ? "/" : "");
+        for (String segment : normalized.split("/")) {
+            if (segment.isBlank()) {
+                continue;
+            }
+            if (!current.isEmpty() && current.charAt(current.length() - 1) != '/') {
+                current.append('/');
+            }
+            current.append(segment);
+            paths.add(current.toString());
+        }
+        return paths;
+    }
+
+    private static String parentOf(String path) {
+        int lastSlash = path.lastIndexOf('/');
+        if (lastSlash < 0) {
+            return null;
+        }
+        return lastSlash == 0 ? "/" : path.substring(0, lastSlash);
+    }
+
+    private static int depth(String path) {
+        int depth = 0;
+        for (int index = 0; index < path.length(); index++) {
+            if (path.charAt(index) == '/') {
+                depth++;
+            }
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,79 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class RemoteDirectorySnapshot {
+    private final ChannelSftp channel;
+    private final String directory;
+    private final Map<String, SftpATTRS> entries;
+    private final AtomicLong avoidedRequests;
+
+    private RemoteDirectorySnapshot(
+            ChannelSftp channel,
+            String directory,
+            Map<String, SftpATTRS> entries,
+            AtomicLong avoidedRequests) {
+        this.channel = channel;
+        this.directory = directory;
+        this.entries = entries;
+        this.avoidedRequests = avoidedRequests;
+    }
+
+    static RemoteDirectorySnapshot list(ChannelSftp channel, String directory, AtomicLong avoidedRequests) {
+        avoidedRequests.decrementAndGet();
+        Map<String, SftpATTRS> entries = null;
+        try {
+            @SuppressWarnings("unchecked")
+            List<ChannelSftp.LsEntry> listed = channel.ls(directory);
+            entries = new HashMap<>();
+            for (ChannelSftp.LsEntry entry : listed) {
+                String name = entry.getFilename();
+                if (!".".equals(name) && !"..".equals(name)) {
+                    entries.put(name, entry.getAttrs());
+                }
+            }
+        } catch (SftpException ignored) {
+        }
+        return new RemoteDirectorySnapshot(channel, directory, entries, avoidedRequests);
+    }
+
+    boolean exists() {
+        return entries != null;
+    }
+
+    boolean contains(String name) {
+        return attributes(name) != null;
+    }
+
+    boolean isDirectory(String name) {
+        SftpATTRS attrs = attributes(name);
+        return attrs != null && attrs.isDir();
+    }
+
+    boolean isFile(String name) {
+        SftpATTRS attrs = attributes(name);
+        return attrs != null && !attrs.isDir();
+    }
+
+    SftpATTRS attributes(String name) {
+        SftpATTRS attrs = entries == null ? null : entries.get(name);
+        if (attrs == null || !attrs.isLink()) {
+            avoidedRequests.incrementAndGet();
+            return attrs;
+        }
+        try {
+            SftpATTRS target = channel.stat(directory + "/" + name);
+            entries.put(name, target);
+            return target;
+        } catch (SftpException exception) {
+            return null;
+        }
+    }
+}
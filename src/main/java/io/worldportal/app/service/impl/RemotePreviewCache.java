@@ -0,0 +1,231 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+final class RemotePreviewCache {
+    static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final String INDEX_FILE = "index.properties";
+
+    private final Path root;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+    private boolean loaded;
+
+    RemotePreviewCache() {
+        this(Paths.get(System.getProperty("java.io.tmpdir"), "world-portal", "remote-previews"), DEFAULT_MAX_BYTES);
+    }
+
+    RemotePreviewCache(Path root, long maxBytes) {
+        this.root = root;
+        this.maxBytes = maxBytes;
+    }
+
+    Path file(String host, String worldId) {
+        return root.resolve(sanitize(host)).resolve(sanitize(worldId) + ".png");
+    }
+
+    synchronized Path lookup(String host, String worldId, FileStamp remoteStamp) {
+        ensureLoaded();
+        String key = key(host, worldId);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (remoteStamp != null && !remoteStamp.equals(entry.remote())) {
+            return null;
+        }
+        Path file = file(host, worldId);
+        try {
+            if (Files.size(file) == entry.bytes()) {
+                return file;
+            }
+        } catch (IOException ignored) {
+        }
+        remove(key);
+        saveIndex();
+        return null;
+    }
+
+    synchronized FileStamp cachedStamp(String host, String worldId) {
+        ensureLoaded();
+        Entry entry = entries.get(key(host, worldId));
+        return entry != null && lookup(host, worldId, entry.remote()) != null ? entry.remote() : null;
+    }
+
+    Path store(String host, String worldId, FileStamp remoteStamp, PreviewWriter writer) throws IOException {
+        Path file = file(host, worldId);
+        Files.createDirectories(file.getParent());
+        Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".part");
+        long bytes;
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                writer.write(outputStream);
+            } catch (IOException exception) {
+                throw exception;
+            } catch (Exception exception) {
+                throw new IOException("Failed to download preview.", exception);
+            }
+            bytes = Files.size(tempFile);
+            if (bytes == 0) {
+                throw new IOException("Downloaded preview is empty.");
+            }
+            synchronized (this) {
+                ensureLoaded();
+                move(tempFile, file);
+                Entry replaced = entries.put(key(host, worldId), new Entry(remoteStamp, bytes));
+                totalBytes += bytes - (replaced == null ? 0L : replaced.bytes());
+                evictOverBudget();
+                saveIndex();
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return file;
+    }
+
+    synchronized void invalidate(String host, String worldId) {
+        ensureLoaded();
+        String key = key(host, worldId);
+        if (entries.containsKey(key)) {
+            remove(key);
+            saveIndex();
+        }
+    }
+
+    synchronized long totalBytes() {
+        ensureLoaded();
+        return totalBytes;
+    }
+
+    synchronized int size() {
+        ensureLoaded();
+        return entries.size();
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed == null) {
+            return;
+        }
+        totalBytes -= removed.bytes();
+        try {
+            Files.deleteIfExists(root.resolve(key));
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            totalBytes -= eldest.getValue().bytes();
+            iterator.remove();
+            try {
+                Files.deleteIfExists(root.resolve(eldest.getKey()));
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(root.resolve(INDEX_FILE))) {
+            properties.load(inputStream);
+        } catch (IOException | IllegalArgumentException exception) {
+            return;
+        }
+
+        List<RestoredEntry> restored = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            String[] parts = properties.getProperty(key).split(",");
+            Path file = root.resolve(key).normalize();
+            if (parts.length != 4 || !file.startsWith(root.normalize())) {
+                continue;
+            }
+            try {
+                Entry entry = new Entry(
+                        new FileStamp(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                        Long.parseLong(parts[2]));
+                if (Files.size(file) == entry.bytes()) {
+                    restored.add(new RestoredEntry(key, entry, Long.parseLong(parts[3])));
+                }
+            } catch (NumberFormatException | IOException ignored) {
+            }
+        }
+        restored.sort(Comparator.comparingLong(RestoredEntry::rank));
+        for (RestoredEntry restoredEntry : restored) {
+            entries.put(restoredEntry.key(), restoredEntry.entry());
+            totalBytes += restoredEntry.entry().bytes();
+        }
+        evictOverBudget();
+    }
+
+    private void saveIndex() {
+        Properties properties = new Properties();
+        long rank = 0L;
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            Entry value = entry.getValue();
+            FileStamp remote = value.remote();
+            properties.setProperty(entry.getKey(), remote.modifiedSeconds() + "," + remote.size() + ","
+                    + value.bytes() + "," + rank++);
+        }
+        try {
+            Files.createDirectories(root);
+            Path indexFile = root.resolve(INDEX_FILE);
+            Path tempFile = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                properties.store(outputStream, "world-portal remote preview cache");
+            }
+            move(tempFile, indexFile);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String key(String host, String worldId) {
+        return sanitize(host) + "/" + sanitize(worldId) + ".png";
+    }
+
+    private static String sanitize(String raw) {
+        return raw.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    @FunctionalInterface
+    interface PreviewWriter {
+        void write(OutputStream outputStream) throws Exception;
+    }
+
+    private record Entry(FileStamp remote, long bytes) {
+    }
+
+    private record RestoredEntry(String key, Entry entry, long rank) {
+    }
+}
@@ -0,0 +1,100 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.Session;
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+final class RemotePreviewFetcher {
+    private static final long FETCH_TIMEOUT_MILLIS = 300_000L;
+    private static final int MAX_PREVIEW_BYTES = 16 * 1024 * 1024;
+    private static final String UNKNOWN_STAMP = "- -";
+    private static final String SCRIPT = """
+            LC_ALL=C; export LC_ALL
+            cd -- %s 2>/dev/null || exit 98
+            command -v tar >/dev/null 2>&1 || exit 97
+            if stat -c '%%Y %%s' . >/dev/null 2>&1; then stamp() { stat -c '%%Y %%s' -- "$1" 2>/dev/null; }
+            elif stat -f '%%m %%z' . >/dev/null 2>&1; then stamp() { stat -f '%%m %%z' -- "$1" 2>/dev/null; }
+            else stamp() { :; }; fi
+            set --
+            while read -r modified size f; do
+                [ -f "$f" ] && [ ! -L "$f" ] && [ "$(stamp "$f")" != "$modified $size" ] && set -- "$@" "$f"
+            done
+            [ $# -gt 0 ] || exit 0
+            exec tar -cf - -- "$@"
+            """;
+
+    private RemotePreviewFetcher() {
+    }
+
+    static boolean fetch(
+            Session session,
+            String remoteBasePath,
+            Map<String, FileStamp> knownStamps,
+            PreviewSink sink) throws Exception {
+        if (knownStamps.isEmpty()) {
+            return true;
+        }
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                command(remoteBasePath),
+                FETCH_TIMEOUT_MILLIS,
+                stdin -> stdin.write(worldList(knownStamps).getBytes(StandardCharsets.UTF_8)),
+                stdout -> parse(stdout, sink));
+        if (result.exitStatus() == RemoteCommands.EXIT_MISSING_TOOLS) {
+            return false;
+        }
+        if (result.exitStatus() != 0) {
+            throw new IOException("Remote preview fetch failed with exit status " + result.exitStatus() + ".");
+        }
+        return true;
+    }
+
+    static String command(String remoteBasePath) {
+        return SCRIPT.formatted(RemoteCommands.quote(remoteBasePath));
+    }
+
+    static String worldList(Map<String, FileStamp> knownStamps) {
+        StringBuilder worlds = new StringBuilder();
+        for (Map.Entry<String, FileStamp> world : knownStamps.entrySet()) {
+            String name = world.getKey();
+            if (name.isEmpty() || name.contains("\n") || !name.equals(name.strip())) {
+                continue;
+            }
+            FileStamp stamp = world.getValue();
+            worlds.append(stamp == null ? UNKNOWN_STAMP : stamp.modifiedSeconds() + " " + stamp.size())
+                    .append(' ').append(name).append('/').append(LocalWorldIndex.PREVIEW_RELATIVE_PATH).append('\n');
+        }
+        return worlds.toString();
+    }
+
+    static void parse(InputStream stream, PreviewSink sink) throws IOException {
+        TarStreams.read(stream, (entry, payload) -> {
+            String worldName = worldName(entry.name());
+            if (entry.isFile() && worldName != null && entry.size() > 0 && entry.size() <= MAX_PREVIEW_BYTES) {
+                sink.accept(
+                        worldName,
+                        new FileStamp(entry.modifiedSeconds(), entry.size()),
+                        payload.readNBytes((int) entry.size()));
+            }
+        });
+    }
+
+    private static String worldName(String entryName) {
+        String name = entryName.startsWith("./") ? entryName.substring(2) : entryName;
+        String suffix = "/" + LocalWorldIndex.PREVIEW_RELATIVE_PATH;
+        if (!name.endsWith(suffix)) {
+            return null;
+        }
+        String worldName = name.substring(0, name.length() - suffix.length());
+        return worldName.isEmpty() || worldName.contains("/") ? null : worldName;
+    }
+
+    @FunctionalInterface
+    interface PreviewSink {
+        void accept(String worldName, FileStamp remoteStamp, byte[] content) throws IOException;
+    }
+}
@@ -0,0 +1,86 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.SftpATTRS;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class RemoteTreeWalker {
+    private final SshSessionPool.Lease lease;
+    private final ChannelSftp channel;
+    private final int parallelism;
+
+    RemoteTreeWalker(SshSessionPool.Lease lease, ChannelSftp channel, int parallelism) {
+        this.lease = lease;
+        this.channel = channel;
+        this.parallelism = Math.max(1, Math.min(SftpTransferEngine.MAX_PARALLELISM, parallelism));
+    }
+
+    List<RemoteEntry> walk(String remoteDirectory, FileVisitor visitor) throws IOException {
+        return new Walk(visitor).run(remoteDirectory);
+    }
+
+    record RemoteEntry(String path, String relativePath, SftpATTRS attrs) {
+    }
+
+    @FunctionalInterface
+    interface FileVisitor {
+        void visit(RemoteEntry file) throws Exception;
+    }
+
+    private final class Walk {
+        private final FileVisitor visitor;
+        private final List<RemoteEntry> directories = new ArrayList<>();
+        private final SftpChannelWorkers<RemoteEntry> workers;
+
+        private Walk(FileVisitor visitor) {
+            this.visitor = visitor;
+            this.workers = new SftpChannelWorkers<>(lease, channel, parallelism, "sftp-walk", this::list,
+                    directory -> "Failed to list " + directory.path() + ".");
+        }
+
+        private List<RemoteEntry> run(String remoteDirectory) throws IOException {
+            try (workers) {
+                workers.submit(new RemoteEntry(remoteDirectory, "", null));
+                workers.finish(null);
+            }
+            return directories;
+        }
+
+        private void list(ChannelSftp workerChannel, RemoteEntry directory) throws Exception {
+            synchronized (directories) {
+                directories.add(directory);
+            }
+            AtomicReference<Exception> visitFailure = new AtomicReference<>();
+            workerChannel.ls(directory.path(), entry -> {
+                String name = entry.getFilename();
+                if (".".equals(name) || "..".equals(name)) {
+                    return ChannelSftp.LsEntrySelector.CONTINUE;
+                }
+                RemoteEntry child = new RemoteEntry(
+                        directory.path() + "/" + name,
+                        directory.relativePath().isEmpty() ? name : directory.relativePath() + "/" + name,
+                        entry.getAttrs());
+                try {
+                    if (child.attrs().isDir()) {
+                        workers.submit(child);
+                    } else {
+                        synchronized (visitor) {
+                            visitor.visit(child);
+                        }
+                    }
+                    return ChannelSftp.LsEntrySelector.CONTINUE;
+                } catch (Exception exception) {
+                    visitFailure.set(exception);
+                    return ChannelSftp.LsEntrySelector.BREAK;
+                }
+            });
+            if (visitFailure.get() != null) {
+                throw visitFailure.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.Session;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+final class RemoteUniverseBackup {
+    private static final long BACKUP_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(2);
+    private static final String PYTHON_ZIP_SCRIPT = """
+            import os, sys, zipfile
+            with zipfile.ZipFile(sys.argv[1], "w", zipfile.ZIP_DEFLATED) as archive:
+                for entry in sys.argv[2:]:
+                    if os.path.isdir(entry):
+                        for root, dirs, files in os.walk(entry):
+                            dirs.sort()
+                            for name in sorted(files):
+                                archive.write(os.path.join(root, name))
+                    else:
+                        archive.write(entry)
+            """;
+    private static final String SCRIPT = """
+            LC_ALL=C; export LC_ALL
+            %1$s
+            else exit 97; fi
+            cd -- %2$s 2>/dev/null && [ -d universe ] || exit 0
+            world=$(pwd) && cd universe || exit 0
+            set --
+            for f in %3$s; do [ -e "$f" ] && set -- "$@" "$f"; done
+            [ $# -gt 0 ] || exit 0
+            mkdir -p -- "$world/backup" || exit 98
+            base="$world/backup/"%4$s; out="$base.$ext"; i=1
+            while [ -e "$out" ]; do out="$base-$i.$ext"; i=$((i + 1)); done
+            tmp="$out.part"
+            case $tool in
+            %5$s
+            esac || { rm -f -- "$tmp"; exit 1; }
+            mv -f -- "$tmp" "$out" || exit 1
+            printf '%%s\\n' "$out"
+            """;
+
+    enum Tool {
+        ZIP("zip", "command -v zip", "zip -qr \"$tmp\" \"$@\""),
+        TAR_GZIP("tar.gz", "command -v tar && command -v gzip", "tar -czf \"$tmp\" -- \"$@\""),
+        PYTHON_ZIP("zip", "command -v python3", "python3 -c " + RemoteCommands.quote(RemoteUniverseBackup.PYTHON_ZIP_SCRIPT) + " \"$tmp\" \"$@\"");
+
+        private final String extension;
+        private final String probe;
+        private final String archive;
+
+        Tool(String extension, String probe, String archive) {
+            this.extension = extension;
+            this.probe = probe;
+            this.archive = archive;
+        }
+    }
+
+    static final List<Tool> DEFAULT_TOOLS = List.of(Tool.ZIP, Tool.TAR_GZIP, Tool.PYTHON_ZIP);
+
+    private RemoteUniverseBackup() {
+    }
+
+    static String create(
+            Session session,
+            String remoteWorldPath,
+            String archiveName,
+            Collection<String> universeEntries) throws Exception {
+        return create(session, remoteWorldPath, archiveName, universeEntries, DEFAULT_TOOLS);
+    }
+
+    static String create(
+            Session session,
+            String remoteWorldPath,
+            String archiveName,
+            Collection<String> universeEntries,
+            List<Tool> tools) throws Exception {
+        AtomicReference<String> created = new AtomicReference<>("");
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                command(remoteWorldPath, archiveName, universeEntries, tools),
+                BACKUP_TIMEOUT_MILLIS,
+                stdout -> created.set(new String(stdout.readAllBytes(), StandardCharsets.UTF_8).trim()));
+        if (result.exitStatus() == RemoteCommands.EXIT_MISSING_TOOLS) {
+            return null;
+        }
+        if (result.exitStatus() != 0) {
+            throw new IOException("Remote universe backup failed with exit status " + result.exitStatus()
+                    + (result.stderr().isEmpty() ? "." : ": " + result.stderr()));
+        }
+        return created.get();
+    }
+
+    static String command(
+            String remoteWorldPath,
+            String archiveName,
+            Collection<String> universeEntries,
+            List<Tool> tools) {
+        StringBuilder detection = new StringBuilder();
+        for (Tool tool : tools) {
+            detection.append(detection.isEmpty() ? "if " : "elif ")
+                    .append("{ ").append(tool.probe).append("; } >/dev/null 2>&1; then tool=")
+                    .append(tool.name()).append("; ext=").append(tool.extension).append('\n');
+        }
+        if (detection.isEmpty()) {
+            detection.append("if false; then :\n");
+        }
+        String archiveCommands = tools.stream()
+                .map(tool -> tool.name() + ") " + tool.archive + " ;;")
+                .collect(Collectors.joining("\n"));
+        String entries = universeEntries.stream().sorted().map(RemoteCommands::quote).collect(Collectors.joining(" "));
+        return SCRIPT.formatted(
+                detection.toString().stripTrailing(),
+                RemoteCommands.quote(remoteWorldPath),
+                entries,
+                RemoteCommands.quote(archiveName),
+                archiveCommands);
+    }
+}
@@ -0,0 +1,108 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+final class RemoteWorldCopy {
+    private static final long COPY_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(2);
+    private static final String COPY_SCRIPT = """
+            cd -- %1$s 2>/dev/null || { echo "Remote worlds folder does not exist." >&2; exit 98; }
+            [ -d %2$s ] || { echo "World folder does not exist." >&2; exit 98; }
+            [ ! -e %3$s ] || { echo "A world folder with this name already exists." >&2; exit 98; }
+            command -v cp >/dev/null 2>&1 || exit 97
+            if cp --reflink=auto --help >/dev/null 2>&1; then copy() { cp -a --reflink=auto -- "$@"; }
+            else copy() { cp -a -- "$@"; }; fi
+            tmp=".world-portal-copy-$$"
+            copy %2$s "$tmp" && mv -- "$tmp" %3$s || { rm -rf -- "$tmp"; exit 1; }
+            """;
+
+    private RemoteWorldCopy() {
+    }
+
+    static boolean copyWithCommand(Session session, String parentPath, String sourceName, String targetName)
+            throws Exception {
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                command(parentPath, sourceName, targetName),
+                COPY_TIMEOUT_MILLIS,
+                stdout -> {
+                });
+        if (result.exitStatus() == RemoteCommands.EXIT_MISSING_TOOLS) {
+            return false;
+        }
+        if (result.exitStatus() != 0) {
+            throw new IOException(result.stderr().isEmpty()
+                    ? "Remote copy failed with exit status " + result.exitStatus() + "."
+                    : result.stderr());
+        }
+        return true;
+    }
+
+    static String command(String parentPath, String sourceName, String targetName) {
+        return COPY_SCRIPT.formatted(
+                RemoteCommands.quote(parentPath),
+                RemoteCommands.quote(sourceName),
+                RemoteCommands.quote(targetName));
+    }
+
+    static void copyOverSftp(SshSessionPool.Lease lease, String parentPath, String sourceName, String targetName)
+            throws Exception {
+        String tempPath = parentPath + "/.world-portal-copy-" + UUID.randomUUID();
+        ChannelSftp source = lease.openSftpChannel();
+        ChannelSftp target = null;
+        boolean renamed = false;
+        try {
+            target = lease.openSftpChannel();
+            copyDirectory(source, target, parentPath + "/" + sourceName, tempPath);
+            target.rename(tempPath, parentPath + "/" + targetName);
+            renamed = true;
+        } finally {
+            if (!renamed && target != null) {
+                try {
+                    RemoteWorldDeletion.deleteOverSftp(lease, target, tempPath, 1);
+                } catch (Exception ignored) {
+                }
+            }
+            source.disconnect();
+            if (target != null) {
+                target.disconnect();
+            }
+        }
+    }
+
+    private static void copyDirectory(ChannelSftp source, ChannelSftp target, String sourceDirectory, String targetDirectory)
+            throws Exception {
+        target.mkdir(targetDirectory);
+        @SuppressWarnings("unchecked")
+        List<ChannelSftp.LsEntry> entries = source.ls(sourceDirectory);
+        for (ChannelSftp.LsEntry entry : entries) {
+            String name = entry.getFilename();
+            if (".".equals(name) || "..".equals(name)) {
+                continue;
+            }
+            String sourcePath = sourceDirectory + "/" + name;
+            String targetPath = targetDirectory + "/" + name;
+            if (entry.getAttrs().isDir()) {
+                copyDirectory(source, target, sourcePath, targetPath);
+            } else if (entry.getAttrs().isReg()) {
+                try (InputStream inputStream = source.get(sourcePath)) {
+                    target.put(inputStream, targetPath);
+                }
+                target.setMtime(targetPath, entry.getAttrs().getMTime());
+            } else {
+                continue;
+            }
+            try {
+                target.chmod(entry.getAttrs().getPermissions() & 07777, targetPath);
+            } catch (SftpException ignored) {
+            }
+        }
+    }
+}
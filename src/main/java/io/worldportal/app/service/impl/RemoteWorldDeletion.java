@@ -0,0 +1,101 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+final class RemoteWorldDeletion {
+    private static final long DELETE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final String DELETE_SCRIPT = """
+            command -v rm >/dev/null 2>&1 || exit 97
+            cd -- %1$s 2>/dev/null || { echo "Remote worlds folder does not exist." >&2; exit 98; }
+            base=$(pwd -P) && [ -n "$base" ] && [ "$base" != / ] \\
+                || { echo "Refusing to delete directly below the filesystem root." >&2; exit 98; }
+            exec rm -rf -- "$base"/%2$s
+            """;
+
+    private RemoteWorldDeletion() {
+    }
+
+    static String worldFolderName(String remoteBasePath, String remoteWorldPath) {
+        String base = normalize(remoteBasePath);
+        String world = normalize(remoteWorldPath);
+        if (base.isEmpty() || "/".equals(base) || hasRelativeSegment(base)) {
+            throw new IllegalArgumentException("Remote worlds folder is not a safe delete root.");
+        }
+        String prefix = base + "/";
+        if (!world.startsWith(prefix)) {
+            throw new IllegalArgumentException("Remote world is not inside the remote worlds folder.");
+        }
+        String name = world.substring(prefix.length());
+        if (name.isEmpty() || name.contains("/") || ".".equals(name) || "..".equals(name)) {
+            throw new IllegalArgumentException("Remote world must be a direct child of the remote worlds folder.");
+        }
+        return name;
+    }
+
+    static boolean deleteWithCommand(Session session, String remoteBasePath, String worldFolderName) throws Exception {
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                command(remoteBasePath, worldFolderName),
+                DELETE_TIMEOUT_MILLIS,
+                stdout -> {
+                });
+        if (result.exitStatus() == RemoteCommands.EXIT_MISSING_TOOLS) {
+            return false;
+        }
+        if (result.exitStatus() != 0) {
+            throw new IOException(result.stderr().isEmpty() ? "Remote delete failed." : result.stderr());
+        }
+        return true;
+    }
+
+    static String command(String remoteBasePath, String worldFolderName) {
+        return DELETE_SCRIPT.formatted(
+                RemoteCommands.quote(normalize(remoteBasePath)),
+                RemoteCommands.quote(worldFolderName));
+    }
+
+    static void deleteOverSftp(SshSessionPool.Lease lease, ChannelSftp channel, String remoteDirectory, int parallelism)
+            throws Exception {
+        List<String> directories = new ArrayList<>();
+        try (SftpChannelWorkers<String> remover = new SftpChannelWorkers<>(lease, null, parallelism, "sftp-delete",
+                ChannelSftp::rm, file -> "Failed to delete " + file + ".")) {
+            for (RemoteTreeWalker.RemoteEntry directory
+                    : new RemoteTreeWalker(lease, channel, parallelism).walk(remoteDirectory, file -> remover.submit(file.path()))) {
+                directories.add(directory.path());
+            }
+            remover.finish(channel);
+        }
+        directories.sort(Comparator.comparingInt(RemoteWorldDeletion::depth).reversed());
+        for (String directory : directories) {
+            channel.rmdir(directory);
+        }
+    }
+
+    private static int depth(String path) {
+        return (int) path.chars().filter(character -> character == '/').count();
+    }
+
+    private static boolean hasRelativeSegment(String path) {
+        for (String segment : path.split("/")) {
+            if (".".equals(segment) || "..".equals(segment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String path) {
+        if (path == null) {
+            return "";
+        }
+        String normalized = path.trim().replace('\\', '/').replaceAll("/{2,}", "/");
+        return normalized.length() > 1 ? normalized.replaceAll("/+$", "") : normalized;
+    }
+}
@@ -0,0 +1,297 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.Session;
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+final class RemoteWorldScanner {
+    private static final long SCAN_TIMEOUT_MILLIS = 120_000L;
+    private static final int MAX_FILE_BYTES = 4 * 1024 * 1024;
+    private static final String SCRIPT = """
+            LC_ALL=C; export LC_ALL
+            cd -- %1$s 2>/dev/null || exit 98
+            command -v cat >/dev/null 2>&1 || exit 97
+            if stat -L -c '%%Y %%s %%n' . >/dev/null 2>&1; then attrs() { stat -L -c '%%Y %%s %%n' -- "$@"; }
+            elif stat -L -f '%%m %%z %%N' . >/dev/null 2>&1; then attrs() { stat -L -f '%%m %%z %%N' -- "$@"; }
+            else exit 97; fi
+            set --
+            for d in %4$s; do
+              [ -d "$d" ] && [ ! -L "$d" ] && set -- "$@" "$d"
+            done
+            worlds=$#
+            for d in %4$s; do
+              [ -d "$d" ] && [ ! -L "$d" ] || continue
+              for f in "$d/%2$s" "$d/%3$s"; do
+                [ -f "$f" ] && [ -r "$f" ] && set -- "$@" "$f"
+              done
+            done
+            listing=
+            [ $# -gt 0 ] && listing=$(attrs "$@" 2>/dev/null)
+            printf 'L %%d\n%%s' ${#listing} "$listing"
+            shift $worlds
+            if [ %5$s = 1 ]; then
+              for f in "$@"; do
+                if c=$(cat -- "$f" 2>/dev/null && printf x); then
+                  c=${c%%x}
+                  printf 'F %%d\n%%s' ${#c} "$c"
+                else
+                  printf 'M 0\n'
+                fi
+              done
+            fi
+            printf 'E 0\n'
+            """;
+
+    private RemoteWorldScanner() {
+    }
+
+    static List<ScannedWorld> scan(Session session, String remoteBasePath) throws Exception {
+        return scan(session, remoteBasePath, null, world -> {
+        });
+    }
+
+    static List<ScannedWorld> scan(
+            Session session,
+            String remoteBasePath,
+            Collection<String> worldNames,
+            Consumer<ScannedWorld> onWorld) throws Exception {
+        if (worldNames != null && worldNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return run(session, command(remoteBasePath, worldNames, true), true, onWorld);
+    }
+
+    static List<ScannedWorld> stat(Session session, String remoteBasePath) throws Exception {
+        return run(session, command(remoteBasePath, null, false), false, world -> {
+        });
+    }
+
+    private static List<ScannedWorld> run(
+            Session session,
+            String command,
+            boolean withContents,
+            Consumer<ScannedWorld> onWorld) throws Exception {
+        List<ScannedWorld> worlds = new ArrayList<>();
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                command,
+                SCAN_TIMEOUT_MILLIS,
+                stdout -> worlds.addAll(parse(stdout, withContents, onWorld)));
+        if (result.exitStatus() == RemoteCommands.EXIT_MISSING_TOOLS) {
+            return null;
+        }
+        if (result.exitStatus() != 0) {
+            throw new IOException("Remote world scan failed with exit status " + result.exitStatus() + ".");
+        }
+        return worlds;
+    }
+
+    static String command(String remoteBasePath, Collection<String> worldNames, boolean withContents) {
+        String worldSelection = worldNames == null
+                ? "* .[!.]* ..?*"
+                : worldNames.stream().map(RemoteCommands::quote).collect(Collectors.joining(" "));
+        return SCRIPT.formatted(
+                RemoteCommands.quote(remoteBasePath),
+                WorldMetadataReader.CONFIG_RELATIVE_PATH,
+                WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH,
+                worldSelection,
+                withContents ? "1" : "0");
+    }
+
+    static List<ScannedWorld> parse(InputStream stream) throws IOException {
+        return parse(stream, true);
+    }
+
+    static List<ScannedWorld> parse(InputStream stream, boolean withContents) throws IOException {
+        return parse(stream, withContents, world -> {
+        });
+    }
+
+    static List<ScannedWorld> parse(InputStream stream, boolean withContents, Consumer<ScannedWorld> onWorld)
+            throws IOException {
+        InputStream input = new BufferedInputStream(stream);
+        String listing = new String(readFrame(input, 'L'), StandardCharsets.UTF_8);
+
+        Map<String, WorldBuilder> worlds = new LinkedHashMap<>();
+        List<ListedFile> files = new ArrayList<>();
+        for (String line : listing.split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] parts = line.split(" ", 3);
+            if (parts.length != 3) {
+                throw new IOException("Malformed scan listing line: " + line);
+            }
+            long modifiedSeconds = parseNumber(parts[0]);
+            long size = parseNumber(parts[1]);
+            String path = parts[2];
+            int slash = path.indexOf('/');
+            if (slash < 0) {
+                worlds.computeIfAbsent(path, WorldBuilder::new).directoryModified = Instant.ofEpochSecond(modifiedSeconds);
+                continue;
+            }
+            WorldBuilder world = worlds.get(path.substring(0, slash));
+            String relativePath = path.substring(slash + 1);
+            if (world == null || size > MAX_FILE_BYTES) {
+                throw new IOException("Unexpected scan listing entry: " + line);
+            }
+            FileStamp stamp = new FileStamp(modifiedSeconds, size);
+            if (WorldMetadataReader.CONFIG_RELATIVE_PATH.equals(relativePath)) {
+                world.configStamp = stamp;
+                world.pendingFiles++;
+                files.add(new ListedFile(world, true));
+            } else if (WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH.equals(relativePath)) {
+                world.clientMetadataStamp = stamp;
+                world.pendingFiles++;
+                files.add(new ListedFile(world, false));
+            } else {
+                throw new IOException("Unexpected scan listing entry: " + line);
+            }
+        }
+
+        if (withContents) {
+            for (WorldBuilder world : worlds.values()) {
+                if (world.pendingFiles == 0) {
+                    onWorld.accept(world.build());
+                }
+            }
+            for (ListedFile file : files) {
+                byte[] content = readFileFrame(input);
+                String text = content == null ? null : new String(content, StandardCharsets.UTF_8);
+                if (file.config()) {
+                    file.world().configJson = text;
+                } else {
+                    file.world().clientMetadataJson = text;
+                }
+                if (--file.world().pendingFiles == 0) {
+                    onWorld.accept(file.world().build());
+                }
+            }
+        }
+        readFrame(input, 'E');
+
+        List<ScannedWorld> result = new ArrayList<>(worlds.size());
+        for (WorldBuilder world : worlds.values()) {
+            result.add(world.build());
+        }
+        if (!withContents) {
+            result.forEach(onWorld);
+        }
+        return result;
+    }
+
+    private static byte[] readFileFrame(InputStream input) throws IOException {
+        String header = readHeader(input);
+        if ("M 0".equals(header)) {
+            return null;
+        }
+        return readPayload(input, header, 'F', MAX_FILE_BYTES);
+    }
+
+    private static byte[] readFrame(InputStream input, char expectedTag) throws IOException {
+        return readPayload(input, readHeader(input), expectedTag, MAX_FILE_BYTES * 64L);
+    }
+
+    private static byte[] readPayload(InputStream input, String header, char expectedTag, long maxLength)
+            throws IOException {
+        if (header == null) {
+            throw new EOFException("Scan output ended before frame '" + expectedTag + "'.");
+        }
+        if (header.length() < 3 || header.charAt(0) != expectedTag || header.charAt(1) != ' ') {
+            throw new IOException("Unexpected scan frame header: " + header);
+        }
+        long length = parseNumber(header.substring(2));
+        if (length > maxLength) {
+            throw new IOException("Scan frame too large: " + length);
+        }
+        byte[] payload = input.readNBytes((int) length);
+        if (payload.length != length) {
+            throw new EOFException("Scan output ended inside frame '" + expectedTag + "'.");
+        }
+        return payload;
+    }
+
+    private static String readHeader(InputStream input) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(16);
+        int next;
+        while ((next = input.read()) != '\n') {
+            if (next == -1) {
+                return null;
+            }
+            if (header.size() > 32) {
+                throw new IOException("Malformed scan frame header.");
+            }
+            header.write(next);
+        }
+        return header.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static long parseNumber(String value) throws IOException {
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 0) {
+                throw new IOException("Negative value in scan output: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException exception) {
+            throw new IOException("Malformed number in scan output: " + value, exception);
+        }
+    }
+
+    record ScannedWorld(
+            String name,
+            Instant directoryModified,
+            FileStamp configStamp,
+            FileStamp clientMetadataStamp,
+            String configJson,
+            String clientMetadataJson) {
+        Instant lastModified() {
+            return configStamp != null ? Instant.ofEpochSecond(configStamp.modifiedSeconds()) : directoryModified;
+        }
+
+        WorldMetadataReader.WorldMetadata metadata() {
+            return WorldMetadataReader.parse(configJson, clientMetadataJson, lastModified());
+        }
+    }
+
+    private record ListedFile(WorldBuilder world, boolean config) {
+    }
+
+    private static final class WorldBuilder {
+        private final String name;
+        private Instant directoryModified = Instant.EPOCH;
+        private FileStamp configStamp;
+        private FileStamp clientMetadataStamp;
+        private String configJson;
+        private String clientMetadataJson;
+        private int pendingFiles;
+
+        private WorldBuilder(String name) {
+            this.name = name;
+        }
+
+        private ScannedWorld build() {
+            return new ScannedWorld(
+                    name,
+                    directoryModified,
+                    configStamp,
+                    clientMetadataStamp,
+                    configJson,
+                    clientMetadataJson);
+        }
+    }
+}
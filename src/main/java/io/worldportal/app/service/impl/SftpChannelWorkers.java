@@ -0,0 +1,245 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+final class SftpChannelWorkers<T> implements AutoCloseable {
+    private static final long POLL_MILLIS = 50L;
+
+    private final SshSessionPool.Lease lease;
+    private final ChannelSftp sharedChannel;
+    private final int maxWorkers;
+    private final String threadName;
+    private final Task<T> task;
+    private final Function<T, String> failureMessage;
+    private final BlockingQueue<T> queue = new LinkedBlockingQueue<>();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private int liveWorkers;
+    private int unfinished;
+    private boolean sharedChannelTaken;
+    private boolean channelsExhausted;
+    private volatile boolean stopping;
+    private boolean closed;
+
+    SftpChannelWorkers(
+            SshSessionPool.Lease lease,
+            ChannelSftp sharedChannel,
+            int maxWorkers,
+            String threadName,
+            Task<T> task,
+            Function<T, String> failureMessage) {
+        this.lease = lease;
+        this.sharedChannel = sharedChannel;
+        this.maxWorkers = Math.max(1, maxWorkers);
+        this.threadName = threadName;
+        this.task = task;
+        this.failureMessage = failureMessage;
+    }
+
+    synchronized void submit(T item) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Workers are already closed.");
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        unfinished++;
+        queue.add(item);
+        maybeStartWorker();
+    }
+
+    void finish(ChannelSftp fallbackChannel) throws IOException {
+        synchronized (this) {
+            awaitIdle();
+            if (failure.get() == null && unfinished > 0) {
+                // Channels refused while other work held them may be free now.
+                channelsExhausted = false;
+                for (int index = 0; index < Math.min(maxWorkers, unfinished); index++) {
+                    startWorker();
+                }
+                awaitIdle();
+            }
+            stopping = true;
+        }
+        joinWorkers();
+
+        T item;
+        while (fallbackChannel != null && failure.get() == null && (item = queue.poll()) != null) {
+            try {
+                task.run(fallbackChannel, item);
+            } catch (Exception exception) {
+                fail(item, exception);
+            }
+            synchronized (this) {
+                unfinished--;
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (!queue.isEmpty()) {
+            throw new IOException("Unable to open an SFTP channel; " + queue.size() + " items were not processed.");
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            stopping = true;
+            failure.compareAndSet(null, new IOException("Work was cancelled."));
+            queue.clear();
+            notifyAll();
+        }
+        try {
+            joinWorkers();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void maybeStartWorker() {
+        if (stopping || channelsExhausted || liveWorkers >= maxWorkers || liveWorkers >= unfinished) {
+            return;
+        }
+        boolean sharedFree = sharedChannel != null && !sharedChannelTaken;
+        if (sharedFree || lease.hasFreeWorkerChannel()) {
+            startWorker();
+        }
+    }
+
+    private void startWorker() {
+        liveWorkers++;
+        Thread worker = new Thread(this::work, threadName + "-" + threads.size());
+        worker.setDaemon(true);
+        threads.add(worker);
+        worker.start();
+    }
+
+    private void awaitIdle() throws IOException {
+        while (failure.get() == null && unfinished > 0 && liveWorkers > 0) {
+            try {
+                wait();
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, new IOException("Work was interrupted."));
+                threads.forEach(Thread::interrupt);
+                throw failure.get();
+            }
+        }
+    }
+
+    private void joinWorkers() throws IOException {
+        List<Thread> started;
+        synchronized (this) {
+            started = new ArrayList<>(threads);
+        }
+        for (Thread worker : started) {
+            try {
+                worker.join();
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, new IOException("Work was interrupted."));
+                started.forEach(Thread::interrupt);
+                throw failure.get();
+            }
+        }
+    }
+
+    private void work() {
+        ChannelSftp channel;
+        try {
+            channel = acquireChannel();
+        } catch (Exception exception) {
+            // The server may cap channels per session below our budget; stop asking until finish retries.
+            channel = null;
+            synchronized (this) {
+                channelsExhausted = true;
+            }
+        }
+        if (channel == null) {
+            synchronized (this) {
+                liveWorkers--;
+                notifyAll();
+            }
+            return;
+        }
+        try {
+            while (failure.get() == null && !Thread.currentThread().isInterrupted()) {
+                boolean lastPoll = stopping;
+                T item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (item == null) {
+                    if (lastPoll) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    task.run(channel, item);
+                } catch (Exception exception) {
+                    fail(item, exception);
+                }
+                synchronized (this) {
+                    unfinished--;
+                    if (unfinished == 0) {
+                        notifyAll();
+                    } else {
+                        maybeStartWorker();
+                    }
+                }
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (channel == sharedChannel) {
+                synchronized (this) {
+                    sharedChannelTaken = false;
+                }
+            } else {
+                lease.closeWorkerChannel(channel);
+            }
+            synchronized (this) {
+                liveWorkers--;
+                notifyAll();
+            }
+        }
+    }
+
+    private ChannelSftp acquireChannel() throws Exception {
+        synchronized (this) {
+            if (sharedChannel != null && !sharedChannelTaken) {
+                sharedChannelTaken = true;
+                return sharedChannel;
+            }
+        }
+        return lease.openWorkerChannel();
+    }
+
+    private void fail(T item, Exception exception) {
+        IOException wrapped = exception instanceof IOException io
+                ? io
+                : new IOException(failureMessage.apply(item), exception);
+        if (!failure.compareAndSet(null, wrapped) && failure.get() != wrapped) {
+            failure.get().addSuppressed(wrapped);
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    @FunctionalInterface
+    interface Task<T> {
+        void run(ChannelSftp channel, T item) throws Exception;
+    }
+}
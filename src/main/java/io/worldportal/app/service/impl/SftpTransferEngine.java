@@ -0,0 +1,164 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import io.worldportal.app.model.RemoteProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class SftpTransferEngine {
+    static final int DEFAULT_PARALLELISM = 4;
+    static final int MAX_PARALLELISM = 8;
+
+    private final SshSessionPool.Lease lease;
+    private final int parallelism;
+
+    SftpTransferEngine(SshSessionPool.Lease lease, int parallelism) {
+        this.lease = lease;
+        this.parallelism = Math.max(1, Math.min(MAX_PARALLELISM, parallelism));
+    }
+
+    static int parallelismFor(RemoteProfile profile) {
+        if (profile == null || profile.getTransferParallelism() <= 0) {
+            return DEFAULT_PARALLELISM;
+        }
+        return Math.min(MAX_PARALLELISM, profile.getTransferParallelism());
+    }
+
+    void execute(List<FileTransfer> transfers) throws IOException {
+        if (transfers.isEmpty()) {
+            return;
+        }
+        try (Session session = start()) {
+            for (FileTransfer transfer : transfers) {
+                session.submit(transfer);
+            }
+            session.finish();
+        }
+    }
+
+    Session start() {
+        return new Session();
+    }
+
+    final class Session implements AutoCloseable {
+        private final List<FileTransfer> submitted = new ArrayList<>();
+        private final SftpChannelWorkers<FileTransfer> workers = new SftpChannelWorkers<>(
+                lease, null, parallelism, "sftp-transfer", (channel, transfer) -> transfer.run(channel),
+                transfer -> "Failed to transfer " + transfer.describe() + ".");
+        private boolean finishing;
+        private boolean finished;
+
+        private Session() {
+        }
+
+        synchronized void submit(FileTransfer transfer) throws IOException {
+            if (finishing) {
+                throw new IllegalStateException("Transfer session is already finishing.");
+            }
+            submitted.add(transfer);
+            workers.submit(transfer);
+        }
+
+        synchronized void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finishing = true;
+            try {
+                workers.finish(null);
+            } finally {
+                finished = true;
+            }
+            if (!submitted.isEmpty()) {
+                verify(submitted);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            finishing = true;
+            finished = true;
+            workers.close();
+        }
+    }
+
+    private void verify(List<FileTransfer> transfers) throws IOException {
+        Map<String, List<FileTransfer>> uploadsByDirectory = new LinkedHashMap<>();
+        for (FileTransfer transfer : transfers) {
+            if (transfer.upload()) {
+                uploadsByDirectory.computeIfAbsent(parentOf(transfer.remotePath()), ignored -> new ArrayList<>())
+                        .add(transfer);
+            } else if (!Files.isRegularFile(transfer.localPath())
+                    || Files.size(transfer.localPath()) != transfer.expectedSize()) {
+                throw new IOException("Downloaded file is incomplete: " + transfer.localPath());
+            }
+        }
+        if (uploadsByDirectory.isEmpty()) {
+            return;
+        }
+
+        ChannelSftp channel = null;
+        try {
+            channel = lease.openSftpChannel();
+            for (Map.Entry<String, List<FileTransfer>> directory : uploadsByDirectory.entrySet()) {
+                Map<String, Long> remoteSizes = new LinkedHashMap<>();
+                @SuppressWarnings("unchecked")
+                List<ChannelSftp.LsEntry> entries = channel.ls(directory.getKey());
+                for (ChannelSftp.LsEntry entry : entries) {
+                    remoteSizes.put(entry.getFilename(), entry.getAttrs().getSize());
+                }
+                for (FileTransfer transfer : directory.getValue()) {
+                    Long remoteSize = remoteSizes.get(leafOf(transfer.remotePath()));
+                    if (remoteSize == null || remoteSize != transfer.expectedSize()) {
+                        throw new IOException("Uploaded file is incomplete: " + transfer.remotePath());
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new IOException("Failed to verify uploaded files.", exception);
+        } finally {
+            if (channel != null && channel.isConnected()) {
+                channel.disconnect();
+            }
+        }
+    }
+
+    private static String parentOf(String remotePath) {
+        int lastSlash = remotePath.lastIndexOf('/');
+        return lastSlash <= 0 ? "/" : remotePath.substring(0, lastSlash);
+    }
+
+    private static String leafOf(String remotePath) {
+        return remotePath.substring(remotePath.lastIndexOf('/') + 1);
+    }
+
+    record FileTransfer(boolean upload, Path localPath, String remotePath, long expectedSize) {
+        static FileTransfer upload(Path localFile, String remoteFile) throws IOException {
+            return new FileTransfer(true, localFile, remoteFile, Files.size(localFile));
+        }
+
+        static FileTransfer download(String remoteFile, Path localFile, long remoteSize) {
+            return new FileTransfer(false, localFile, remoteFile, remoteSize);
+        }
+
+        void run(ChannelSftp channel) throws Exception {
+            if (upload) {
+                channel.put(localPath.toString(), remotePath);
+            } else {
+                channel.get(remotePath, localPath.toString());
+            }
+        }
+
+        String describe() {
+            return upload ? localPath + " to " + remotePath : remotePath + " to " + localPath;
+        }
+    }
+}
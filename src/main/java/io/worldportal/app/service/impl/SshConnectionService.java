@@ -3,8 +3,18 @@ package io.worldportal.app.service.impl;
 import io.worldportal.app.model.RemoteProfile;
 
 public class SshConnectionService {
+    private final SshSessionPool sessionPool;
     private volatile boolean connected;
     private volatile String lastErrorMessage;
+    private volatile RemoteProfile connectedProfile;
+
+    public SshConnectionService() {
+        this(SshSessionPool.shared());
+    }
+
+    SshConnectionService(SshSessionPool sessionPool) {
+        this.sessionPool = sessionPool;
+    }
 
     public boolean connect(RemoteProfile profile) {
         String validationError = validateProfile(profile);
@@ -17,11 +27,17 @@ public class SshConnectionService {
         String attemptError = attemptConnect(profile);
         connected = attemptError == null;
         lastErrorMessage = attemptError;
+        connectedProfile = connected ? profile : null;
         return connected;
     }
 
     public void disconnect() {
         connected = false;
+        RemoteProfile profile = connectedProfile;
+        connectedProfile = null;
+        if (profile != null) {
+            sessionPool.evict(profile);
+        }
     }
 
     public boolean isConnected() {
@@ -34,8 +50,7 @@ public class SshConnectionService {
 
     protected String attemptConnect(RemoteProfile profile) {
         try {
-            var session = SshSessionFactory.createConnectedSession(profile);
-            session.disconnect();
+            sessionPool.borrow(profile).close();
             return null;
         } catch (Exception exception) {
             return translateException(exception);
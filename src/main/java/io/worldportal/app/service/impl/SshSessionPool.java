@@ -0,0 +1,408 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import io.worldportal.app.model.RemoteProfile;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+final class SshSessionPool {
+    static final int DEFAULT_MAX_SESSIONS_PER_PROFILE = 4;
+    static final int MAX_SESSIONS_PER_PROFILE = 16;
+    // OpenSSH allows 10 channels per session by default; keep room for the caller's channel and one exec.
+    static final int MAX_WORKER_CHANNELS_PER_SESSION = 8;
+    static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 120_000L;
+    static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 60_000L;
+    private static final int CHANNEL_CONNECT_TIMEOUT_MILLIS = 15000;
+    private static final SshSessionPool SHARED = new SshSessionPool(
+            DEFAULT_MAX_SESSIONS_PER_PROFILE,
+            DEFAULT_IDLE_TIMEOUT_MILLIS,
+            DEFAULT_BORROW_TIMEOUT_MILLIS,
+            SshSessionFactory::createConnectedSession,
+            SshSessionPool::isHealthy,
+            System::currentTimeMillis);
+
+    private final int defaultMaxSessionsPerProfile;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final SessionConnector connector;
+    private final Predicate<Session> healthCheck;
+    private final LongSupplier clock;
+    private final Map<SessionKey, ProfileSessions> sessionsByKey = new HashMap<>();
+    private ScheduledExecutorService evictionExecutor;
+
+    SshSessionPool(
+            int maxSessionsPerProfile,
+            long idleTimeoutMillis,
+            long borrowTimeoutMillis,
+            SessionConnector connector,
+            Predicate<Session> healthCheck,
+            LongSupplier clock) {
+        if (maxSessionsPerProfile < 1) {
+            throw new IllegalArgumentException("Pool must allow at least one session per profile.");
+        }
+        this.defaultMaxSessionsPerProfile = maxSessionsPerProfile;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.connector = connector;
+        this.healthCheck = healthCheck;
+        this.clock = clock;
+    }
+
+    static SshSessionPool shared() {
+        return SHARED;
+    }
+
+    Lease borrow(RemoteProfile profile) throws JSchException {
+        SessionKey key = SessionKey.of(profile);
+        long deadline = clock.getAsLong() + borrowTimeoutMillis;
+        while (true) {
+            IdleSession candidate;
+            boolean reserved = false;
+            ProfileSessions owner;
+            synchronized (this) {
+                ensureEvictionScheduled();
+                owner = sessionsByKey.computeIfAbsent(key, ignored -> new ProfileSessions());
+                candidate = owner.idle.pollFirst();
+                if (candidate == null && owner.open < maxSessionsFor(profile)) {
+                    owner.open++;
+                    reserved = true;
+                }
+                if (candidate == null && !reserved) {
+                    long remaining = deadline - clock.getAsLong();
+                    if (remaining <= 0) {
+                        throw new JSchException("Timed out waiting for a free SSH session.");
+                    }
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw new JSchException("Interrupted while waiting for a free SSH session.");
+                    }
+                }
+            }
+
+            if (candidate != null) {
+                if (healthCheck.test(candidate.session())) {
+                    return new Lease(key, owner, candidate.session());
+                }
+                synchronized (this) {
+                    releaseSlot(key, owner);
+                    notifyAll();
+                }
+                candidate.session().disconnect();
+            } else if (reserved) {
+                return new Lease(key, owner, connectReserved(key, owner, profile));
+            }
+        }
+    }
+
+    void evict(RemoteProfile profile) {
+        SessionKey key = SessionKey.of(profile);
+        List<Session> evicted = new ArrayList<>();
+        synchronized (this) {
+            ProfileSessions sessions = sessionsByKey.remove(key);
+            if (sessions == null) {
+                return;
+            }
+            drainIdle(sessions, evicted);
+            notifyAll();
+        }
+        disconnectAll(evicted);
+    }
+
+    void evictIdle() {
+        long now = clock.getAsLong();
+        List<Session> evicted = new ArrayList<>();
+        List<PendingCheck> pending = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<SessionKey, ProfileSessions>> entries = sessionsByKey.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<SessionKey, ProfileSessions> entry = entries.next();
+                ProfileSessions sessions = entry.getValue();
+                for (IdleSession idleSession : sessions.idle) {
+                    if (now - idleSession.idleSinceMillis() >= idleTimeoutMillis) {
+                        sessions.open--;
+                        evicted.add(idleSession.session());
+                    } else {
+                        pending.add(new PendingCheck(entry.getKey(), sessions, idleSession));
+                    }
+                }
+                sessions.idle.clear();
+                if (sessions.open == 0) {
+                    entries.remove();
+                }
+            }
+            if (!evicted.isEmpty()) {
+                notifyAll();
+            }
+        }
+        disconnectAll(evicted);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Boolean> healthy = new ArrayList<>(pending.size());
+        for (PendingCheck check : pending) {
+            healthy.add(healthCheck.test(check.idleSession().session()));
+        }
+        List<Session> unhealthy = new ArrayList<>();
+        synchronized (this) {
+            for (int index = 0; index < pending.size(); index++) {
+                PendingCheck check = pending.get(index);
+                if (healthy.get(index) && sessionsByKey.get(check.key()) == check.owner()) {
+                    check.owner().idle.addLast(check.idleSession());
+                } else {
+                    releaseSlot(check.key(), check.owner());
+                    unhealthy.add(check.idleSession().session());
+                }
+            }
+            notifyAll();
+        }
+        disconnectAll(unhealthy);
+    }
+
+    void shutdown() {
+        List<Session> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (evictionExecutor != null) {
+                evictionExecutor.shutdownNow();
+                evictionExecutor = null;
+            }
+            for (ProfileSessions sessions : sessionsByKey.values()) {
+                drainIdle(sessions, evicted);
+            }
+            sessionsByKey.clear();
+            notifyAll();
+        }
+        disconnectAll(evicted);
+    }
+
+    synchronized int idleSessionCount(RemoteProfile profile) {
+        ProfileSessions sessions = sessionsByKey.get(SessionKey.of(profile));
+        return sessions == null ? 0 : sessions.idle.size();
+    }
+
+    synchronized int openSessionCount(RemoteProfile profile) {
+        ProfileSessions sessions = sessionsByKey.get(SessionKey.of(profile));
+        return sessions == null ? 0 : sessions.open;
+    }
+
+    int maxSessionsFor(RemoteProfile profile) {
+        if (profile == null || profile.getMaxSessions() <= 0) {
+            return defaultMaxSessionsPerProfile;
+        }
+        return Math.min(MAX_SESSIONS_PER_PROFILE, profile.getMaxSessions());
+    }
+
+    private Session connectReserved(SessionKey key, ProfileSessions owner, RemoteProfile profile)
+            throws JSchException {
+        try {
+            return connector.connect(profile);
+        } catch (JSchException | RuntimeException failure) {
+            synchronized (this) {
+                releaseSlot(key, owner);
+                notifyAll();
+            }
+            throw failure;
+        }
+    }
+
+    private void release(SessionKey key, ProfileSessions owner, Session session) {
+        boolean healthy = healthCheck.test(session);
+        boolean keep;
+        synchronized (this) {
+            keep = healthy && sessionsByKey.get(key) == owner;
+            if (keep) {
+                owner.idle.addFirst(new IdleSession(session, clock.getAsLong()));
+            } else {
+                releaseSlot(key, owner);
+            }
+            notifyAll();
+        }
+        if (!keep) {
+            session.disconnect();
+        }
+    }
+
+    private void releaseSlot(SessionKey key, ProfileSessions owner) {
+        owner.open--;
+        if (owner.open <= 0 && owner.idle.isEmpty() && sessionsByKey.get(key) == owner) {
+            sessionsByKey.remove(key);
+        }
+    }
+
+    private static void drainIdle(ProfileSessions sessions, List<Session> drained) {
+        for (IdleSession idleSession : sessions.idle) {
+            drained.add(idleSession.session());
+        }
+        sessions.open -= sessions.idle.size();
+        sessions.idle.clear();
+    }
+
+    private void ensureEvictionScheduled() {
+        if (evictionExecutor != null || idleTimeoutMillis <= 0) {
+            return;
+        }
+        evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ssh-session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000L, idleTimeoutMillis / 2);
+        evictionExecutor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private static void disconnectAll(List<Session> sessions) {
+        for (Session session : sessions) {
+            session.disconnect();
+        }
+    }
+
+    private static boolean isHealthy(Session session) {
+        if (session == null || !session.isConnected()) {
+            return false;
+        }
+        try {
+            session.sendKeepAliveMsg();
+            return true;
+        } catch (Exception exception) {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    interface SessionConnector {
+        Session connect(RemoteProfile profile) throws JSchException;
+    }
+
+    final class Lease implements AutoCloseable {
+        private final SessionKey key;
+        private final ProfileSessions owner;
+        private final Session session;
+        private final List<Channel> channels = new ArrayList<>();
+        private final Semaphore workerChannels = new Semaphore(MAX_WORKER_CHANNELS_PER_SESSION);
+        private boolean closed;
+
+        private Lease(SessionKey key, ProfileSessions owner, Session session) {
+            this.key = key;
+            this.owner = owner;
+            this.session = session;
+        }
+
+        Session session() {
+            return session;
+        }
+
+        ChannelSftp openSftpChannel() throws JSchException {
+            ChannelSftp channel = (ChannelSftp) session.openChannel("sftp");
+            synchronized (channels) {
+                channels.add(channel);
+            }
+            channel.connect(CHANNEL_CONNECT_TIMEOUT_MILLIS);
+            return channel;
+        }
+
+        boolean hasFreeWorkerChannel() {
+            return workerChannels.availablePermits() > 0;
+        }
+
+        ChannelSftp openWorkerChannel() throws JSchException {
+            if (!workerChannels.tryAcquire()) {
+                return null;
+            }
+            try {
+                return openSftpChannel();
+            } catch (JSchException | RuntimeException failure) {
+                workerChannels.release();
+                throw failure;
+            }
+        }
+
+        void closeWorkerChannel(ChannelSftp channel) {
+            channel.disconnect();
+            workerChannels.release();
+        }
+
+        @Override
+        public void close() {
+            List<Channel> openChannels;
+            synchronized (channels) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                openChannels = new ArrayList<>(channels);
+                channels.clear();
+            }
+            for (Channel channel : openChannels) {
+                if (channel.isConnected()) {
+                    channel.disconnect();
+                }
+            }
+            release(key, owner, session);
+        }
+    }
+
+    record SessionKey(String host, int port, String username, String authType, String passwordHash, String keyFile) {
+        static SessionKey of(RemoteProfile profile) {
+            if (profile == null) {
+                throw new IllegalArgumentException("Connection profile is missing.");
+            }
+            return new SessionKey(
+                    trimmed(profile.getHost()),
+                    profile.getPort() > 0 ? profile.getPort() : 22,
+                    trimmed(profile.getUsername()),
+                    trimmed(profile.getAuthType()),
+                    sha256(profile.getPassword() == null ? "" : profile.getPassword()),
+                    trimmed(profile.getPublicKeyFilePath()));
+        }
+
+        @Override
+        public String toString() {
+            return "SessionKey[" + username + "@" + host + ":" + port + ", " + authType + "]";
+        }
+
+        private static String sha256(String value) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(digest);
+            } catch (NoSuchAlgorithmException exception) {
+                throw new IllegalStateException("SHA-256 is not available.", exception);
+            }
+        }
+
+        private static String trimmed(String value) {
+            return value == null ? "" : value.trim();
+        }
+    }
+
+    private record IdleSession(Session session, long idleSinceMillis) {
+    }
+
+    private record PendingCheck(SessionKey key, ProfileSessions owner, IdleSession idleSession) {
+    }
+
+    private static final class ProfileSessions {
+        private final Deque<IdleSession> idle = new ArrayDeque<>();
+        private int open;
+    }
+}
@@ -1,14 +1,18 @@
 package io.worldportal.app.service.impl;
 
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.SftpATTRS;
-import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+import io.worldportal.app.config.WorldSyncStateStore;
+import io.worldportal.app.config.WorldSyncStateStore.SyncedFile;
 import io.worldportal.app.model.RemoteProfile;
 import io.worldportal.app.model.WorldEntry;
+import io.worldportal.app.service.RemoteFilePatch;
 import io.worldportal.app.service.TransferService;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -19,15 +23,26 @@ import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 public class StubTransferService implements TransferService {
-    private static final long REMOTE_COMMAND_TIMEOUT_MILLIS = 30_000L;
     private static final DateTimeFormatter BACKUP_FILE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
     private static final Set<String> INCLUDED_ROOT_FILES = Set.of(
             "bans.json",
@@ -39,6 +54,37 @@ public class StubTransferService implements TransferService {
     private static final Set<String> INCLUDED_ROOT_DIRECTORIES = Set.of("mods", "universe");
     private static final Set<String> INCLUDED_UNIVERSE_FILES = Set.of("memories.json", "memories.json.bak");
     private static final Set<String> INCLUDED_UNIVERSE_DIRECTORIES = Set.of("players", "worlds");
+    private static final String UNIVERSE_WORLDS_PREFIX = "universe/worlds/";
+    private static final int MAX_REMOTE_FILE_BYTES = 16 * 1024 * 1024;
+
+    private final SshSessionPool sessionPool;
+    private final WorldSyncStateStore syncStateStore;
+    private final boolean useExecTransfers;
+    private final Set<SshSessionPool.SessionKey> blockDeltaUnsupported = ConcurrentHashMap.newKeySet();
+    private final Set<SshSessionPool.SessionKey> archiveUnsupported = ConcurrentHashMap.newKeySet();
+    private final Set<SshSessionPool.SessionKey> remoteBackupUnsupported = ConcurrentHashMap.newKeySet();
+    private final Set<SshSessionPool.SessionKey> remoteDeleteUnsupported = ConcurrentHashMap.newKeySet();
+    private final Set<SshSessionPool.SessionKey> remoteCopyUnsupported = ConcurrentHashMap.newKeySet();
+    private final Set<SshSessionPool.SessionKey> remoteHashUnsupported = ConcurrentHashMap.newKeySet();
+    private final AtomicLong avoidedStatRequests = new AtomicLong();
+
+    public StubTransferService() {
+        this(SshSessionPool.shared(), new WorldSyncStateStore());
+    }
+
+    StubTransferService(SshSessionPool sessionPool) {
+        this(sessionPool, null);
+    }
+
+    StubTransferService(SshSessionPool sessionPool, WorldSyncStateStore syncStateStore) {
+        this(sessionPool, syncStateStore, true);
+    }
+
+    StubTransferService(SshSessionPool sessionPool, WorldSyncStateStore syncStateStore, boolean useExecTransfers) {
+        this.sessionPool = sessionPool;
+        this.syncStateStore = syncStateStore;
+        this.useExecTransfers = useExecTransfers;
+    }
 
     @Override
     public void uploadWorld(WorldEntry world, RemoteProfile profile) {
@@ -57,30 +103,26 @@ public class StubTransferService implements TransferService {
         }
 
         String worldDirName = localWorldPath.getFileName().toString();
-        Session session = null;
-        ChannelSftp channel = null;
-        try {
-            session = SshSessionFactory.createConnectedSession(profile);
-            channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(15000);
-            ChannelSftp sftpChannel = channel;
-
-            ensureRemoteDirectories(channel, remoteBase);
-            String uniqueWorldDirName = resolveUniqueName(
-                    worldDirName,
-                    name -> remoteExists(sftpChannel, remoteBase + "/" + name));
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            ChannelSftp channel = lease.openSftpChannel();
+
+            RemoteDirectoryCreator directoryCreator = new RemoteDirectoryCreator(channel);
+            directoryCreator.ensure(remoteBase);
+            RemoteDirectorySnapshot remoteBaseListing =
+                    RemoteDirectorySnapshot.list(channel, remoteBase, avoidedStatRequests);
+            String uniqueWorldDirName = resolveUniqueName(worldDirName, remoteBaseListing::contains);
             String remoteWorldPath = remoteBase + "/" + uniqueWorldDirName;
 
-            uploadIncludedEntries(channel, localWorldPath, remoteWorldPath);
+            Set<String> files = WorldManifest.scanLocal(
+                    localWorldPath, INCLUDED_ROOT_FILES, INCLUDED_ROOT_DIRECTORIES).files().keySet();
+            boolean archived = files.size() >= RemoteArchiveTransfer.MIN_FILE_COUNT
+                    && transferWithArchive(profile, () -> RemoteArchiveTransfer.upload(
+                            lease.session(), localWorldPath, remoteWorldPath, files));
+            if (!archived) {
+                uploadIncludedEntries(directoryCreator, transferEngine(lease, profile), localWorldPath, remoteWorldPath);
+            }
         } catch (Exception failure) {
             throw new RuntimeException("Upload failed.", failure);
-        } finally {
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
-            }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
-            }
         }
     }
 
@@ -101,26 +143,22 @@ public class StubTransferService implements TransferService {
                 name -> Files.exists(localTargetRoot.resolve(name)));
         Path localTargetWorld = localTargetRoot.resolve(uniqueLocalDirName);
 
-        Session session = null;
-        ChannelSftp channel = null;
-        try {
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
             Files.createDirectories(localTargetRoot);
-            session = SshSessionFactory.createConnectedSession(profile);
-            channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(15000);
+            ChannelSftp channel = lease.openSftpChannel();
 
-            downloadIncludedEntries(channel, world.getPath(), localTargetWorld);
+            boolean archived = transferWithArchive(profile, () -> RemoteArchiveTransfer.download(
+                    lease.session(), normalizeRemotePath(world.getPath()), localTargetWorld, includedRootEntries()));
+            if (!archived) {
+                cleanupLocalWorldDirectory(localTargetWorld);
+                downloadIncludedEntries(
+                        channel, treeWalker(lease, channel, profile), transferEngine(lease, profile),
+                        world.getPath(), localTargetWorld);
+            }
             assertContainsFiles(localTargetWorld);
         } catch (Exception failure) {
             cleanupLocalWorldDirectory(localTargetWorld);
             throw new RuntimeException("Download failed.", failure);
-        } finally {
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
-            }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
-            }
         }
     }
 
@@ -135,26 +173,47 @@ public class StubTransferService implements TransferService {
         }
 
         Path localTargetWorld = Paths.get(localWorld.getPath());
-        Session session = null;
-        ChannelSftp channel = null;
-        try {
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
             Files.createDirectories(localTargetWorld);
             createUniverseBackup(localTargetWorld, LocalDateTime.now());
-            session = SshSessionFactory.createConnectedSession(profile);
-            channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(15000);
-
-            downloadIncludedEntries(channel, remoteWorld.getPath(), localTargetWorld);
+            ChannelSftp channel = lease.openSftpChannel();
+
+            String remoteWorldPath = normalizeRemotePath(remoteWorld.getPath());
+            WorldManifest remote = WorldManifest.scanRemote(
+                    channel, remoteWorldPath, INCLUDED_ROOT_FILES, INCLUDED_ROOT_DIRECTORIES);
+            WorldManifest local = WorldManifest.scanLocal(
+                    localTargetWorld, INCLUDED_ROOT_FILES, INCLUDED_ROOT_DIRECTORIES);
+            WorldManifest.Plan plan = WorldManifest.plan(
+                    remote, local, loadSyncState(profile, remoteWorldPath, localTargetWorld), false, localTargetWorld,
+                    remoteHashes(lease, profile, remoteWorldPath));
+
+            Set<String> patched = transferWithBlockDelta(profile, plan.transfers(), remote, local,
+                    path -> BlockDeltaTransfer.download(lease.session(), channel, remoteWorldPath + "/" + path,
+                            localTargetWorld.resolve(path), remote.stamp(path).size()));
+            List<SftpTransferEngine.FileTransfer> transfers = new ArrayList<>();
+            for (String path : plan.transfers()) {
+                if (patched.contains(path)) {
+                    continue;
+                }
+                Path localFile = localTargetWorld.resolve(path);
+                Files.createDirectories(localFile.getParent());
+                transfers.add(SftpTransferEngine.FileTransfer.download(
+                        remoteWorldPath + "/" + path, localFile, remote.stamp(path).size()));
+            }
+            transferEngine(lease, profile).execute(transfers);
+            for (String path : plan.deletions()) {
+                deleteLocalFile(localTargetWorld, path);
+            }
             assertContainsFiles(localTargetWorld);
+
+            Map<String, SyncedFile> synced = new HashMap<>(plan.unchanged());
+            for (String path : plan.transfers()) {
+                synced.put(path, new SyncedFile(
+                        WorldManifest.localStamp(localTargetWorld.resolve(path)), remote.stamp(path), null));
+            }
+            saveSyncState(profile, remoteWorldPath, localTargetWorld, synced);
         } catch (Exception failure) {
             throw new RuntimeException("Sync failed.", failure);
-        } finally {
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
-            }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
-            }
         }
     }
 
@@ -173,24 +232,46 @@ public class StubTransferService implements TransferService {
             return;
         }
 
-        Session session = null;
-        ChannelSftp channel = null;
-        try {
-            session = SshSessionFactory.createConnectedSession(profile);
-            channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(15000);
-            createRemoteUniverseBackup(channel, remoteWorld.getPath(), LocalDateTime.now());
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            ChannelSftp channel = lease.openSftpChannel();
+            createRemoteUniverseBackup(lease, profile, channel, remoteWorld.getPath(), LocalDateTime.now());
+
+            String remoteWorldPath = normalizeRemotePath(remoteWorld.getPath());
+            RemoteDirectoryCreator directoryCreator = new RemoteDirectoryCreator(channel);
+            directoryCreator.ensure(remoteWorldPath);
+            WorldManifest local = WorldManifest.scanLocal(
+                    localWorldPath, INCLUDED_ROOT_FILES, INCLUDED_ROOT_DIRECTORIES);
+            WorldManifest remote = WorldManifest.scanRemote(
+                    channel, remoteWorldPath, INCLUDED_ROOT_FILES, INCLUDED_ROOT_DIRECTORIES);
+            WorldManifest.Plan plan = WorldManifest.plan(
+                    local, remote, loadSyncState(profile, remoteWorldPath, localWorldPath), true, localWorldPath,
+                    remoteHashes(lease, profile, remoteWorldPath));
+
+            Set<String> patched = transferWithBlockDelta(profile, plan.transfers(), local, remote,
+                    path -> BlockDeltaTransfer.upload(lease.session(), localWorldPath.resolve(path),
+                            remoteWorldPath + "/" + path, remote.stamp(path).size()));
+            Set<String> remoteDirectories = new LinkedHashSet<>();
+            List<SftpTransferEngine.FileTransfer> transfers = new ArrayList<>();
+            for (String path : plan.transfers()) {
+                if (patched.contains(path)) {
+                    continue;
+                }
+                String remoteFile = remoteWorldPath + "/" + path;
+                remoteDirectories.add(remoteParentPath(remoteFile));
+                transfers.add(SftpTransferEngine.FileTransfer.upload(localWorldPath.resolve(path), remoteFile));
+            }
+            directoryCreator.ensureAll(remoteDirectories);
+            transferEngine(lease, profile).execute(transfers);
+            deleteRemoteFiles(channel, remoteWorldPath, plan.deletions());
 
-            uploadIncludedEntries(channel, localWorldPath, remoteWorld.getPath());
+            Map<String, SyncedFile> synced = new HashMap<>(plan.unchanged());
+            Map<String, FileStamp> uploaded = remoteStamps(channel, remoteWorldPath, plan.transfers());
+            for (String path : plan.transfers()) {
+                synced.put(path, new SyncedFile(local.stamp(path), uploaded.get(path), null));
+            }
+            saveSyncState(profile, remoteWorldPath, localWorldPath, synced);
         } catch (Exception failure) {
             throw new RuntimeException("Sync failed.", failure);
-        } finally {
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
-            }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
-            }
         }
     }
 
@@ -218,12 +299,8 @@ public class StubTransferService implements TransferService {
 
         String parentPath = remoteParentPath(currentRemotePath);
         String targetRemotePath = parentPath + "/" + normalizedRequestedFolder;
-        Session session = null;
-        ChannelSftp channel = null;
-        try {
-            session = SshSessionFactory.createConnectedSession(profile);
-            channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(15000);
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            ChannelSftp channel = lease.openSftpChannel();
 
             if (remoteExists(channel, targetRemotePath)) {
                 throw new RuntimeException("A world folder with this name already exists.");
@@ -231,16 +308,50 @@ public class StubTransferService implements TransferService {
             channel.rename(normalizeRemotePath(currentRemotePath), normalizeRemotePath(targetRemotePath));
         } catch (Exception failure) {
             throw new RuntimeException("Remote rename failed.", failure);
-        } finally {
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
+        }
+    }
+
+    @Override
+    public String duplicateRemoteWorld(WorldEntry remoteWorld, RemoteProfile profile) {
+        if (remoteWorld == null || profile == null) {
+            return null;
+        }
+        String remotePath = remoteWorld.getPath();
+        if (remotePath == null || remotePath.isBlank()) {
+            return null;
+        }
+
+        String sourcePath = normalizeRemotePath(remotePath);
+        String parentPath = remoteParentPath(sourcePath);
+        String sourceName = remoteLeafName(sourcePath);
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            ChannelSftp channel = lease.openSftpChannel();
+            SftpATTRS attrs = remoteAttributes(channel, sourcePath);
+            if (attrs == null || !attrs.isDir()) {
+                throw new IOException("Remote world folder does not exist.");
             }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
+            RemoteDirectorySnapshot parentListing =
+                    RemoteDirectorySnapshot.list(channel, parentPath, avoidedStatRequests);
+            String targetName = resolveUniqueName(sourceName, parentListing::contains);
+            if (!duplicateRemoteWorldWithCommand(lease, profile, parentPath, sourceName, targetName)) {
+                RemoteWorldCopy.copyOverSftp(lease, parentPath, sourceName, targetName);
             }
+            return parentPath + "/" + targetName;
+        } catch (Exception failure) {
+            throw new RuntimeException("Remote duplicate failed.", failure);
         }
     }
 
+    private boolean duplicateRemoteWorldWithCommand(
+            SshSessionPool.Lease lease,
+            RemoteProfile profile,
+            String parentPath,
+            String sourceName,
+            String targetName) throws Exception {
+        return Boolean.TRUE.equals(runExecFeature(remoteCopyUnsupported, profile,
+                () -> RemoteWorldCopy.copyWithCommand(lease.session(), parentPath, sourceName, targetName) ? true : null));
+    }
+
     @Override
     public void deleteRemoteWorld(WorldEntry remoteWorld, RemoteProfile profile) {
         if (remoteWorld == null || profile == null) {
@@ -251,62 +362,303 @@ public class StubTransferService implements TransferService {
             return;
         }
 
-        Session session = null;
-        ChannelSftp channel = null;
-        try {
-            session = SshSessionFactory.createConnectedSession(profile);
-            channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(15000);
-            deleteRemoteDirectory(channel, normalizeRemotePath(remotePath));
+        String remoteBasePath = profile.getRemoteBasePath();
+        String worldFolderName = RemoteWorldDeletion.worldFolderName(remoteBasePath, remotePath);
+
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            if (deleteRemoteWorldWithCommand(lease, profile, remoteBasePath, worldFolderName)) {
+                return;
+            }
+            ChannelSftp channel = lease.openSftpChannel();
+            RemoteWorldDeletion.deleteOverSftp(
+                    lease, channel, normalizeRemotePath(remotePath), SftpTransferEngine.parallelismFor(profile));
         } catch (Exception failure) {
             throw new RuntimeException("Remote delete failed.", failure);
+        }
+    }
+
+    private boolean deleteRemoteWorldWithCommand(
+            SshSessionPool.Lease lease,
+            RemoteProfile profile,
+            String remoteBasePath,
+            String worldFolderName) throws Exception {
+        return Boolean.TRUE.equals(runExecFeature(remoteDeleteUnsupported, profile,
+                () -> RemoteWorldDeletion.deleteWithCommand(lease.session(), remoteBasePath, worldFolderName) ? true : null));
+    }
+
+    @Override
+    public void patchRemoteFile(
+            WorldEntry remoteWorld,
+            String relativePath,
+            RemoteFilePatch patch,
+            RemoteProfile profile) {
+        if (remoteWorld == null || profile == null || patch == null) {
+            return;
+        }
+        if (remoteWorld.getPath() == null || remoteWorld.getPath().isBlank()) {
+            return;
+        }
+        String remoteFile = normalizeRemotePath(remoteWorld.getPath()) + "/" + validateRelativePath(relativePath);
+
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            ChannelSftp channel = lease.openSftpChannel();
+            SftpATTRS attrs = remoteAttributes(channel, remoteFile);
+            byte[] current = readRemoteFileContent(channel, remoteFile, attrs, relativePath);
+            byte[] updated = patch.apply(current);
+            if (updated == null || Arrays.equals(current, updated)) {
+                return;
+            }
+            writeRemoteFileAtomically(channel, remoteFile, updated, attrs);
+        } catch (Exception failure) {
+            throw new RuntimeException("Remote file update failed.", failure);
+        }
+    }
+
+    @Override
+    public byte[] readRemoteFile(WorldEntry remoteWorld, String relativePath, RemoteProfile profile) {
+        if (remoteWorld == null || profile == null) {
+            return null;
+        }
+        if (remoteWorld.getPath() == null || remoteWorld.getPath().isBlank()) {
+            return null;
+        }
+        String remoteFile = normalizeRemotePath(remoteWorld.getPath()) + "/" + validateRelativePath(relativePath);
+
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            ChannelSftp channel = lease.openSftpChannel();
+            return readRemoteFileContent(channel, remoteFile, remoteAttributes(channel, remoteFile), relativePath);
+        } catch (Exception failure) {
+            throw new RuntimeException("Remote file read failed.", failure);
+        }
+    }
+
+    private byte[] readRemoteFileContent(ChannelSftp channel, String remoteFile, SftpATTRS attrs, String relativePath)
+            throws Exception {
+        if (attrs == null) {
+            return null;
+        }
+        if (!attrs.isReg() || attrs.getSize() > MAX_REMOTE_FILE_BYTES) {
+            throw new IOException("Remote file cannot be read into memory: " + relativePath);
+        }
+        try (InputStream in = channel.get(remoteFile)) {
+            return in.readNBytes(MAX_REMOTE_FILE_BYTES);
+        }
+    }
+
+    private void writeRemoteFileAtomically(ChannelSftp channel, String remoteFile, byte[] content, SftpATTRS existing)
+            throws Exception {
+        String remoteDirectory = remoteParentPath(remoteFile);
+        ensureRemoteDirectories(channel, remoteDirectory);
+        String tempFile = remoteDirectory + "/." + remoteLeafName(remoteFile) + "." + UUID.randomUUID() + ".tmp";
+        boolean renamed = false;
+        try {
+            channel.put(new ByteArrayInputStream(content), tempFile);
+            if (existing != null) {
+                channel.chmod(existing.getPermissions() & 07777, tempFile);
+            }
+            try {
+                channel.rename(tempFile, remoteFile);
+            } catch (SftpException exception) {
+                if (!remoteExists(channel, remoteFile)) {
+                    throw exception;
+                }
+                channel.rm(remoteFile);
+                channel.rename(tempFile, remoteFile);
+            }
+            renamed = true;
         } finally {
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
+            if (!renamed) {
+                try {
+                    channel.rm(tempFile);
+                } catch (SftpException ignored) {
+                }
             }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
+        }
+    }
+
+    static String validateRelativePath(String relativePath) {
+        String normalized = relativePath == null ? "" : relativePath.trim();
+        if (normalized.isEmpty() || normalized.startsWith("/") || normalized.contains("\\")) {
+            throw new IllegalArgumentException("Remote file path must be relative to the world folder.");
+        }
+        for (String segment : normalized.split("/")) {
+            if (segment.isEmpty() || ".".equals(segment) || "..".equals(segment)) {
+                throw new IllegalArgumentException("Remote file path must stay inside the world folder.");
             }
         }
+        return normalized;
     }
 
-    private void uploadDirectory(ChannelSftp channel, Path localDirectory, String remoteDirectory) throws Exception {
-        ensureRemoteDirectories(channel, remoteDirectory);
+    private boolean transferWithArchive(RemoteProfile profile, ArchiveTransfer archiveTransfer) throws Exception {
+        return Boolean.TRUE.equals(runExecFeature(archiveUnsupported, profile,
+                () -> archiveTransfer.transfer() ? true : null));
+    }
+
+    <T> T runExecFeature(
+            Set<SshSessionPool.SessionKey> unsupported,
+            RemoteProfile profile,
+            ExecFeature<T> feature) throws Exception {
+        SshSessionPool.SessionKey key = SshSessionPool.SessionKey.of(profile);
+        if (!useExecTransfers || unsupported.contains(key)) {
+            return null;
+        }
+        T result;
+        try {
+            result = feature.run();
+        } catch (JSchException channelRefused) {
+            return null;
+        }
+        if (result == null) {
+            unsupported.add(key);
+        }
+        return result;
+    }
+
+    private static List<String> includedRootEntries() {
+        List<String> entries = new ArrayList<>(INCLUDED_ROOT_FILES);
+        entries.addAll(INCLUDED_ROOT_DIRECTORIES);
+        entries.sort(null);
+        return entries;
+    }
+
+    private Set<String> transferWithBlockDelta(
+            RemoteProfile profile,
+            List<String> paths,
+            WorldManifest source,
+            WorldManifest target,
+            DeltaTransfer deltaTransfer) {
+        Set<String> patched = new HashSet<>();
+        if (!useExecTransfers) {
+            return patched;
+        }
+        for (String path : paths) {
+            FileStamp sourceStamp = source.stamp(path);
+            FileStamp targetStamp = target.stamp(path);
+            if (!path.startsWith(UNIVERSE_WORLDS_PREFIX) || targetStamp == null
+                    || !BlockDeltaTransfer.eligible(sourceStamp.size(), targetStamp.size())) {
+                continue;
+            }
+            try {
+                if (runExecFeature(blockDeltaUnsupported, profile, () -> deltaTransfer.transfer(path)) == null) {
+                    break;
+                }
+                patched.add(path);
+            } catch (Exception ignored) {
+            }
+        }
+        return patched;
+    }
+
+    private WorldManifest.RemoteHashes remoteHashes(
+            SshSessionPool.Lease lease,
+            RemoteProfile profile,
+            String remoteWorldPath) {
+        return paths -> {
+            try {
+                Map<String, String> hashes = runExecFeature(remoteHashUnsupported, profile,
+                        () -> WorldManifest.remoteSha256(lease.session(), remoteWorldPath, paths));
+                return hashes == null ? Map.of() : hashes;
+            } catch (Exception failure) {
+                return Map.of();
+            }
+        };
+    }
+
+    private Map<String, SyncedFile> loadSyncState(RemoteProfile profile, String remoteWorldPath, Path localWorldPath) {
+        return syncStateStore == null ? Map.of() : syncStateStore.load(profile, remoteWorldPath, localWorldPath);
+    }
+
+    private void saveSyncState(
+            RemoteProfile profile,
+            String remoteWorldPath,
+            Path localWorldPath,
+            Map<String, SyncedFile> synced) {
+        if (syncStateStore != null) {
+            syncStateStore.save(profile, remoteWorldPath, localWorldPath, synced);
+        }
+    }
+
+    private Map<String, FileStamp> remoteStamps(ChannelSftp channel, String remoteWorldPath, Collection<String> paths)
+            throws IOException {
+        Map<String, RemoteDirectorySnapshot> listings = new HashMap<>();
+        Map<String, FileStamp> stamps = new HashMap<>();
+        for (String path : paths) {
+            int slash = path.lastIndexOf('/');
+            String directory = slash < 0 ? remoteWorldPath : remoteWorldPath + "/" + path.substring(0, slash);
+            RemoteDirectorySnapshot listing = listings.computeIfAbsent(
+                    directory, ignored -> RemoteDirectorySnapshot.list(channel, directory, avoidedStatRequests));
+            SftpATTRS attrs = listing.attributes(path.substring(slash + 1));
+            if (attrs == null || attrs.isDir()) {
+                throw new IOException("Uploaded file is missing on the server: " + path);
+            }
+            stamps.put(path, new FileStamp(attrs.getMTime(), attrs.getSize()));
+        }
+        return stamps;
+    }
+
+    private static void deleteRemoteFiles(ChannelSftp channel, String remoteWorldPath, Collection<String> paths)
+            throws SftpException {
+        Set<String> directories = new TreeSet<>(Comparator
+                .comparingLong((String directory) -> directory.chars().filter(character -> character == '/').count())
+                .reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        for (String path : paths) {
+            channel.rm(remoteWorldPath + "/" + path);
+            for (int slash = path.lastIndexOf('/'); slash > 0; slash = path.lastIndexOf('/', slash - 1)) {
+                directories.add(path.substring(0, slash));
+            }
+        }
+        for (String directory : directories) {
+            try {
+                channel.rmdir(remoteWorldPath + "/" + directory);
+            } catch (SftpException notEmpty) {
+            }
+        }
+    }
+
+    private void deleteLocalFile(Path worldDirectory, String relativePath) throws IOException {
+        Path file = worldDirectory.resolve(relativePath);
+        Files.deleteIfExists(file);
+        Path directory = file.getParent();
+        while (directory != null && !directory.equals(worldDirectory) && directory.startsWith(worldDirectory)) {
+            try (var children = Files.list(directory)) {
+                if (children.findAny().isPresent()) {
+                    return;
+                }
+            }
+            Files.delete(directory);
+            directory = directory.getParent();
+        }
+    }
+
+    private void collectDirectoryUploads(
+            Path localDirectory,
+            String remoteDirectory,
+            List<String> remoteDirectories,
+            List<SftpTransferEngine.FileTransfer> transfers) throws Exception {
+        remoteDirectories.add(remoteDirectory);
         try (var paths = Files.list(localDirectory)) {
             List<Path> children = paths.toList();
             for (Path child : children) {
                 String remoteChild = remoteDirectory + "/" + child.getFileName();
                 if (Files.isDirectory(child)) {
-                    uploadDirectory(channel, child, remoteChild);
+                    collectDirectoryUploads(child, remoteChild, remoteDirectories, transfers);
                 } else if (Files.isRegularFile(child)) {
-                    channel.put(child.toString(), remoteChild);
+                    transfers.add(SftpTransferEngine.FileTransfer.upload(child, remoteChild));
                 }
             }
         }
     }
 
     Path createUniverseBackup(Path worldDirectory, LocalDateTime backupTime) throws IOException {
-        Path backupDirectory = worldDirectory.resolve("backup");
-        Files.createDirectories(backupDirectory);
-        Path universeDirectory = worldDirectory.resolve("universe");
-        String timestamp = BACKUP_FILE_TIME_FORMATTER.format(backupTime);
-        Path backupArchive = backupDirectory.resolve(timestamp + ".zip");
-        try (OutputStream out = Files.newOutputStream(backupArchive, StandardOpenOption.CREATE_NEW);
-                ZipOutputStream zipOutputStream = new ZipOutputStream(out)) {
-            for (String fileName : INCLUDED_UNIVERSE_FILES) {
-                Path candidate = universeDirectory.resolve(fileName);
-                if (Files.isRegularFile(candidate)) {
-                    addFileToZip(universeDirectory, candidate, zipOutputStream);
-                }
-            }
-            for (String directoryName : INCLUDED_UNIVERSE_DIRECTORIES) {
-                Path directory = universeDirectory.resolve(directoryName);
-                if (Files.isDirectory(directory)) {
-                    addDirectoryToZip(universeDirectory, directory, zipOutputStream);
-                }
-            }
-        }
-        return backupArchive;
+        UniverseBackupStore backupStore = new UniverseBackupStore(worldDirectory.resolve("backup"));
+        Path manifest = backupStore.backup(
+                worldDirectory.resolve("universe"),
+                INCLUDED_UNIVERSE_FILES,
+                INCLUDED_UNIVERSE_DIRECTORIES,
+                BACKUP_FILE_TIME_FORMATTER.format(backupTime));
+        backupStore.prune(UniverseBackupStore.DEFAULT_RETAINED_BACKUPS);
+        return manifest;
     }
 
     Path createWorldArchive(Path worldDirectory) throws IOException {
@@ -373,11 +725,33 @@ public class StubTransferService implements TransferService {
         zipOutputStream.closeEntry();
     }
 
-    private void createRemoteUniverseBackup(ChannelSftp channel, String remoteWorldPath, LocalDateTime backupTime)
-            throws Exception {
+    private void createRemoteUniverseBackup(
+            SshSessionPool.Lease lease,
+            RemoteProfile profile,
+            ChannelSftp channel,
+            String remoteWorldPath,
+            LocalDateTime backupTime) throws Exception {
+        List<String> universeEntries = new ArrayList<>(INCLUDED_UNIVERSE_FILES);
+        universeEntries.addAll(INCLUDED_UNIVERSE_DIRECTORIES);
+        if (runExecFeature(remoteBackupUnsupported, profile,
+                () -> RemoteUniverseBackup.create(lease.session(), normalizeRemotePath(remoteWorldPath),
+                        BACKUP_FILE_TIME_FORMATTER.format(backupTime), universeEntries)) != null) {
+            return;
+        }
+        createRemoteUniverseBackupOverSftp(
+                lease, channel, treeWalker(lease, channel, profile), remoteWorldPath, backupTime);
+    }
+
+    private void createRemoteUniverseBackupOverSftp(
+            SshSessionPool.Lease lease,
+            ChannelSftp channel,
+            RemoteTreeWalker walker,
+            String remoteWorldPath,
+            LocalDateTime backupTime) throws Exception {
         String normalizedRemoteWorldPath = normalizeRemotePath(remoteWorldPath);
         String remoteUniversePath = normalizedRemoteWorldPath + "/universe";
-        if (!remoteExists(channel, remoteUniversePath)) {
+        RemoteDirectorySnapshot universe = RemoteDirectorySnapshot.list(channel, remoteUniversePath, avoidedStatRequests);
+        if (!universe.exists()) {
             return;
         }
         String remoteBackupDirectory = normalizedRemoteWorldPath + "/backup";
@@ -387,15 +761,14 @@ public class StubTransferService implements TransferService {
         try (OutputStream out = Files.newOutputStream(localArchive, StandardOpenOption.TRUNCATE_EXISTING);
                 ZipOutputStream zipOutputStream = new ZipOutputStream(out)) {
             for (String fileName : INCLUDED_UNIVERSE_FILES) {
-                String remoteFile = remoteUniversePath + "/" + fileName;
-                if (remoteExists(channel, remoteFile)) {
-                    addRemoteFileToZip(channel, remoteUniversePath, remoteFile, zipOutputStream);
+                if (universe.contains(fileName)) {
+                    addRemoteFileToZip(channel, remoteUniversePath, remoteUniversePath + "/" + fileName, zipOutputStream);
                 }
             }
             for (String directoryName : INCLUDED_UNIVERSE_DIRECTORIES) {
-                String remoteDirectory = remoteUniversePath + "/" + directoryName;
-                if (remoteExists(channel, remoteDirectory)) {
-                    addRemoteDirectoryToZip(channel, remoteUniversePath, remoteDirectory, zipOutputStream);
+                if (universe.contains(directoryName)) {
+                    addRemoteDirectoryToZip(lease, channel, walker, remoteUniversePath,
+                            remoteUniversePath + "/" + directoryName, zipOutputStream);
                 }
             }
         }
@@ -410,23 +783,17 @@ public class StubTransferService implements TransferService {
     }
 
     private void addRemoteDirectoryToZip(
+            SshSessionPool.Lease lease,
             ChannelSftp channel,
+            RemoteTreeWalker walker,
             String remoteUniversePath,
             String remoteDirectoryPath,
             ZipOutputStream zipOutputStream) throws Exception {
-        @SuppressWarnings("unchecked")
-        List<ChannelSftp.LsEntry> entries = channel.ls(remoteDirectoryPath);
-        for (ChannelSftp.LsEntry entry : entries) {
-            String name = entry.getFilename();
-            if (".".equals(name) || "..".equals(name)) {
-                continue;
-            }
-            String remoteChild = remoteDirectoryPath + "/" + name;
-            if (entry.getAttrs().isDir()) {
-                addRemoteDirectoryToZip(channel, remoteUniversePath, remoteChild, zipOutputStream);
-            } else {
-                addRemoteFileToZip(channel, remoteUniversePath, remoteChild, zipOutputStream);
-            }
+        try (SftpChannelWorkers<String> zipper = new SftpChannelWorkers<>(lease, null, 1, "sftp-zip",
+                (zipChannel, file) -> addRemoteFileToZip(zipChannel, remoteUniversePath, file, zipOutputStream),
+                file -> "Failed to back up " + file + ".")) {
+            walker.walk(remoteDirectoryPath, file -> zipper.submit(file.path()));
+            zipper.finish(channel);
         }
     }
 
@@ -453,45 +820,60 @@ public class StubTransferService implements TransferService {
         return normalizedChild;
     }
 
-    private void uploadIncludedEntries(ChannelSftp channel, Path localWorldPath, String remoteWorldPath)
-            throws Exception {
-        ensureRemoteDirectories(channel, remoteWorldPath);
-
+    private void uploadIncludedEntries(
+            RemoteDirectoryCreator directoryCreator,
+            SftpTransferEngine transferEngine,
+            Path localWorldPath,
+            String remoteWorldPath) throws Exception {
+        List<String> remoteDirectories = new ArrayList<>();
+        remoteDirectories.add(remoteWorldPath);
+        List<SftpTransferEngine.FileTransfer> transfers = new ArrayList<>();
         for (String fileName : INCLUDED_ROOT_FILES) {
             Path localFile = localWorldPath.resolve(fileName);
             if (Files.isRegularFile(localFile)) {
-                channel.put(localFile.toString(), remoteWorldPath + "/" + fileName);
+                transfers.add(SftpTransferEngine.FileTransfer.upload(localFile, remoteWorldPath + "/" + fileName));
             }
         }
 
         for (String dirName : INCLUDED_ROOT_DIRECTORIES) {
             Path localDirectory = localWorldPath.resolve(dirName);
             if (Files.isDirectory(localDirectory)) {
-                uploadDirectory(channel, localDirectory, remoteWorldPath + "/" + dirName);
+                collectDirectoryUploads(localDirectory, remoteWorldPath + "/" + dirName, remoteDirectories, transfers);
             }
         }
+        directoryCreator.ensureAll(remoteDirectories);
+        transferEngine.execute(transfers);
     }
 
-    private void downloadIncludedEntries(ChannelSftp channel, String remoteWorldPath, Path localTargetWorld)
-            throws Exception {
+    private void downloadIncludedEntries(
+            ChannelSftp channel,
+            RemoteTreeWalker walker,
+            SftpTransferEngine transferEngine,
+            String remoteWorldPath,
+            Path localTargetWorld) throws Exception {
         Files.createDirectories(localTargetWorld);
 
-        for (String fileName : INCLUDED_ROOT_FILES) {
-            String remoteFile = remoteWorldPath + "/" + fileName;
-            if (!remoteExists(channel, remoteFile)) {
-                continue;
+        RemoteDirectorySnapshot world = RemoteDirectorySnapshot.list(channel, remoteWorldPath, avoidedStatRequests);
+        try (SftpTransferEngine.Session transfers = transferEngine.start()) {
+            for (String fileName : INCLUDED_ROOT_FILES) {
+                String remoteFile = remoteWorldPath + "/" + fileName;
+                SftpATTRS attrs = world.attributes(fileName);
+                if (attrs == null) {
+                    continue;
+                }
+                Path localFile = localTargetWorld.resolve(fileName);
+                Files.createDirectories(localFile.getParent());
+                transfers.submit(SftpTransferEngine.FileTransfer.download(remoteFile, localFile, attrs.getSize()));
             }
-            Path localFile = localTargetWorld.resolve(fileName);
-            Files.createDirectories(localFile.getParent());
-            channel.get(remoteFile, localFile.toString());
-        }
 
-        for (String dirName : INCLUDED_ROOT_DIRECTORIES) {
-            String remoteDir = remoteWorldPath + "/" + dirName;
-            if (!remoteExists(channel, remoteDir)) {
-                continue;
+            for (String dirName : INCLUDED_ROOT_DIRECTORIES) {
+                String remoteDir = remoteWorldPath + "/" + dirName;
+                if (!world.contains(dirName)) {
+                    continue;
+                }
+                submitDirectoryDownloads(walker, remoteDir, localTargetWorld.resolve(dirName), transfers);
             }
-            downloadDirectory(channel, remoteDir, localTargetWorld.resolve(dirName));
+            transfers.finish();
         }
     }
 
@@ -507,6 +889,10 @@ public class StubTransferService implements TransferService {
         }
     }
 
+    long avoidedStatRequests() {
+        return avoidedStatRequests.get();
+    }
+
     static String resolveUniqueName(String baseName, Predicate<String> alreadyExists) {
         String trimmedBase = (baseName == null || baseName.isBlank()) ? "World" : baseName.trim();
         if (!alreadyExists.test(trimmedBase)) {
@@ -519,45 +905,24 @@ public class StubTransferService implements TransferService {
         return trimmedBase + "_" + suffix;
     }
 
-    private void runRemoteCommand(Session session, String command) throws Exception {
-        ChannelExec exec = (ChannelExec) session.openChannel("exec");
-        ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
-        try {
-            exec.setCommand(command);
-            exec.setInputStream(null);
-            exec.setErrStream(errorStream);
-            exec.connect(15000);
-
-            long startedAt = System.currentTimeMillis();
-            while (!exec.isClosed()) {
-                if (System.currentTimeMillis() - startedAt > REMOTE_COMMAND_TIMEOUT_MILLIS) {
-                    throw new IOException("Remote command timed out.");
-                }
-                Thread.sleep(50);
-            }
+    private boolean remoteExists(ChannelSftp channel, String remotePath) {
+        return remoteAttributes(channel, remotePath) != null;
+    }
 
-            if (exec.getExitStatus() != 0) {
-                String stderr = errorStream.toString().trim();
-                throw new IOException(stderr.isEmpty() ? "Remote command failed." : stderr);
-            }
-        } finally {
-            if (exec.isConnected()) {
-                exec.disconnect();
-            }
+    private SftpATTRS remoteAttributes(ChannelSftp channel, String remotePath) {
+        try {
+            return channel.stat(remotePath);
+        } catch (Exception exception) {
+            return null;
         }
     }
 
-    private String escapeRemote(String path) {
-        return path.replace("'", "'\\''");
+    private SftpTransferEngine transferEngine(SshSessionPool.Lease lease, RemoteProfile profile) {
+        return new SftpTransferEngine(lease, SftpTransferEngine.parallelismFor(profile));
     }
 
-    private boolean remoteExists(ChannelSftp channel, String remotePath) {
-        try {
-            channel.stat(remotePath);
-            return true;
-        } catch (Exception exception) {
-            return false;
-        }
+    private RemoteTreeWalker treeWalker(SshSessionPool.Lease lease, ChannelSftp channel, RemoteProfile profile) {
+        return new RemoteTreeWalker(lease, channel, SftpTransferEngine.parallelismFor(profile));
     }
 
     private void cleanupLocalWorldDirectory(Path worldDirectory) {
@@ -576,70 +941,27 @@ public class StubTransferService implements TransferService {
         }
     }
 
-    private void downloadDirectory(ChannelSftp channel, String remoteDirectory, Path localDirectory) throws Exception {
+    private void submitDirectoryDownloads(
+            RemoteTreeWalker walker,
+            String remoteDirectory,
+            Path localDirectory,
+            SftpTransferEngine.Session transfers) throws Exception {
         Files.createDirectories(localDirectory);
-
-        @SuppressWarnings("unchecked")
-        List<ChannelSftp.LsEntry> entries = channel.ls(remoteDirectory);
-        for (ChannelSftp.LsEntry entry : entries) {
-            String name = entry.getFilename();
-            if (".".equals(name) || "..".equals(name)) {
-                continue;
-            }
-            String remoteChild = remoteDirectory + "/" + name;
-            Path localChild = localDirectory.resolve(name);
-            SftpATTRS attrs = entry.getAttrs();
-            if (attrs.isDir()) {
-                downloadDirectory(channel, remoteChild, localChild);
-            } else {
-                Files.createDirectories(localChild.getParent());
-                channel.get(remoteChild, localChild.toString());
+        Set<Path> localDirectories = new HashSet<>();
+        List<RemoteTreeWalker.RemoteEntry> directories = walker.walk(remoteDirectory, file -> {
+            Path localFile = localDirectory.resolve(file.relativePath());
+            if (localDirectories.add(localFile.getParent())) {
+                Files.createDirectories(localFile.getParent());
             }
+            transfers.submit(SftpTransferEngine.FileTransfer.download(file.path(), localFile, file.attrs().getSize()));
+        });
+        for (RemoteTreeWalker.RemoteEntry directory : directories) {
+            Files.createDirectories(localDirectory.resolve(directory.relativePath()));
         }
     }
 
     private void ensureRemoteDirectories(ChannelSftp channel, String remoteDirectory) throws Exception {
-        String normalized = remoteDirectory.replace("\\", "/");
-        String[] segments = normalized.split("/");
-        StringBuilder current = new StringBuilder();
-        if (normalized.startsWith("/")) {
-            current.append("/");
-        }
-        for (String segment : segments) {
-            if (segment == null || segment.isBlank()) {
-                continue;
-            }
-            if (current.length() > 1 && current.charAt(current.length() - 1) != '/') {
-                current.append('/');
-            } else if (current.length() == 1 && current.charAt(0) != '/') {
-                current.append('/');
-            }
-            current.append(segment);
-            String currentPath = current.toString();
-            try {
-                channel.stat(currentPath);
-            } catch (Exception exception) {
-                channel.mkdir(currentPath);
-            }
-        }
-    }
-
-    private void deleteRemoteDirectory(ChannelSftp channel, String remoteDirectory) throws Exception {
-        @SuppressWarnings("unchecked")
-        List<ChannelSftp.LsEntry> entries = channel.ls(remoteDirectory);
-        for (ChannelSftp.LsEntry entry : entries) {
-            String name = entry.getFilename();
-            if (".".equals(name) || "..".equals(name)) {
-                continue;
-            }
-            String child = remoteDirectory + "/" + name;
-            if (entry.getAttrs().isDir()) {
-                deleteRemoteDirectory(channel, child);
-            } else {
-                channel.rm(child);
-            }
-        }
-        channel.rmdir(remoteDirectory);
+        new RemoteDirectoryCreator(channel).ensure(remoteDirectory);
     }
 
     private String remoteParentPath(String remotePath) {
@@ -663,4 +985,19 @@ public class StubTransferService implements TransferService {
     private String normalizeRemotePath(String remotePath) {
         return remotePath.replace('\\', '/').replaceAll("/+$", "");
     }
+
+    @FunctionalInterface
+    interface ExecFeature<T> {
+        T run() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ArchiveTransfer {
+        boolean transfer() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface DeltaTransfer {
+        BlockDelta.Stats transfer(String relativePath) throws Exception;
+    }
 }
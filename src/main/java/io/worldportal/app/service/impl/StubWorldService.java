@@ -1,33 +1,77 @@
 package io.worldportal.app.service.impl;
 
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.Session;
+import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.SftpATTRS;
+import io.worldportal.app.config.RemoteWorldCacheStore;
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld;
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
 import io.worldportal.app.model.RemoteProfile;
 import io.worldportal.app.model.WorldEntry;
+import io.worldportal.app.service.LocalWorldListener;
 import io.worldportal.app.service.WorldService;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class StubWorldService implements WorldService {
-    private static final Pattern DISPLAY_NAME_PATTERN = Pattern.compile("\"DisplayName\"\\s*:\\s*\"([^\"]+)\"");
-    private static final Pattern GAME_MODE_PATTERN = Pattern.compile("\"GameMode\"\\s*:\\s*\"([^\"]+)\"");
-    private static final Pattern UUID_BINARY_PATTERN = Pattern.compile("\"UUID\"\\s*:\\s*\\{[^}]*\"\\$binary\"\\s*:\\s*\"([^\"]+)\"", Pattern.DOTALL);
-    private static final Pattern GAME_TIME_PATTERN = Pattern.compile("\"GameTime\"\\s*:\\s*\"([^\"]+)\"");
-    private static final Pattern PATCH_LINE_PATTERN = Pattern.compile("\"CreatedWithPatchline\"\\s*:\\s*\"([^\"]+)\"");
+    private static final int DEFAULT_LOCAL_SCAN_CONCURRENCY = 16;
+
+    private final SshSessionPool sessionPool;
+    private final boolean useExecScan;
+    private final RemoteWorldCacheStore cacheStore;
+    private final RemotePreviewCache previewCache;
+    private final Set<SshSessionPool.SessionKey> execScanUnsupported = ConcurrentHashMap.newKeySet();
+    private final Map<Path, LocalWorldIndex> localIndexes = new ConcurrentHashMap<>();
+    private int localScanConcurrency = DEFAULT_LOCAL_SCAN_CONCURRENCY;
+
+    public StubWorldService() {
+        this(SshSessionPool.shared(), true, new RemoteWorldCacheStore());
+    }
+
+    StubWorldService(SshSessionPool sessionPool) {
+        this(sessionPool, true, null);
+    }
+
+    StubWorldService(SshSessionPool sessionPool, boolean useExecScan) {
+        this(sessionPool, useExecScan, null);
+    }
+
+    StubWorldService(SshSessionPool sessionPool, boolean useExecScan, RemoteWorldCacheStore cacheStore) {
+        this(sessionPool, useExecScan, cacheStore, new RemotePreviewCache());
+    }
+
+    StubWorldService(
+            SshSessionPool sessionPool,
+            boolean useExecScan,
+            RemoteWorldCacheStore cacheStore,
+            RemotePreviewCache previewCache) {
+        this.sessionPool = sessionPool;
+        this.useExecScan = useExecScan;
+        this.cacheStore = cacheStore;
+        this.previewCache = previewCache;
+    }
 
     @Override
     public List<WorldEntry> listLocalWorlds(String localWorldsPath) {
@@ -40,20 +84,121 @@ public class StubWorldService implements WorldService {
             return Collections.emptyList();
         }
 
-        try (Stream<Path> worldDirs = Files.list(worldsRoot)) {
-            return worldDirs
-                    .filter(Files::isDirectory)
-                    .map(this::toWorldEntry)
-                    .filter(entry -> entry != null)
-                    .sorted((left, right) -> right.getLastModified().compareTo(left.getLastModified()))
-                    .collect(Collectors.toList());
+        LocalWorldIndex index = localIndexes.get(worldsRoot.toAbsolutePath().normalize());
+        if (index != null && index.isOpen()) {
+            return index.snapshot();
+        }
+        return scanLocalWorlds(worldsRoot);
+    }
+
+    @Override
+    public List<WorldEntry> rescanLocalWorlds(String localWorldsPath) {
+        if (localWorldsPath == null || localWorldsPath.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        Path worldsRoot = Paths.get(localWorldsPath);
+        if (!Files.isDirectory(worldsRoot)) {
+            return Collections.emptyList();
+        }
+
+        List<WorldEntry> worlds = scanLocalWorlds(worldsRoot);
+        LocalWorldIndex index = localIndexes.get(worldsRoot.toAbsolutePath().normalize());
+        if (index != null && index.isOpen()) {
+            index.reseed(worlds);
+        }
+        return worlds;
+    }
+
+    private List<WorldEntry> scanLocalWorlds(Path worldsRoot) {
+        List<Path> worldDirs;
+        try (Stream<Path> entries = Files.list(worldsRoot)) {
+            worldDirs = entries.collect(Collectors.toList());
+        } catch (IOException exception) {
+            return Collections.emptyList();
+        }
+
+        List<WorldEntry> result = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Semaphore permits = new Semaphore(localScanConcurrency);
+            List<Future<WorldEntry>> pending = new ArrayList<>(worldDirs.size());
+            for (Path worldDir : worldDirs) {
+                pending.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return toWorldEntry(worldDir);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<WorldEntry> future : pending) {
+                try {
+                    WorldEntry entry = future.get();
+                    if (entry != null) {
+                        result.add(entry);
+                    }
+                } catch (ExecutionException ignored) {
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return Collections.emptyList();
+                }
+            }
+        }
+        result.sort((left, right) -> right.getLastModified().compareTo(left.getLastModified()));
+        return result;
+    }
+
+    @Override
+    public AutoCloseable watchLocalWorlds(String localWorldsPath, LocalWorldListener listener) {
+        if (localWorldsPath == null || localWorldsPath.isBlank() || listener == null) {
+            return () -> {
+            };
+        }
+        Path worldsRoot = Paths.get(localWorldsPath).toAbsolutePath().normalize();
+        if (!Files.isDirectory(worldsRoot)) {
+            return () -> {
+            };
+        }
+
+        LocalWorldIndex index;
+        try {
+            index = LocalWorldIndex.open(worldsRoot, this::toWorldEntry, listener);
         } catch (IOException exception) {
+            return () -> {
+            };
+        }
+        index.reseed(scanLocalWorlds(worldsRoot));
+        LocalWorldIndex previous = localIndexes.put(worldsRoot, index);
+        if (previous != null) {
+            previous.close();
+        }
+        return () -> {
+            index.close();
+            localIndexes.remove(worldsRoot, index);
+        };
+    }
+
+    void setLocalScanConcurrency(int localScanConcurrency) {
+        this.localScanConcurrency = Math.max(1, localScanConcurrency);
+    }
+
+    @Override
+    public List<WorldEntry> listCachedRemoteWorlds(RemoteProfile profile) {
+        if (cacheStore == null || profile == null) {
             return Collections.emptyList();
         }
+        return sortedWorlds(cacheStore.load(profile));
     }
 
     @Override
     public List<WorldEntry> listRemoteWorlds(RemoteProfile profile) {
+        return listRemoteWorlds(profile, world -> {
+        });
+    }
+
+    @Override
+    public List<WorldEntry> listRemoteWorlds(RemoteProfile profile, Consumer<WorldEntry> sink) {
         if (profile == null || profile.getHost() == null || profile.getHost().isBlank()) {
             return Collections.emptyList();
         }
@@ -63,199 +208,350 @@ public class StubWorldService implements WorldService {
             return Collections.emptyList();
         }
 
-        Session session = null;
-        ChannelSftp channel = null;
+        List<CachedWorld> cached = cacheStore == null ? List.of() : cacheStore.load(profile);
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            List<CachedWorld> current = null;
+            if (useExecScan) {
+                current = listRemoteWorldsWithExec(lease, profile, cached, sink);
+            }
+            if (current == null) {
+                current = listRemoteWorldsWithSftp(lease.openSftpChannel(), profile, cached, sink);
+            }
+            if (cacheStore != null) {
+                cacheStore.save(profile, current);
+            }
+            return sortedWorlds(current);
+        } catch (Exception exception) {
+            return Collections.emptyList();
+        }
+    }
+
+    private List<CachedWorld> listRemoteWorldsWithExec(
+            SshSessionPool.Lease lease,
+            RemoteProfile profile,
+            List<CachedWorld> cached,
+            Consumer<WorldEntry> sink) {
+        SshSessionPool.SessionKey key = SshSessionPool.SessionKey.of(profile);
+        if (execScanUnsupported.contains(key)) {
+            return null;
+        }
         try {
-            session = SshSessionFactory.createConnectedSession(profile);
-            channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(15000);
-
-            List<WorldEntry> result = new ArrayList<>();
-            @SuppressWarnings("unchecked")
-            List<ChannelSftp.LsEntry> entries = channel.ls(remoteBasePath);
-            for (ChannelSftp.LsEntry entry : entries) {
-                if (!entry.getAttrs().isDir()) {
-                    continue;
+            Map<String, CachedWorld> reread = new HashMap<>();
+            Consumer<RemoteWorldScanner.ScannedWorld> publish = world -> {
+                CachedWorld fresh = toCachedWorld(profile, world);
+                reread.put(world.name(), fresh);
+                sink.accept(fresh.world());
+            };
+            if (cached.isEmpty()) {
+                List<RemoteWorldScanner.ScannedWorld> scanned =
+                        RemoteWorldScanner.scan(lease.session(), profile.getRemoteBasePath(), null, publish);
+                if (scanned == null) {
+                    execScanUnsupported.add(key);
+                    return null;
                 }
-                String name = entry.getFilename();
-                if (".".equals(name) || "..".equals(name)) {
-                    continue;
+                List<CachedWorld> result = new ArrayList<>();
+                for (RemoteWorldScanner.ScannedWorld world : scanned) {
+                    result.add(reread.get(world.name()));
                 }
+                return result;
+            }
 
-                String worldPath = remoteBasePath + "/" + name;
-                String configPath = worldPath + "/universe/worlds/default/config.json";
-                String metadataPath = worldPath + "/client_metadata.json";
-                String displayName = readRemoteValue(channel, configPath, DISPLAY_NAME_PATTERN, name);
-                String gameMode = readRemoteValue(channel, configPath, GAME_MODE_PATTERN, "Unknown");
-                String uuidBinary = readRemoteValue(channel, configPath, UUID_BINARY_PATTERN, null);
-                String gameTime = readRemoteValue(channel, configPath, GAME_TIME_PATTERN, null);
-                String patchLine = readRemoteValue(channel, metadataPath, PATCH_LINE_PATTERN, "Unknown");
-
-                Instant lastPlayed;
-                try {
-                    SftpATTRS attrs = channel.stat(configPath);
-                    lastPlayed = Instant.ofEpochSecond(attrs.getMTime());
-                } catch (Exception ignored) {
-                    lastPlayed = Instant.ofEpochSecond(entry.getAttrs().getMTime());
+            List<RemoteWorldScanner.ScannedWorld> listed =
+                    RemoteWorldScanner.stat(lease.session(), profile.getRemoteBasePath());
+            if (listed == null) {
+                execScanUnsupported.add(key);
+                return null;
+            }
+            Map<String, CachedWorld> cachedById = indexById(cached);
+            Set<String> changed = new HashSet<>();
+            for (RemoteWorldScanner.ScannedWorld world : listed) {
+                CachedWorld known = cachedById.get(world.name());
+                if (known == null || !known.matches(world.configStamp(), world.clientMetadataStamp())) {
+                    changed.add(world.name());
+                } else {
+                    sink.accept(known.world());
+                }
+            }
+            if (!changed.isEmpty()) {
+                List<RemoteWorldScanner.ScannedWorld> scanned =
+                        RemoteWorldScanner.scan(lease.session(), profile.getRemoteBasePath(), changed, publish);
+                if (scanned == null) {
+                    execScanUnsupported.add(key);
+                    return null;
                 }
-
-                result.add(new WorldEntry(
-                        name,
-                        displayName,
-                        worldPath,
-                        previewCacheFile(profile, new WorldEntry(name, displayName, worldPath, null, null, null, lastPlayed)).toString(),
-                        gameMode,
-                        patchLine,
-                        lastPlayed
-                ));
-                WorldEntry added = result.get(result.size() - 1);
-                added.setUuidBinary(uuidBinary);
-                added.setGameTimeIso(gameTime);
             }
 
-            result.sort((left, right) -> right.getLastModified().compareTo(left.getLastModified()));
+            List<CachedWorld> result = new ArrayList<>();
+            for (RemoteWorldScanner.ScannedWorld world : listed) {
+                CachedWorld current = changed.contains(world.name())
+                        ? reread.get(world.name())
+                        : cachedById.get(world.name());
+                if (current != null) {
+                    result.add(current);
+                }
+            }
             return result;
+        } catch (JSchException exception) {
+            execScanUnsupported.add(key);
+            return null;
         } catch (Exception exception) {
-            return Collections.emptyList();
-        } finally {
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
+            return null;
+        }
+    }
+
+    private List<CachedWorld> listRemoteWorldsWithSftp(
+            ChannelSftp channel,
+            RemoteProfile profile,
+            List<CachedWorld> cached,
+            Consumer<WorldEntry> sink) throws Exception {
+        String remoteBasePath = profile.getRemoteBasePath();
+        Map<String, CachedWorld> cachedById = indexById(cached);
+        List<CachedWorld> result = new ArrayList<>();
+        @SuppressWarnings("unchecked")
+        List<ChannelSftp.LsEntry> entries = channel.ls(remoteBasePath);
+        for (ChannelSftp.LsEntry entry : entries) {
+            if (!entry.getAttrs().isDir()) {
+                continue;
+            }
+            String name = entry.getFilename();
+            if (".".equals(name) || "..".equals(name)) {
+                continue;
             }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
+
+            String worldPath = remoteBasePath + "/" + name;
+            String configPath = worldPath + "/" + WorldMetadataReader.CONFIG_RELATIVE_PATH;
+            String clientMetadataPath = worldPath + "/" + WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH;
+            FileStamp configStamp = remoteStamp(channel, configPath);
+            FileStamp clientMetadataStamp = remoteStamp(channel, clientMetadataPath);
+            CachedWorld known = cachedById.get(name);
+            if (known != null && known.matches(configStamp, clientMetadataStamp)) {
+                result.add(known);
+                sink.accept(known.world());
+                continue;
             }
+
+            WorldMetadataReader.WorldMetadata metadata = WorldMetadataReader.parse(
+                    configStamp == null ? null : WorldMetadataReader.readRemoteText(channel, configPath),
+                    clientMetadataStamp == null ? null : WorldMetadataReader.readRemoteText(channel, clientMetadataPath),
+                    configStamp != null
+                            ? Instant.ofEpochSecond(configStamp.modifiedSeconds())
+                            : Instant.ofEpochSecond(entry.getAttrs().getMTime()));
+            CachedWorld fresh = new CachedWorld(toRemoteWorldEntry(profile, name, metadata), configStamp, clientMetadataStamp);
+            result.add(fresh);
+            sink.accept(fresh.world());
         }
+        return result;
     }
 
-    private WorldEntry toWorldEntry(Path worldDirectory) {
-        Path worldConfig = worldDirectory.resolve("universe/worlds/default/config.json");
-        if (!Files.exists(worldConfig)) {
+    private CachedWorld toCachedWorld(RemoteProfile profile, RemoteWorldScanner.ScannedWorld world) {
+        return new CachedWorld(
+                toRemoteWorldEntry(profile, world.name(), world.metadata()),
+                world.configStamp(),
+                world.clientMetadataStamp());
+    }
+
+    private WorldEntry toRemoteWorldEntry(RemoteProfile profile, String name, WorldMetadataReader.WorldMetadata metadata) {
+        String worldPath = profile.getRemoteBasePath() + "/" + name;
+        String displayName = metadata.displayName() != null ? metadata.displayName() : name;
+        Instant lastPlayed = metadata.lastModified();
+
+        WorldEntry world = new WorldEntry(
+                name,
+                displayName,
+                worldPath,
+                previewCacheFile(profile, new WorldEntry(name, displayName, worldPath, null, null, null, lastPlayed)).toString(),
+                valueOrUnknown(metadata.gameMode()),
+                valueOrUnknown(metadata.patchLine()),
+                lastPlayed
+        );
+        world.setUuidBinary(metadata.uuidBinary());
+        world.setGameTimeIso(metadata.gameTime());
+        return world;
+    }
+
+    private static FileStamp remoteStamp(ChannelSftp channel, String remotePath) {
+        try {
+            SftpATTRS attrs = channel.stat(remotePath);
+            return attrs.isReg() ? new FileStamp(attrs.getMTime(), attrs.getSize()) : null;
+        } catch (Exception exception) {
             return null;
         }
+    }
+
+    private static Map<String, CachedWorld> indexById(List<CachedWorld> worlds) {
+        Map<String, CachedWorld> byId = new HashMap<>();
+        for (CachedWorld world : worlds) {
+            byId.put(world.world().getId(), world);
+        }
+        return byId;
+    }
 
-        String name = readDisplayName(worldConfig);
-        String gameMode = readValue(worldConfig, GAME_MODE_PATTERN, "Unknown");
-        String uuidBinary = readValue(worldConfig, UUID_BINARY_PATTERN, null);
-        String gameTime = readValue(worldConfig, GAME_TIME_PATTERN, null);
+    private static List<WorldEntry> sortedWorlds(List<CachedWorld> worlds) {
+        List<WorldEntry> result = new ArrayList<>(worlds.size());
+        for (CachedWorld world : worlds) {
+            result.add(world.world());
+        }
+        result.sort((left, right) -> right.getLastModified().compareTo(left.getLastModified()));
+        return result;
+    }
+
+    private WorldEntry toWorldEntry(Path worldDirectory) {
+        Path worldConfig = worldDirectory.resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH);
+        BasicFileAttributes configAttributes;
+        try {
+            configAttributes = Files.readAttributes(worldConfig, BasicFileAttributes.class);
+        } catch (IOException exception) {
+            return null;
+        }
 
-        Path clientMetadata = worldDirectory.resolve("client_metadata.json");
-        String patchLine = readValue(clientMetadata, PATCH_LINE_PATTERN, "Unknown");
+        WorldMetadataReader.WorldMetadata metadata = WorldMetadataReader.readLocal(
+                worldDirectory,
+                configAttributes.lastModifiedTime().toInstant());
+        String name = metadata.displayName() != null
+                ? metadata.displayName()
+                : worldDirectory.getFileName().toString();
 
         String previewImagePath = null;
-        Path previewFile = worldDirectory.resolve("preview.png");
+        Path previewFile = worldDirectory.resolve(LocalWorldIndex.PREVIEW_RELATIVE_PATH);
         if (Files.exists(previewFile)) {
             previewImagePath = previewFile.toString();
         }
 
-        Instant lastPlayed = readLastPlayed(worldConfig);
         WorldEntry localWorld = new WorldEntry(
                 worldDirectory.getFileName().toString(),
                 name,
                 worldDirectory.toString(),
                 previewImagePath,
-                gameMode,
-                patchLine,
-                lastPlayed
+                valueOrUnknown(metadata.gameMode()),
+                valueOrUnknown(metadata.patchLine()),
+                metadata.lastModified()
         );
-        localWorld.setUuidBinary(uuidBinary);
-        localWorld.setGameTimeIso(gameTime);
+        localWorld.setUuidBinary(metadata.uuidBinary());
+        localWorld.setGameTimeIso(metadata.gameTime());
         return localWorld;
     }
 
-    private String readDisplayName(Path worldConfig) {
-        String value = readValue(worldConfig, DISPLAY_NAME_PATTERN, null);
-        if (value != null) {
-            return value;
-        }
-        return worldConfig.getParent().getParent().getParent().getFileName().toString();
+    private static String valueOrUnknown(String value) {
+        return value != null ? value : "Unknown";
     }
 
-    private Instant readLastPlayed(Path worldConfig) {
-        try {
-            FileTime lastModifiedTime = Files.getLastModifiedTime(worldConfig);
-            return lastModifiedTime.toInstant();
-        } catch (IOException exception) {
-            return Instant.EPOCH;
+    @Override
+    public String downloadRemotePreview(WorldEntry world, RemoteProfile profile) {
+        if (world == null || profile == null || world.getPath() == null || world.getPath().isBlank()) {
+            return null;
+        }
+
+        String host = previewHost(profile);
+        String worldId = previewWorldId(world);
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            return downloadPreviewWithSftp(lease.openSftpChannel(), host, world);
+        } catch (Exception exception) {
+            Path cached = previewCache.lookup(host, worldId, null);
+            return cached == null ? null : cached.toString();
         }
     }
 
-    private String readValue(Path file, Pattern pattern, String fallback) {
-        if (file == null || !Files.exists(file)) {
-            return fallback;
+    @Override
+    public Map<String, String> downloadRemotePreviews(List<WorldEntry> worlds, RemoteProfile profile) {
+        Map<String, String> previews = new HashMap<>();
+        if (worlds == null || profile == null || profile.getHost() == null || profile.getHost().isBlank()) {
+            return previews;
         }
-        try {
-            String json = Files.readString(file, StandardCharsets.UTF_8);
-            Matcher matcher = pattern.matcher(json);
-            if (matcher.find()) {
-                return matcher.group(1);
+
+        String host = previewHost(profile);
+        String remoteBasePath = profile.getRemoteBasePath();
+        Map<String, FileStamp> knownStamps = new LinkedHashMap<>();
+        List<WorldEntry> pending = new ArrayList<>();
+        for (WorldEntry world : worlds) {
+            if (world == null || world.getPath() == null || world.getPath().isBlank()) {
+                continue;
+            }
+            String worldId = previewWorldId(world);
+            if (remoteBasePath != null && world.getPath().equals(remoteBasePath + "/" + worldId)) {
+                knownStamps.put(worldId, previewCache.cachedStamp(host, worldId));
             }
-        } catch (IOException ignored) {
+            pending.add(world);
         }
-        return fallback;
-    }
 
-    private String readRemoteValue(ChannelSftp channel, String remoteFile, Pattern pattern, String fallback) {
-        try (var inputStream = channel.get(remoteFile)) {
-            String text = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-            Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                return matcher.group(1);
+        try (SshSessionPool.Lease lease = sessionPool.borrow(profile)) {
+            if (useExecScan && fetchPreviewsWithExec(lease, profile, host, knownStamps)) {
+                pending.removeIf(world -> knownStamps.containsKey(previewWorldId(world)));
+            }
+            ChannelSftp channel = pending.isEmpty() ? null : lease.openSftpChannel();
+            for (WorldEntry world : pending) {
+                String preview = downloadPreviewWithSftp(channel, host, world);
+                if (preview != null) {
+                    previews.put(world.getId(), preview);
+                }
             }
         } catch (Exception ignored) {
         }
-        return fallback;
-    }
-
-    @Override
-    public String downloadRemotePreview(WorldEntry world, RemoteProfile profile) {
-        if (world == null || profile == null || world.getPath() == null || world.getPath().isBlank()) {
-            return null;
-        }
 
-        Path cacheFile = previewCacheFile(profile, world);
-        try {
-            if (Files.exists(cacheFile) && Files.size(cacheFile) > 0) {
-                return cacheFile.toString();
+        for (WorldEntry world : worlds) {
+            if (world != null && world.getId() != null && !previews.containsKey(world.getId())) {
+                Path cached = previewCache.lookup(host, previewWorldId(world), null);
+                if (cached != null) {
+                    previews.put(world.getId(), cached.toString());
+                }
             }
-        } catch (IOException ignored) {
         }
+        return previews;
+    }
 
-        Session session = null;
-        ChannelSftp channel = null;
+    private boolean fetchPreviewsWithExec(
+            SshSessionPool.Lease lease,
+            RemoteProfile profile,
+            String host,
+            Map<String, FileStamp> knownStamps) {
+        SshSessionPool.SessionKey key = SshSessionPool.SessionKey.of(profile);
+        if (knownStamps.isEmpty() || execScanUnsupported.contains(key)) {
+            return false;
+        }
         try {
-            Files.createDirectories(cacheFile.getParent());
-            session = SshSessionFactory.createConnectedSession(profile);
-            channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(15000);
-
-            String remotePreview = world.getPath() + "/preview.png";
-            channel.get(remotePreview, cacheFile.toString());
-
-            if (Files.exists(cacheFile) && Files.size(cacheFile) > 0) {
-                return cacheFile.toString();
+            boolean supported = RemotePreviewFetcher.fetch(
+                    lease.session(),
+                    profile.getRemoteBasePath(),
+                    knownStamps,
+                    (worldName, remoteStamp, content) -> previewCache.store(
+                            host, worldName, remoteStamp, outputStream -> outputStream.write(content)));
+            if (!supported) {
+                execScanUnsupported.add(key);
             }
-            return null;
+            return supported;
+        } catch (JSchException exception) {
+            execScanUnsupported.add(key);
+            return false;
         } catch (Exception exception) {
+            return false;
+        }
+    }
+
+    private String downloadPreviewWithSftp(ChannelSftp channel, String host, WorldEntry world) throws IOException {
+        String worldId = previewWorldId(world);
+        String remotePreview = world.getPath() + "/" + LocalWorldIndex.PREVIEW_RELATIVE_PATH;
+        FileStamp remoteStamp = remoteStamp(channel, remotePreview);
+        if (remoteStamp == null || remoteStamp.size() == 0) {
+            previewCache.invalidate(host, worldId);
             return null;
-        } finally {
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
-            }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
-            }
         }
+
+        Path cached = previewCache.lookup(host, worldId, remoteStamp);
+        if (cached != null) {
+            return cached.toString();
+        }
+        return previewCache.store(host, worldId, remoteStamp,
+                outputStream -> channel.get(remotePreview, outputStream)).toString();
     }
 
     Path previewCacheFile(RemoteProfile profile, WorldEntry world) {
-        String host = profile != null && profile.getHost() != null && !profile.getHost().isBlank() ? profile.getHost() : "unknown-host";
-        String worldId = world != null && world.getId() != null && !world.getId().isBlank() ? world.getId() : "unknown-world";
+        return previewCache.file(previewHost(profile), previewWorldId(world));
+    }
 
-        Path cacheDir = Paths.get(System.getProperty("java.io.tmpdir"), "world-portal", "remote-previews", sanitize(host));
-        return cacheDir.resolve(sanitize(worldId) + ".png");
+    private static String previewHost(RemoteProfile profile) {
+        return profile != null && profile.getHost() != null && !profile.getHost().isBlank() ? profile.getHost() : "unknown-host";
     }
 
-    private String sanitize(String raw) {
-        return raw.replaceAll("[^a-zA-Z0-9._-]", "_");
+    private static String previewWorldId(WorldEntry world) {
+        return world != null && world.getId() != null && !world.getId().isBlank() ? world.getId() : "unknown-world";
     }
 }
@@ -0,0 +1,370 @@
+package io.worldportal.app.service.impl;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+final class TarStreams {
+    static final int BLOCK_SIZE = 512;
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+    private static final int NAME_LENGTH = 100;
+    private static final String LONG_LINK_NAME = "././@LongLink";
+    private static final byte[] ZERO_BLOCK = new byte[BLOCK_SIZE];
+
+    private TarStreams() {
+    }
+
+    static void read(InputStream stream, EntryVisitor visitor) throws IOException {
+        InputStream input = new BufferedInputStream(stream);
+        String longName = null;
+        String paxPath = null;
+        Long paxModified = null;
+        byte[] header = new byte[BLOCK_SIZE];
+        while (true) {
+            int read = input.readNBytes(header, 0, BLOCK_SIZE);
+            if (read == 0 || (read == BLOCK_SIZE && isZeroBlock(header))) {
+                return;
+            }
+            if (read != BLOCK_SIZE) {
+                throw new EOFException("Tar archive ended inside a header.");
+            }
+            verifyChecksum(header);
+
+            long size = parseNumber(header, 124, 12);
+            long modifiedSeconds = parseNumber(header, 136, 12);
+            int mode = (int) parseNumber(header, 100, 8);
+            byte type = header[156];
+            switch (type) {
+                case 'L' -> {
+                    longName = trimNul(new String(readHeaderPayload(input, size), StandardCharsets.UTF_8));
+                    continue;
+                }
+                case 'x' -> {
+                    Map<String, String> records = parsePax(readHeaderPayload(input, size));
+                    paxPath = records.get("path");
+                    String mtime = records.get("mtime");
+                    if (mtime != null) {
+                        int dot = mtime.indexOf('.');
+                        try {
+                            paxModified = Long.parseLong(dot < 0 ? mtime : mtime.substring(0, dot));
+                        } catch (NumberFormatException exception) {
+                            throw new IOException("Malformed pax mtime.", exception);
+                        }
+                    }
+                    continue;
+                }
+                case 'g' -> {
+                    skipFully(input, size + padding(size));
+                    continue;
+                }
+                default -> {
+                }
+            }
+
+            String name = paxPath != null ? paxPath : longName != null ? longName : headerName(header);
+            if (paxModified != null) {
+                modifiedSeconds = paxModified;
+            }
+            longName = null;
+            paxPath = null;
+            paxModified = null;
+
+            EntryStream payload = new EntryStream(input, size);
+            visitor.visit(new Entry(name, type, size, modifiedSeconds, mode), payload);
+            skipFully(input, payload.remaining + padding(size));
+        }
+    }
+
+    private static String headerName(byte[] header) {
+        String name = field(header, 0, NAME_LENGTH);
+        String magic = field(header, 257, 6);
+        if (magic.startsWith("ustar")) {
+            String prefix = field(header, 345, 155);
+            if (!prefix.isEmpty()) {
+                return prefix + "/" + name;
+            }
+        }
+        return name;
+    }
+
+    private static Map<String, String> parsePax(byte[] payload) throws IOException {
+        Map<String, String> records = new HashMap<>();
+        int offset = 0;
+        while (offset < payload.length) {
+            int space = offset;
+            while (space < payload.length && payload[space] != ' ') {
+                space++;
+            }
+            if (space == payload.length) {
+                throw new IOException("Malformed pax header.");
+            }
+            int length;
+            try {
+                length = Integer.parseInt(new String(payload, offset, space - offset, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException exception) {
+                throw new IOException("Malformed pax header.", exception);
+            }
+            if (offset + length <= space + 1 || offset + length > payload.length) {
+                throw new IOException("Malformed pax header.");
+            }
+            String record = new String(payload, space + 1, offset + length - space - 2, StandardCharsets.UTF_8);
+            int equals = record.indexOf('=');
+            if (equals > 0) {
+                records.put(record.substring(0, equals), record.substring(equals + 1));
+            }
+            offset += length;
+        }
+        return records;
+    }
+
+    private static byte[] readHeaderPayload(InputStream input, long size) throws IOException {
+        if (size > MAX_HEADER_BYTES) {
+            throw new IOException("Tar extension header too large: " + size);
+        }
+        byte[] payload = input.readNBytes((int) size);
+        if (payload.length != size) {
+            throw new EOFException("Tar archive ended inside an entry.");
+        }
+        skipFully(input, padding(size));
+        return payload;
+    }
+
+    private static void skipFully(InputStream input, long bytes) throws IOException {
+        try {
+            input.skipNBytes(bytes);
+        } catch (EOFException exception) {
+            throw new EOFException("Tar archive ended inside an entry.");
+        }
+    }
+
+    private static long padding(long size) {
+        return (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+    }
+
+    private static void verifyChecksum(byte[] header) throws IOException {
+        long expected = parseNumber(header, 148, 8);
+        if (expected != checksum(header)) {
+            throw new IOException("Tar archive header checksum mismatch.");
+        }
+    }
+
+    private static long checksum(byte[] header) {
+        long sum = 0;
+        for (int index = 0; index < BLOCK_SIZE; index++) {
+            sum += index >= 148 && index < 156 ? ' ' : header[index] & 0xff;
+        }
+        return sum;
+    }
+
+    private static long parseNumber(byte[] header, int offset, int length) throws IOException {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7f;
+            for (int index = offset + 1; index < offset + length; index++) {
+                value = (value << 8) | (header[index] & 0xff);
+            }
+            return value;
+        }
+        long value = 0;
+        boolean digits = false;
+        for (int index = offset; index < offset + length; index++) {
+            byte next = header[index];
+            if (next == 0 || (next == ' ' && digits)) {
+                break;
+            }
+            if (next == ' ') {
+                continue;
+            }
+            if (next < '0' || next > '7') {
+                throw new IOException("Malformed number in tar archive header.");
+            }
+            value = (value << 3) | (next - '0');
+            digits = true;
+        }
+        return value;
+    }
+
+    private static String field(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static String trimNul(String value) {
+        int nul = value.indexOf('\0');
+        return nul < 0 ? value : value.substring(0, nul);
+    }
+
+    private static boolean isZeroBlock(byte[] block) {
+        for (byte value : block) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    record Entry(String name, byte type, long size, long modifiedSeconds, int mode) {
+        boolean isFile() {
+            return type == '0' || type == 0 || type == '7';
+        }
+
+        boolean isDirectory() {
+            return type == '5';
+        }
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor {
+        void visit(Entry entry, InputStream payload) throws IOException;
+    }
+
+    static final class Writer {
+        private final OutputStream output;
+        private final byte[] buffer = new byte[64 * 1024];
+
+        Writer(OutputStream output) {
+            this.output = output;
+        }
+
+        void putFile(String name, Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            byte[] encodedName = name.getBytes(StandardCharsets.UTF_8);
+            if (encodedName.length > NAME_LENGTH) {
+                byte[] longName = Arrays.copyOf(encodedName, encodedName.length + 1);
+                writeHeader(LONG_LINK_NAME.getBytes(StandardCharsets.UTF_8), longName.length, 0L, 0644, (byte) 'L');
+                output.write(longName);
+                pad(longName.length);
+            }
+            writeHeader(encodedName, size, attributes.lastModifiedTime().toMillis() / 1000L, mode(file), (byte) '0');
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                long remaining = size;
+                while (remaining > 0) {
+                    int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        throw new IOException("File shrank while archiving: " + file);
+                    }
+                    output.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+            pad(size);
+        }
+
+        void finish() throws IOException {
+            output.write(ZERO_BLOCK);
+            output.write(ZERO_BLOCK);
+            output.flush();
+        }
+
+        private void writeHeader(byte[] name, long size, long modifiedSeconds, int mode, byte type)
+                throws IOException {
+            byte[] header = new byte[BLOCK_SIZE];
+            System.arraycopy(name, 0, header, 0, Math.min(name.length, NAME_LENGTH));
+            writeNumber(header, 100, 8, mode);
+            writeNumber(header, 108, 8, 0);
+            writeNumber(header, 116, 8, 0);
+            writeNumber(header, 124, 12, size);
+            writeNumber(header, 136, 12, Math.max(0L, modifiedSeconds));
+            header[156] = type;
+            System.arraycopy("ustar\0".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 6);
+            header[263] = '0';
+            header[264] = '0';
+            String checksum = String.format("%06o", checksum(header));
+            System.arraycopy(checksum.getBytes(StandardCharsets.US_ASCII), 0, header, 148, 6);
+            header[154] = 0;
+            header[155] = ' ';
+            output.write(header);
+        }
+
+        private void pad(long size) throws IOException {
+            output.write(ZERO_BLOCK, 0, (int) padding(size));
+        }
+
+        private static void writeNumber(byte[] header, int offset, int length, long value) {
+            String octal = Long.toOctalString(value);
+            if (octal.length() < length) {
+                String padded = "0".repeat(length - 1 - octal.length()) + octal;
+                System.arraycopy(padded.getBytes(StandardCharsets.US_ASCII), 0, header, offset, length - 1);
+                return;
+            }
+            long remaining = value;
+            for (int index = offset + length - 1; index > offset; index--) {
+                header[index] = (byte) remaining;
+                remaining >>>= 8;
+            }
+            header[offset] = (byte) 0x80;
+        }
+
+        private static int mode(Path file) {
+            try {
+                Set<PosixFilePermission> permissions =
+                        Files.readAttributes(file, PosixFileAttributes.class).permissions();
+                int mode = 0;
+                for (PosixFilePermission permission : permissions) {
+                    mode |= 1 << (8 - permission.ordinal());
+                }
+                return mode;
+            } catch (UnsupportedOperationException | IOException exception) {
+                return 0644;
+            }
+        }
+    }
+
+    private static final class EntryStream extends InputStream {
+        private final InputStream input;
+        private long remaining;
+
+        private EntryStream(InputStream input, long size) {
+            this.input = input;
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int value = input.read();
+            if (value < 0) {
+                throw new EOFException("Tar archive ended inside an entry.");
+            }
+            remaining--;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = input.read(target, offset, (int) Math.min(length, remaining));
+            if (read < 0) {
+                throw new EOFException("Tar archive ended inside an entry.");
+            }
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
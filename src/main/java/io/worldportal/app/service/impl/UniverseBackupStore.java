@@ -0,0 +1,282 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+final class UniverseBackupStore {
+    static final int PIECE_SIZE = 1024 * 1024;
+    static final int DEFAULT_RETAINED_BACKUPS = 10;
+    private static final String MANIFEST_DIRECTORY = "manifests";
+    private static final String OBJECT_DIRECTORY = "objects";
+    private static final String MANIFEST_SUFFIX = ".properties";
+    private static final String KEY_COUNT = "count";
+
+    private final Path backupDirectory;
+
+    UniverseBackupStore(Path backupDirectory) {
+        this.backupDirectory = backupDirectory;
+    }
+
+    Path backup(Path universeDirectory, Set<String> rootFiles, Set<String> rootDirectories, String backupId)
+            throws IOException {
+        Map<String, FileStamp> files = WorldManifest.scanLocal(universeDirectory, rootFiles, rootDirectories).files();
+        List<String> existing = backups();
+        Map<String, BackedUpFile> previous = Map.of();
+        if (!existing.isEmpty()) {
+            try {
+                previous = readManifest(existing.get(existing.size() - 1));
+            } catch (IOException ignored) {
+            }
+        }
+
+        Map<String, BackedUpFile> backedUp = new LinkedHashMap<>();
+        for (Map.Entry<String, FileStamp> file : files.entrySet()) {
+            BackedUpFile known = previous.get(file.getKey());
+            if (known != null && known.stamp().equals(file.getValue()) && objectsExist(known.pieces())) {
+                backedUp.put(file.getKey(), known);
+            } else {
+                Path source = universeDirectory.resolve(file.getKey());
+                backedUp.put(file.getKey(), new BackedUpFile(file.getValue(), storePieces(source)));
+            }
+        }
+
+        Files.createDirectories(backupDirectory.resolve(MANIFEST_DIRECTORY));
+        String uniqueId = StubTransferService.resolveUniqueName(
+                backupId, name -> Files.exists(manifestFile(name)));
+        Path manifest = manifestFile(uniqueId);
+        writeManifest(manifest, backedUp);
+        return manifest;
+    }
+
+    List<String> backups() throws IOException {
+        Path manifests = backupDirectory.resolve(MANIFEST_DIRECTORY);
+        if (!Files.isDirectory(manifests)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(manifests)) {
+            return paths.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(MANIFEST_SUFFIX))
+                    .map(name -> name.substring(0, name.length() - MANIFEST_SUFFIX.length()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    void restore(String backupId, Path targetDirectory) throws IOException {
+        Path root = targetDirectory.toAbsolutePath().normalize();
+        for (Map.Entry<String, BackedUpFile> file : readManifest(backupId).entrySet()) {
+            Path target = root.resolve(file.getKey()).normalize();
+            if (!target.startsWith(root) || target.equals(root)) {
+                throw new IOException("Backup entry escapes the restore directory: " + file.getKey());
+            }
+            Files.createDirectories(target.getParent());
+            Path tempFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".restore");
+            try {
+                try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                    for (String piece : file.getValue().pieces()) {
+                        byte[] content = Files.readAllBytes(objectFile(piece));
+                        if (!piece.equals(sha256(content))) {
+                            throw new IOException("Backup object is damaged: " + piece);
+                        }
+                        outputStream.write(content);
+                    }
+                }
+                Files.setLastModifiedTime(
+                        tempFile, FileTime.from(file.getValue().stamp().modifiedSeconds(), TimeUnit.SECONDS));
+                move(tempFile, target);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+
+    List<String> verify(String backupId) throws IOException {
+        Set<String> damagedPieces = new HashSet<>();
+        Set<String> checkedPieces = new HashSet<>();
+        List<String> damagedFiles = new ArrayList<>();
+        for (Map.Entry<String, BackedUpFile> file : readManifest(backupId).entrySet()) {
+            boolean damaged = false;
+            long size = 0L;
+            for (String piece : file.getValue().pieces()) {
+                Path objectFile = objectFile(piece);
+                if (checkedPieces.add(piece)) {
+                    try {
+                        if (!piece.equals(sha256(Files.readAllBytes(objectFile)))) {
+                            damagedPieces.add(piece);
+                        }
+                    } catch (IOException exception) {
+                        damagedPieces.add(piece);
+                    }
+                }
+                damaged |= damagedPieces.contains(piece);
+                size += damagedPieces.contains(piece) ? 0L : Files.size(objectFile);
+            }
+            if (damaged || size != file.getValue().stamp().size()) {
+                damagedFiles.add(file.getKey());
+            }
+        }
+        return damagedFiles;
+    }
+
+    int prune(int retainedBackups) throws IOException {
+        List<String> existing = backups();
+        int removed = Math.max(0, existing.size() - Math.max(1, retainedBackups));
+        for (String backupId : existing.subList(0, removed)) {
+            Files.deleteIfExists(manifestFile(backupId));
+        }
+
+        Set<String> referenced = new HashSet<>();
+        for (String backupId : existing.subList(removed, existing.size())) {
+            for (BackedUpFile file : readManifest(backupId).values()) {
+                referenced.addAll(file.pieces());
+            }
+        }
+        Path objects = backupDirectory.resolve(OBJECT_DIRECTORY);
+        if (Files.isDirectory(objects)) {
+            try (Stream<Path> paths = Files.walk(objects)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    if (Files.isRegularFile(path) && !referenced.contains(path.getFileName().toString())) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    private List<String> storePieces(Path source) throws IOException {
+        List<String> pieces = new ArrayList<>();
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            byte[] buffer = new byte[PIECE_SIZE];
+            int read;
+            while ((read = inputStream.readNBytes(buffer, 0, PIECE_SIZE)) > 0) {
+                byte[] content = read == PIECE_SIZE ? buffer : Arrays.copyOf(buffer, read);
+                String piece = sha256(content);
+                Path objectFile = objectFile(piece);
+                if (!Files.exists(objectFile)) {
+                    Files.createDirectories(objectFile.getParent());
+                    Path tempFile = Files.createTempFile(objectFile.getParent(), piece, ".part");
+                    try {
+                        Files.write(tempFile, content);
+                        try {
+                            Files.move(tempFile, objectFile, StandardCopyOption.ATOMIC_MOVE);
+                        } catch (FileAlreadyExistsException ignored) {
+                        } catch (AtomicMoveNotSupportedException exception) {
+                            Files.move(tempFile, objectFile, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                    } finally {
+                        Files.deleteIfExists(tempFile);
+                    }
+                }
+                pieces.add(piece);
+            }
+        }
+        return pieces;
+    }
+
+    private boolean objectsExist(List<String> pieces) {
+        for (String piece : pieces) {
+            if (!Files.isRegularFile(objectFile(piece))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, BackedUpFile> readManifest(String backupId) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(manifestFile(backupId))) {
+            properties.load(inputStream);
+        } catch (IllegalArgumentException exception) {
+            throw new IOException("Backup manifest is malformed: " + backupId, exception);
+        }
+
+        Map<String, BackedUpFile> files = new LinkedHashMap<>();
+        try {
+            int count = Integer.parseInt(properties.getProperty(KEY_COUNT, "0"));
+            for (int index = 0; index < count; index++) {
+                String prefix = "file." + index + ".";
+                String path = properties.getProperty(prefix + "path");
+                String pieces = properties.getProperty(prefix + "pieces", "");
+                if (path == null) {
+                    throw new IOException("Backup manifest is missing a path: " + backupId);
+                }
+                files.put(path, new BackedUpFile(
+                        new FileStamp(
+                                Long.parseLong(properties.getProperty(prefix + "mtime")),
+                                Long.parseLong(properties.getProperty(prefix + "size"))),
+                        pieces.isEmpty() ? List.of() : List.of(pieces.split(","))));
+            }
+        } catch (NumberFormatException exception) {
+            throw new IOException("Backup manifest is malformed: " + backupId, exception);
+        }
+        return files;
+    }
+
+    private void writeManifest(Path manifest, Map<String, BackedUpFile> files) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_COUNT, Integer.toString(files.size()));
+        int index = 0;
+        for (Map.Entry<String, BackedUpFile> file : files.entrySet()) {
+            String prefix = "file." + index++ + ".";
+            properties.setProperty(prefix + "path", file.getKey());
+            properties.setProperty(prefix + "mtime", Long.toString(file.getValue().stamp().modifiedSeconds()));
+            properties.setProperty(prefix + "size", Long.toString(file.getValue().stamp().size()));
+            properties.setProperty(prefix + "pieces", String.join(",", file.getValue().pieces()));
+        }
+        Path tempFile = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+            properties.store(outputStream, "world-portal universe backup");
+        }
+        move(tempFile, manifest);
+    }
+
+    private Path manifestFile(String backupId) {
+        return backupDirectory.resolve(MANIFEST_DIRECTORY).resolve(backupId + MANIFEST_SUFFIX);
+    }
+
+    private Path objectFile(String piece) {
+        return backupDirectory.resolve(OBJECT_DIRECTORY).resolve(piece.substring(0, 2)).resolve(piece);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available.", exception);
+        }
+    }
+
+    private record BackedUpFile(FileStamp stamp, List<String> pieces) {
+    }
+}
@@ -1,6 +1,7 @@
 package io.worldportal.app.service.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -8,14 +9,12 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class WhitelistService {
-    private static final Pattern ENABLED_PATTERN = Pattern.compile("\\\"enabled\\\"\\s*:\\s*(true|false)", Pattern.CASE_INSENSITIVE);
-    private static final Pattern LIST_ARRAY_PATTERN = Pattern.compile("\\\"list\\\"\\s*:\\s*\\[(.*?)\\]", Pattern.DOTALL);
-    private static final Pattern PLAYERS_ARRAY_PATTERN = Pattern.compile("\\\"players\\\"\\s*:\\s*\\[(.*?)\\]", Pattern.DOTALL);
-    private static final Pattern ARRAY_STRING_PATTERN = Pattern.compile("\\\"([^\\\"]+)\\\"");
+    private static final String ENABLED = "enabled";
+    private static final String LIST = "list";
+    private static final String PLAYERS = "players";
+    private static final List<String> FIELDS = List.of(ENABLED, LIST, PLAYERS, JsonFieldExtractor.ROOT);
 
     public WhitelistConfig load(Path worldDirectory) throws IOException {
         Path whitelistFile = whitelistFile(worldDirectory);
@@ -23,14 +22,24 @@ public class WhitelistService {
             return new WhitelistConfig(true, List.of());
         }
 
-        String content = Files.readString(whitelistFile, StandardCharsets.UTF_8);
-        return parse(content);
+        try (InputStream inputStream = Files.newInputStream(whitelistFile)) {
+            return toConfig(JsonFieldExtractor.extract(inputStream, FIELDS));
+        }
+    }
+
+    public WhitelistConfig load(byte[] whitelistJson) {
+        if (whitelistJson == null) {
+            return new WhitelistConfig(true, List.of());
+        }
+        return toConfig(JsonFieldExtractor.extract(whitelistJson, FIELDS));
     }
 
     public void save(Path worldDirectory, WhitelistConfig config) throws IOException {
         Files.createDirectories(worldDirectory);
-        Path whitelistFile = whitelistFile(worldDirectory);
+        Files.write(whitelistFile(worldDirectory), toJson(config));
+    }
 
+    public byte[] toJson(WhitelistConfig config) {
         StringBuilder json = new StringBuilder();
         json.append("{\n");
         json.append("  \"enabled\": ").append(config.enabled()).append(",\n");
@@ -44,44 +53,32 @@ public class WhitelistService {
         }
         json.append("]\n");
         json.append("}\n");
-
-        Files.writeString(whitelistFile, json.toString(), StandardCharsets.UTF_8);
+        return json.toString().getBytes(StandardCharsets.UTF_8);
     }
 
-    private WhitelistConfig parse(String content) {
-        Matcher enabledMatcher = ENABLED_PATTERN.matcher(content);
-        boolean enabled = true;
-        if (enabledMatcher.find()) {
-            enabled = Boolean.parseBoolean(enabledMatcher.group(1));
-        }
+    private WhitelistConfig toConfig(JsonFieldExtractor.Fields fields) {
+        boolean enabled = !"false".equalsIgnoreCase(fields.string(ENABLED));
 
-        String playersText = extractPlayersText(content);
+        List<String> entries = fields.strings(LIST);
+        if (entries == null) {
+            entries = fields.strings(PLAYERS);
+        }
+        if (entries == null) {
+            entries = fields.strings(JsonFieldExtractor.ROOT);
+        }
 
-        Matcher uuidMatcher = ARRAY_STRING_PATTERN.matcher(playersText);
         Set<String> players = new LinkedHashSet<>();
-        while (uuidMatcher.find()) {
-            String uuid = uuidMatcher.group(1);
-            if (uuid != null && !uuid.isBlank()) {
-                players.add(uuid.trim());
+        if (entries != null) {
+            for (String uuid : entries) {
+                if (uuid != null && !uuid.isBlank()) {
+                    players.add(uuid.trim());
+                }
             }
         }
 
         return new WhitelistConfig(enabled, new ArrayList<>(players));
     }
 
-    private String extractPlayersText(String content) {
-        Matcher listMatcher = LIST_ARRAY_PATTERN.matcher(content);
-        if (listMatcher.find()) {
-            return listMatcher.group(1);
-        }
-
-        Matcher playersMatcher = PLAYERS_ARRAY_PATTERN.matcher(content);
-        if (playersMatcher.find()) {
-            return playersMatcher.group(1);
-        }
-        return content;
-    }
-
     private Path whitelistFile(Path worldDirectory) {
         return worldDirectory.resolve("whitelist.json");
     }
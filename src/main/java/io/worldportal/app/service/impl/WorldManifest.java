@@ -0,0 +1,256 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+import io.worldportal.app.config.WorldSyncStateStore.SyncedFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+final class WorldManifest {
+    private static final String REMOTE_HASH_SCRIPT = """
+            cd -- %s || exit 98
+            command -v sha256sum >/dev/null 2>&1 || exit 97
+            tr '\\n' '\\000' | xargs -0 sha256sum --
+            """;
+
+    private final Map<String, FileStamp> files;
+
+    private WorldManifest(Map<String, FileStamp> files) {
+        this.files = Collections.unmodifiableMap(files);
+    }
+
+    static WorldManifest of(Map<String, FileStamp> files) {
+        return new WorldManifest(new TreeMap<>(files));
+    }
+
+    static WorldManifest scanLocal(Path worldDirectory, Set<String> rootFiles, Set<String> rootDirectories)
+            throws IOException {
+        Map<String, FileStamp> files = new TreeMap<>();
+        for (String fileName : rootFiles) {
+            FileStamp stamp = localStamp(worldDirectory.resolve(fileName));
+            if (stamp != null) {
+                files.put(fileName, stamp);
+            }
+        }
+        for (String directoryName : rootDirectories) {
+            Path directory = worldDirectory.resolve(directoryName);
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    FileStamp stamp = localStamp(path);
+                    if (stamp != null) {
+                        files.put(worldDirectory.relativize(path).toString().replace('\\', '/'), stamp);
+                    }
+                }
+            }
+        }
+        return new WorldManifest(files);
+    }
+
+    static WorldManifest scanRemote(
+            ChannelSftp channel,
+            String remoteWorldPath,
+            Set<String> rootFiles,
+            Set<String> rootDirectories) throws Exception {
+        Map<String, FileStamp> files = new TreeMap<>();
+        @SuppressWarnings("unchecked")
+        List<ChannelSftp.LsEntry> entries = channel.ls(remoteWorldPath);
+        for (ChannelSftp.LsEntry entry : entries) {
+            String name = entry.getFilename();
+            SftpATTRS attrs = entry.getAttrs();
+            if (rootFiles.contains(name) && attrs.isReg()) {
+                files.put(name, new FileStamp(attrs.getMTime(), attrs.getSize()));
+            } else if (rootDirectories.contains(name) && attrs.isDir()) {
+                scanRemoteDirectory(channel, remoteWorldPath + "/" + name, name, files);
+            }
+        }
+        return new WorldManifest(files);
+    }
+
+    private static void scanRemoteDirectory(
+            ChannelSftp channel,
+            String remoteDirectory,
+            String relativeDirectory,
+            Map<String, FileStamp> files) throws Exception {
+        @SuppressWarnings("unchecked")
+        List<ChannelSftp.LsEntry> entries = channel.ls(remoteDirectory);
+        for (ChannelSftp.LsEntry entry : entries) {
+            String name = entry.getFilename();
+            if (".".equals(name) || "..".equals(name)) {
+                continue;
+            }
+            SftpATTRS attrs = entry.getAttrs();
+            String relativePath = relativeDirectory + "/" + name;
+            if (attrs.isDir()) {
+                scanRemoteDirectory(channel, remoteDirectory + "/" + name, relativePath, files);
+            } else if (attrs.isReg()) {
+                files.put(relativePath, new FileStamp(attrs.getMTime(), attrs.getSize()));
+            }
+        }
+    }
+
+    Map<String, FileStamp> files() {
+        return files;
+    }
+
+    FileStamp stamp(String relativePath) {
+        return files.get(relativePath);
+    }
+
+    static Plan plan(
+            WorldManifest source,
+            WorldManifest target,
+            Map<String, SyncedFile> lastSync,
+            boolean sourceIsLocal,
+            Path localWorldDirectory,
+            RemoteHashes remoteHashes) {
+        List<String> transfers = new ArrayList<>();
+        List<String> touched = new ArrayList<>();
+        Map<String, SyncedFile> unchanged = new HashMap<>();
+        for (Map.Entry<String, FileStamp> file : source.files.entrySet()) {
+            String path = file.getKey();
+            FileStamp sourceStamp = file.getValue();
+            FileStamp targetStamp = target.stamp(path);
+            if (targetStamp == null) {
+                transfers.add(path);
+                continue;
+            }
+
+            FileStamp localStamp = sourceIsLocal ? sourceStamp : targetStamp;
+            FileStamp remoteStamp = sourceIsLocal ? targetStamp : sourceStamp;
+            SyncedFile synced = lastSync.get(path);
+            if (synced == null) {
+                if (sourceStamp.equals(targetStamp)) {
+                    unchanged.put(path, new SyncedFile(localStamp, remoteStamp, null));
+                } else {
+                    transfers.add(path);
+                }
+                continue;
+            }
+
+            boolean remoteUnchanged = remoteStamp.equals(synced.remote());
+            if (remoteUnchanged && localStamp.equals(synced.local())) {
+                unchanged.put(path, new SyncedFile(localStamp, remoteStamp, synced.sha256()));
+            } else if (remoteUnchanged && localStamp.size() == synced.local().size()) {
+                touched.add(path);
+            } else {
+                transfers.add(path);
+            }
+        }
+
+        List<String> unhashed = touched.stream().filter(path -> lastSync.get(path).sha256() == null).toList();
+        Map<String, String> remoteHashed = unhashed.isEmpty() ? Map.of() : remoteHashes.hash(unhashed);
+        for (String path : touched) {
+            SyncedFile synced = lastSync.get(path);
+            String syncedHash = synced.sha256() != null ? synced.sha256() : remoteHashed.get(path);
+            String localHash = syncedHash == null ? null : sha256(localWorldDirectory.resolve(path));
+            if (syncedHash != null && syncedHash.equals(localHash)) {
+                FileStamp localStamp = sourceIsLocal ? source.stamp(path) : target.stamp(path);
+                unchanged.put(path, new SyncedFile(localStamp, synced.remote(), syncedHash));
+            } else {
+                transfers.add(path);
+            }
+        }
+
+        List<String> deletions = new ArrayList<>();
+        for (Map.Entry<String, FileStamp> file : target.files.entrySet()) {
+            String path = file.getKey();
+            SyncedFile synced = lastSync.get(path);
+            if (source.files.containsKey(path) || synced == null) {
+                continue;
+            }
+            if (file.getValue().equals(sourceIsLocal ? synced.remote() : synced.local())) {
+                deletions.add(path);
+            }
+        }
+        return new Plan(transfers, deletions, unchanged);
+    }
+
+    static Map<String, String> remoteSha256(Session session, String remoteWorldPath, Collection<String> paths)
+            throws Exception {
+        Map<String, String> hashes = new HashMap<>();
+        RemoteCommands.Result result = RemoteCommands.stream(
+                session,
+                REMOTE_HASH_SCRIPT.formatted(RemoteCommands.quote(remoteWorldPath)),
+                RemoteCommands.DEFAULT_TIMEOUT_MILLIS,
+                stdin -> {
+                    for (String path : paths) {
+                        stdin.write((path + "\n").getBytes(StandardCharsets.UTF_8));
+                    }
+                },
+                stdout -> {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(stdout, StandardCharsets.UTF_8));
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.length() > 66 && line.charAt(64) == ' ') {
+                            hashes.put(line.substring(66), line.substring(0, 64));
+                        }
+                    }
+                });
+        if (result.exitStatus() == RemoteCommands.EXIT_MISSING_TOOLS) {
+            return null;
+        }
+        return hashes;
+    }
+
+    static FileStamp localStamp(Path file) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException exception) {
+            if (Files.notExists(file)) {
+                return null;
+            }
+            throw exception;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        return new FileStamp(attributes.lastModifiedTime().toMillis() / 1000L, attributes.size());
+    }
+
+    static String sha256(Path file) {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException exception) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface RemoteHashes {
+        Map<String, String> hash(List<String> relativePaths);
+    }
+
+    record Plan(List<String> transfers, List<String> deletions, Map<String, SyncedFile> unchanged) {
+    }
+}
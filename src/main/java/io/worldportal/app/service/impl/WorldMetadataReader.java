@@ -0,0 +1,80 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+final class WorldMetadataReader {
+    static final String CONFIG_RELATIVE_PATH = "universe/worlds/default/config.json";
+    static final String CLIENT_METADATA_RELATIVE_PATH = "client_metadata.json";
+
+    private static final String DISPLAY_NAME = "DisplayName";
+    private static final String GAME_MODE = "GameMode";
+    private static final String GAME_TIME = "GameTime";
+    private static final String UUID_BINARY = "UUID.$binary";
+    private static final String PATCH_LINE = "CreatedWithPatchline";
+    private static final List<String> CONFIG_FIELDS = List.of(DISPLAY_NAME, GAME_MODE, GAME_TIME, UUID_BINARY);
+    private static final List<String> CLIENT_METADATA_FIELDS = List.of(PATCH_LINE);
+
+    private WorldMetadataReader() {
+    }
+
+    static WorldMetadata readLocal(Path worldDirectory, Instant lastModified) {
+        return toMetadata(
+                readLocalFields(worldDirectory.resolve(CONFIG_RELATIVE_PATH), CONFIG_FIELDS),
+                readLocalFields(worldDirectory.resolve(CLIENT_METADATA_RELATIVE_PATH), CLIENT_METADATA_FIELDS),
+                lastModified);
+    }
+
+    static WorldMetadata parse(String configJson, String clientMetadataJson, Instant lastModified) {
+        return toMetadata(
+                JsonFieldExtractor.extract(configJson, CONFIG_FIELDS),
+                JsonFieldExtractor.extract(clientMetadataJson, CLIENT_METADATA_FIELDS),
+                lastModified);
+    }
+
+    private static WorldMetadata toMetadata(
+            JsonFieldExtractor.Fields config,
+            JsonFieldExtractor.Fields clientMetadata,
+            Instant lastModified) {
+        String displayName = config.string(DISPLAY_NAME);
+        return new WorldMetadata(
+                displayName == null || displayName.isBlank() ? null : displayName,
+                config.string(GAME_MODE),
+                config.string(UUID_BINARY),
+                config.string(GAME_TIME),
+                clientMetadata.string(PATCH_LINE),
+                lastModified);
+    }
+
+    private static JsonFieldExtractor.Fields readLocalFields(Path file, List<String> fields) {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return JsonFieldExtractor.extract(inputStream, fields);
+        } catch (IOException exception) {
+            return JsonFieldExtractor.Fields.EMPTY;
+        }
+    }
+
+    static String readRemoteText(ChannelSftp channel, String remoteFile) {
+        try (var inputStream = channel.get(remoteFile)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    record WorldMetadata(
+            String displayName,
+            String gameMode,
+            String uuidBinary,
+            String gameTime,
+            String patchLine,
+            Instant lastModified) {
+    }
+}
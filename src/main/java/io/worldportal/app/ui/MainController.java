@@ -3,6 +3,7 @@ package io.worldportal.app.ui;
 import io.worldportal.app.config.ConnectionSettingsStore;
 import io.worldportal.app.model.RemoteProfile;
 import io.worldportal.app.model.WorldEntry;
+import io.worldportal.app.service.LocalWorldListener;
 import io.worldportal.app.service.TransferService;
 import io.worldportal.app.service.WorldService;
 import io.worldportal.app.service.impl.SshConnectionService;
@@ -53,7 +54,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -141,7 +142,12 @@ public class MainController {
     private final ConnectionSettingsStore connectionSettingsStore;
     private final ObservableList<WorldEntry> localWorlds = FXCollections.observableArrayList();
     private final ObservableList<WorldEntry> remoteWorlds = FXCollections.observableArrayList();
-    private final ConcurrentHashMap<String, Boolean> remotePreviewLoading = new ConcurrentHashMap<>();
+    private PreviewPrefetchScheduler remotePreviewScheduler;
+    private final AtomicReference<WorldListBatcher> activeRemoteBatcher = new AtomicReference<>();
+    private int transferParallelism;
+    private int maxSessions;
+    private AutoCloseable localWorldWatch;
+    private volatile String watchedLocalWorldsPath;
 
     public MainController() {
         this(
@@ -170,6 +176,18 @@ public class MainController {
         this.connectionSettingsStore = connectionSettingsStore;
     }
 
+    private synchronized PreviewPrefetchScheduler remotePreviewScheduler() {
+        if (remotePreviewScheduler == null) {
+            remotePreviewScheduler = new PreviewPrefetchScheduler(
+                    PreviewPrefetchScheduler.DEFAULT_CONCURRENCY,
+                    world -> worldService.downloadRemotePreview(world, buildRemoteProfile()),
+                    Platform::runLater,
+                    () -> remoteWorldsList.refresh(),
+                    sshConnectionService::isConnected);
+        }
+        return remotePreviewScheduler;
+    }
+
     @FXML
     private void initialize() {
         localWorldsList.setItems(localWorlds);
@@ -191,13 +209,17 @@ public class MainController {
             }
         });
         remoteWorldsList.setItems(remoteWorlds);
-        remoteWorldsList.setCellFactory(listView -> new WorldCell(
-                false,
-                "<<",
-                "Download",
-                this::onDownloadWorld,
-                this::onSyncWorld,
-                this::canTransferFromListCell));
+        remoteWorldsList.setCellFactory(listView -> {
+            WorldCell cell = new WorldCell(
+                    false,
+                    "<<",
+                    "Download",
+                    this::onDownloadWorld,
+                    this::onSyncWorld,
+                    this::canTransferFromListCell);
+            cell.previewScheduler = remotePreviewScheduler();
+            return cell;
+        });
         remoteWorldsList.getSelectionModel().selectedItemProperty()
                 .addListener((obs, oldValue, newValue) -> syncTransferButtons());
         remoteWorldsList.setOnMouseClicked(event -> {
@@ -239,8 +261,8 @@ public class MainController {
                 Platform.runLater(() -> connectStatusLabel.setText(""));
                 refreshRemoteWorlds();
             } else {
+                refreshRemoteWorlds();
                 Platform.runLater(() -> {
-                    remoteWorlds.clear();
                     String error = sshConnectionService.getLastErrorMessage();
                     connectStatusLabel.setText(error == null ? "Connection failed." : error);
                 });
@@ -346,50 +368,130 @@ public class MainController {
     }
 
     private void refreshLists() {
-        List<WorldEntry> local = worldService.listLocalWorlds(getConfiguredLocalWorldsPath());
+        ensureLocalWorldWatch();
+        List<WorldEntry> local = worldService.rescanLocalWorlds(getConfiguredLocalWorldsPath());
         if (!sshConnectionService.isConnected()) {
-            worldComparisonService.annotateMatches(local, List.of());
-            Platform.runLater(() -> {
-                localWorlds.setAll(local);
-                remoteWorlds.clear();
-                syncTransferButtons();
-            });
+            showCachedRemoteWorlds(local);
             return;
         }
 
-        List<WorldEntry> remote = worldService.listRemoteWorlds(buildRemoteProfile());
+        List<WorldEntry> remote = streamRemoteWorlds();
         worldComparisonService.annotateMatches(local, remote);
 
         Platform.runLater(() -> {
             localWorlds.setAll(local);
             remoteWorlds.setAll(remote);
-            for (WorldEntry world : remote) {
-                maybeLoadRemotePreviewAsync(world);
-            }
             syncTransferButtons();
         });
+        prefetchRemotePreviews(remote);
     }
 
     private void refreshRemoteWorlds() {
         if (!sshConnectionService.isConnected()) {
-            Platform.runLater(() -> {
-                remoteWorlds.clear();
-                syncTransferButtons();
-            });
+            ensureLocalWorldWatch();
+            showCachedRemoteWorlds(worldService.listLocalWorlds(getConfiguredLocalWorldsPath()));
             return;
         }
-        List<WorldEntry> remote = worldService.listRemoteWorlds(buildRemoteProfile());
+        List<WorldEntry> remote = streamRemoteWorlds();
+        ensureLocalWorldWatch();
         List<WorldEntry> local = worldService.listLocalWorlds(getConfiguredLocalWorldsPath());
         worldComparisonService.annotateMatches(local, remote);
 
         Platform.runLater(() -> {
             localWorlds.setAll(local);
             remoteWorlds.setAll(remote);
-            for (WorldEntry world : remote) {
-                maybeLoadRemotePreviewAsync(world);
-            }
             syncTransferButtons();
         });
+        prefetchRemotePreviews(remote);
+    }
+
+    private void showCachedRemoteWorlds(List<WorldEntry> local) {
+        remotePreviewScheduler().cancelAll();
+        List<WorldEntry> cachedRemote = worldService.listCachedRemoteWorlds(buildRemoteProfile());
+        worldComparisonService.annotateMatches(local, cachedRemote);
+        Platform.runLater(() -> {
+            localWorlds.setAll(local);
+            remoteWorlds.setAll(cachedRemote);
+            syncTransferButtons();
+        });
+    }
+
+    private void prefetchRemotePreviews(List<WorldEntry> remote) {
+        RemoteProfile profile = buildRemoteProfile();
+        remotePreviewScheduler().prefetchAll(remote, worlds -> worldService.downloadRemotePreviews(worlds, profile));
+    }
+
+    private synchronized void ensureLocalWorldWatch() {
+        String path = getConfiguredLocalWorldsPath();
+        if (localWorldWatch != null && Objects.equals(path, watchedLocalWorldsPath)) {
+            return;
+        }
+        closeLocalWorldWatch();
+        watchedLocalWorldsPath = path;
+        localWorldWatch = worldService.watchLocalWorlds(path, new LocalWorldListener() {
+            @Override
+            public void worldUpdated(WorldEntry world) {
+                Platform.runLater(() -> {
+                    if (Objects.equals(path, watchedLocalWorldsPath)) {
+                        applyLocalWorldUpdate(world);
+                    }
+                });
+            }
+
+            @Override
+            public void worldRemoved(String worldId) {
+                Platform.runLater(() -> {
+                    if (Objects.equals(path, watchedLocalWorldsPath)) {
+                        applyLocalWorldRemoval(worldId);
+                    }
+                });
+            }
+        });
+    }
+
+    private void closeLocalWorldWatch() {
+        if (localWorldWatch == null) {
+            return;
+        }
+        try {
+            localWorldWatch.close();
+        } catch (Exception ignored) {
+        }
+        localWorldWatch = null;
+    }
+
+    private void applyLocalWorldUpdate(WorldEntry world) {
+        localWorlds.removeIf(existing -> Objects.equals(existing.getId(), world.getId()));
+        int index = 0;
+        while (index < localWorlds.size() && WorldListBatcher.NEWEST_FIRST.compare(localWorlds.get(index), world) <= 0) {
+            index++;
+        }
+        localWorlds.add(index, world);
+        worldComparisonService.annotateMatches(localWorlds, remoteWorlds);
+        remoteWorldsList.refresh();
+        syncTransferButtons();
+    }
+
+    private void applyLocalWorldRemoval(String worldId) {
+        if (localWorlds.removeIf(existing -> Objects.equals(existing.getId(), worldId))) {
+            worldComparisonService.annotateMatches(localWorlds, remoteWorlds);
+            remoteWorldsList.refresh();
+            syncTransferButtons();
+        }
+    }
+
+    private List<WorldEntry> streamRemoteWorlds() {
+        WorldListBatcher batcher = new WorldListBatcher(remoteWorlds, Platform::runLater);
+        WorldListBatcher previous = activeRemoteBatcher.getAndSet(batcher);
+        if (previous != null) {
+            previous.cancel();
+        }
+        try {
+            return worldService.listRemoteWorlds(buildRemoteProfile(), batcher);
+        } finally {
+            batcher.cancel();
+            activeRemoteBatcher.compareAndSet(batcher, null);
+        }
     }
 
     private RemoteProfile buildRemoteProfile() {
@@ -399,7 +501,7 @@ public class MainController {
         } catch (NumberFormatException exception) {
             parsedPort = 22;
         }
-        return new RemoteProfile(
+        RemoteProfile profile = new RemoteProfile(
                 hostField.getText(),
                 parsedPort,
                 usernameField.getText(),
@@ -408,6 +510,9 @@ public class MainController {
                 passwordField.getText(),
                 publicKeyFileCombo.getValue(),
                 getConfiguredLocalWorldsPath());
+        profile.setTransferParallelism(transferParallelism);
+        profile.setMaxSessions(maxSessions);
+        return profile;
     }
 
     public WorldService getWorldService() {
@@ -661,6 +766,8 @@ public class MainController {
             return;
         }
 
+        transferParallelism = cached.getTransferParallelism();
+        maxSessions = cached.getMaxSessions();
         if (cached.getHost() != null && !cached.getHost().isBlank()) {
             hostField.setText(cached.getHost());
         }
@@ -725,38 +832,11 @@ public class MainController {
         worker.start();
     }
 
-    private void maybeLoadRemotePreviewAsync(WorldEntry world) {
-        if (world == null || world.getId() == null || world.getId().isBlank()) {
-            return;
-        }
-        if (world.getPreviewImagePath() != null && !world.getPreviewImagePath().isBlank()) {
-            File preview = new File(world.getPreviewImagePath());
-            if (preview.exists() && preview.length() > 0) {
-                return;
-            }
-        }
-
-        String key = world.getId();
-        if (remotePreviewLoading.putIfAbsent(key, Boolean.TRUE) != null) {
-            return;
-        }
-
-        Thread loader = new Thread(() -> {
-            try {
-                String previewPath = worldService.downloadRemotePreview(world, buildRemoteProfile());
-                if (previewPath != null && !previewPath.isBlank()) {
-                    world.setPreviewImagePath(previewPath);
-                    Platform.runLater(() -> remoteWorldsList.refresh());
-                }
-            } finally {
-                remotePreviewLoading.remove(key);
-            }
-        }, "remote-preview-loader");
-        loader.setDaemon(true);
-        loader.start();
-    }
-
     private static class WorldCell extends ListCell<WorldEntry> {
+        private static final double PREVIEW_WIDTH = 96;
+        private static final double PREVIEW_HEIGHT = 54;
+        private static final PreviewThumbnailCache PREVIEW_THUMBNAILS =
+                new PreviewThumbnailCache(PREVIEW_WIDTH, PREVIEW_HEIGHT, 32L * 1024 * 1024);
         private static final DateTimeFormatter LAST_PLAYED_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
                 .withZone(ZoneId.systemDefault());
 
@@ -777,6 +857,7 @@ public class MainController {
         private final Consumer<WorldEntry> transferAction;
         private final Consumer<WorldEntry> syncAction;
         private final BooleanSupplier transferEnabledSupplier;
+        private PreviewPrefetchScheduler previewScheduler;
 
         private WorldCell(
                 boolean openDirectoryEnabled,
@@ -790,8 +871,8 @@ public class MainController {
             this.transferAction = transferAction;
             this.syncAction = syncAction;
             this.transferEnabledSupplier = transferEnabledSupplier;
-            previewImageView.setFitWidth(96);
-            previewImageView.setFitHeight(54);
+            previewImageView.setFitWidth(PREVIEW_WIDTH);
+            previewImageView.setFitHeight(PREVIEW_HEIGHT);
             previewImageView.setPreserveRatio(true);
             previewImageView.getStyleClass().add("world-preview");
             nameLabel.getStyleClass().add("world-name");
@@ -847,7 +928,12 @@ public class MainController {
 
         @Override
         protected void updateItem(WorldEntry item, boolean empty) {
+            WorldEntry previous = getItem();
             super.updateItem(item, empty);
+            boolean itemChanged = previous != item;
+            if (itemChanged && previewScheduler != null && previous != null) {
+                previewScheduler.hidden(previous);
+            }
             if (empty || item == null) {
                 setGraphic(null);
                 return;
@@ -863,15 +949,10 @@ public class MainController {
             sameAsLabel.setVisible(hasSameAs);
             sameAsLabel.setManaged(hasSameAs);
 
-            if (item.getPreviewImagePath() != null && !item.getPreviewImagePath().isBlank()) {
-                File previewImage = new File(item.getPreviewImagePath());
-                if (previewImage.exists()) {
-                    previewImageView.setImage(new Image(previewImage.toURI().toString(), true));
-                } else {
-                    previewImageView.setImage(null);
-                }
-            } else {
-                previewImageView.setImage(null);
+            Image preview = PREVIEW_THUMBNAILS.get(item.getPreviewImagePath());
+            previewImageView.setImage(preview);
+            if (preview == null && itemChanged && previewScheduler != null) {
+                previewScheduler.shown(item);
             }
             boolean transferEnabled = transferEnabledSupplier.getAsBoolean();
             transferButton.setDisable(!transferEnabled);
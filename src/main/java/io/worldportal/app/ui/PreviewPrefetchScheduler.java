@@ -0,0 +1,201 @@
+package io.worldportal.app.ui;
+
+import io.worldportal.app.model.WorldEntry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+final class PreviewPrefetchScheduler {
+    static final int DEFAULT_CONCURRENCY = 2;
+
+    private final int concurrency;
+    private final Function<WorldEntry, String> loader;
+    private final Consumer<Runnable> uiExecutor;
+    private final Runnable onLoaded;
+    private final BooleanSupplier enabled;
+    private final ExecutorService workers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("remote-preview-loader-", 0).factory());
+    private final LinkedHashMap<String, WorldEntry> queued = new LinkedHashMap<>();
+    private final Set<String> running = new HashSet<>();
+    private final Set<String> bulk = new HashSet<>();
+    private final LinkedHashMap<String, WorldEntry> deferred = new LinkedHashMap<>();
+    private int activeWorkers;
+    private boolean refreshScheduled;
+
+    PreviewPrefetchScheduler(
+            int concurrency,
+            Function<WorldEntry, String> loader,
+            Consumer<Runnable> uiExecutor,
+            Runnable onLoaded) {
+        this(concurrency, loader, uiExecutor, onLoaded, () -> true);
+    }
+
+    PreviewPrefetchScheduler(
+            int concurrency,
+            Function<WorldEntry, String> loader,
+            Consumer<Runnable> uiExecutor,
+            Runnable onLoaded,
+            BooleanSupplier enabled) {
+        this.concurrency = Math.max(1, concurrency);
+        this.loader = loader;
+        this.uiExecutor = uiExecutor;
+        this.onLoaded = onLoaded;
+        this.enabled = enabled;
+    }
+
+    void shown(WorldEntry world) {
+        String key = keyOf(world);
+        if (key == null || !enabled.getAsBoolean()) {
+            return;
+        }
+        synchronized (this) {
+            if (running.contains(key)) {
+                return;
+            }
+            if (bulk.contains(key)) {
+                deferred.put(key, world);
+                return;
+            }
+            queued.remove(key);
+            queued.put(key, world);
+            if (activeWorkers >= concurrency) {
+                return;
+            }
+            activeWorkers++;
+        }
+        workers.execute(this::drain);
+    }
+
+    synchronized void hidden(WorldEntry world) {
+        String key = keyOf(world);
+        if (key != null) {
+            queued.remove(key);
+            deferred.remove(key);
+        }
+    }
+
+    synchronized void cancelAll() {
+        queued.clear();
+        deferred.clear();
+    }
+
+    void prefetchAll(List<WorldEntry> worlds, Function<List<WorldEntry>, Map<String, String>> bulkLoader) {
+        List<WorldEntry> claimed = new ArrayList<>();
+        synchronized (this) {
+            if (!bulk.isEmpty()) {
+                return;
+            }
+            for (WorldEntry world : worlds) {
+                String key = keyOf(world);
+                if (key != null && !running.contains(key) && bulk.add(key)) {
+                    WorldEntry shown = queued.remove(key);
+                    if (shown != null) {
+                        deferred.put(key, shown);
+                    }
+                    claimed.add(world);
+                }
+            }
+            if (claimed.isEmpty()) {
+                return;
+            }
+        }
+        workers.execute(() -> loadAll(claimed, bulkLoader));
+    }
+
+    synchronized int queuedCount() {
+        return queued.size();
+    }
+
+    private void drain() {
+        while (true) {
+            WorldEntry world;
+            String key;
+            synchronized (this) {
+                Map.Entry<String, WorldEntry> next = queued.pollLastEntry();
+                if (next == null) {
+                    activeWorkers--;
+                    return;
+                }
+                key = next.getKey();
+                world = next.getValue();
+                running.add(key);
+            }
+            try {
+                if (!enabled.getAsBoolean()) {
+                    continue;
+                }
+                String previewPath = loader.apply(world);
+                if (previewPath != null && !previewPath.isBlank()) {
+                    world.setPreviewImagePath(previewPath);
+                    scheduleRefresh();
+                }
+            } catch (RuntimeException ignored) {
+            } finally {
+                synchronized (this) {
+                    running.remove(key);
+                }
+            }
+        }
+    }
+
+    private void loadAll(List<WorldEntry> worlds, Function<List<WorldEntry>, Map<String, String>> bulkLoader) {
+        Map<String, String> previews = Map.of();
+        try {
+            previews = bulkLoader.apply(worlds);
+        } catch (RuntimeException ignored) {
+        }
+        boolean loaded = false;
+        for (WorldEntry world : worlds) {
+            String previewPath = previews.get(world.getId());
+            if (previewPath != null && !previewPath.isBlank()) {
+                world.setPreviewImagePath(previewPath);
+                loaded = true;
+            }
+        }
+        List<WorldEntry> retry = new ArrayList<>();
+        synchronized (this) {
+            bulk.clear();
+            for (WorldEntry world : deferred.values()) {
+                if (world.getPreviewImagePath() == null || world.getPreviewImagePath().isBlank()) {
+                    retry.add(world);
+                }
+            }
+            deferred.clear();
+        }
+        if (loaded) {
+            scheduleRefresh();
+        }
+        retry.forEach(this::shown);
+    }
+
+    private void scheduleRefresh() {
+        synchronized (this) {
+            if (refreshScheduled) {
+                return;
+            }
+            refreshScheduled = true;
+        }
+        uiExecutor.accept(() -> {
+            synchronized (this) {
+                refreshScheduled = false;
+            }
+            onLoaded.run();
+        });
+    }
+
+    private static String keyOf(WorldEntry world) {
+        if (world == null || world.getId() == null || world.getId().isBlank()) {
+            return null;
+        }
+        return world.getId();
+    }
+}
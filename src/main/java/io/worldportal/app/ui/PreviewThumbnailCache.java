@@ -0,0 +1,104 @@
+package io.worldportal.app.ui;
+
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class PreviewThumbnailCache {
+    private static final long BYTES_PER_PIXEL = 4L;
+
+    private final double width;
+    private final double height;
+    private final long maxBytes;
+    private final ThumbnailLoader loader;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    PreviewThumbnailCache(double width, double height, long maxBytes) {
+        this(width, height, maxBytes,
+                (uri, requestedWidth, requestedHeight) -> new Image(uri, requestedWidth, requestedHeight, true, true, true));
+    }
+
+    PreviewThumbnailCache(double width, double height, long maxBytes, ThumbnailLoader loader) {
+        this.width = width;
+        this.height = height;
+        this.maxBytes = maxBytes;
+        this.loader = loader;
+    }
+
+    synchronized Image get(String previewPath) {
+        if (previewPath == null || previewPath.isBlank()) {
+            return null;
+        }
+        Path file = Paths.get(previewPath);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException exception) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+
+        long modifiedMillis = attributes.lastModifiedTime().toMillis();
+        Entry cached = entries.get(previewPath);
+        if (cached != null && cached.modifiedMillis() == modifiedMillis && cached.size() == attributes.size()
+                && !cached.image().isError()) {
+            return cached.image();
+        }
+        if (cached != null) {
+            entries.remove(previewPath);
+            totalBytes -= cached.bytes();
+        }
+
+        Image image = loader.load(file.toUri().toString(), width, height);
+        Entry entry = new Entry(image, modifiedMillis, attributes.size(), weightOf(image));
+        entries.put(previewPath, entry);
+        totalBytes += entry.bytes();
+        evictOverBudget();
+        return image;
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        totalBytes = 0L;
+    }
+
+    private long weightOf(Image image) {
+        double imageWidth = image.getWidth() > 0 ? image.getWidth() : width;
+        double imageHeight = image.getHeight() > 0 ? image.getHeight() : height;
+        return Math.max(1L, (long) Math.ceil(imageWidth) * (long) Math.ceil(imageHeight) * BYTES_PER_PIXEL);
+    }
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+            totalBytes -= iterator.next().getValue().bytes();
+            iterator.remove();
+        }
+    }
+
+    @FunctionalInterface
+    interface ThumbnailLoader {
+        Image load(String uri, double width, double height);
+    }
+
+    private record Entry(Image image, long modifiedMillis, long size, long bytes) {
+    }
+}
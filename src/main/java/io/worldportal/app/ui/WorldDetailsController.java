@@ -3,6 +3,7 @@ package io.worldportal.app.ui;
 import io.worldportal.app.model.RemoteProfile;
 import io.worldportal.app.model.WorldEntry;
 import io.worldportal.app.service.TransferService;
+import io.worldportal.app.service.impl.JsonFieldExtractor;
 import io.worldportal.app.service.impl.StubTransferService;
 import io.worldportal.app.service.impl.WhitelistService;
 import javafx.application.Platform;
@@ -38,12 +39,18 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 public class WorldDetailsController {
-    private static final Pattern DISPLAY_NAME_FIELD_PATTERN = Pattern.compile("\\\"DisplayName\\\"\\s*:\\s*\\\"([^\\\"]*)\\\"");
+    private static final String DISPLAY_NAME_FIELD = "DisplayName";
+    private static final String GAME_MODE_FIELD = "GameMode";
+    private static final String GAME_TIME_FIELD = "GameTime";
+    private static final List<String> SERVER_CONFIG_FIELDS =
+            List.of(DISPLAY_NAME_FIELD, GAME_MODE_FIELD, GAME_TIME_FIELD);
+    private static final String WORLD_CONFIG_PATH = "universe/worlds/default/config.json";
+    private static final String WHITELIST_PATH = "whitelist.json";
     private static final DateTimeFormatter GAME_WORLD_TIME_FORMATTER = DateTimeFormatter
             .ofPattern("MMM d, yyyy HH:mm 'UTC'", Locale.ENGLISH)
             .withZone(ZoneOffset.UTC);
@@ -99,6 +106,9 @@ public class WorldDetailsController {
     @FXML
     private Button detailsRemoveUuidButton;
 
+    @FXML
+    private Button detailsDuplicateWorldButton;
+
     @FXML
     private Button detailsDeleteWorldButton;
 
@@ -182,6 +192,8 @@ public class WorldDetailsController {
         if (serverWorldEditable) {
             detailsIdentityStatusLabel.setText("");
         }
+        detailsDuplicateWorldButton.setVisible(serverWorldEditable);
+        detailsDuplicateWorldButton.setManaged(serverWorldEditable);
 
         Runnable updateSaveButton = () -> {
             boolean identityChanged = hasWorldIdentityChanges(
@@ -206,25 +218,45 @@ public class WorldDetailsController {
         detailsFolderInput.textProperty().addListener((obs, oldValue, newValue) -> updateSaveButton.run());
         detailsWhitelistEnabledCheckBox.selectedProperty().addListener((obs, oldValue, newValue) -> updateSaveButton.run());
 
-        WhitelistService.WhitelistConfig loadedWhitelist;
         if (serverWorldEditable) {
-            loadedWhitelist = loadServerWhitelistIntoDialog(
-                    world,
-                    remoteProfile,
-                    transferService,
-                    detailsWhitelistEnabledCheckBox,
-                    detailsWhitelistList,
-                    detailsWhitelistStatusLabel);
+            detailsWhitelistEnabledCheckBox.setSelected(true);
+            detailsWhitelistList.setItems(FXCollections.observableArrayList());
+            setServerDetailsLoading(true);
+            detailsWhitelistStatusLabel.setText("Loading whitelist...");
+            loadServerDetailsAsync(world, remoteProfile, transferService, details -> {
+                if (details.displayName() != null
+                        && !details.displayName().isBlank()
+                        && detailsNameInput.getText().equals(originalNameHolder[0])) {
+                    originalNameHolder[0] = details.displayName();
+                    detailsNameInput.setText(details.displayName());
+                }
+                if (details.gameMode() != null) {
+                    detailsGameModeLabel.setText("GameMode: " + valueOrUnknown(details.gameMode()));
+                }
+                if (details.gameTime() != null) {
+                    detailsGameWorldTimeLabel.setText("Game world time: " + formatGameWorldTime(details.gameTime()));
+                }
+                originalWhitelistEnabledHolder[0] = details.whitelist().enabled();
+                originalWhitelistPlayers.clear();
+                originalWhitelistPlayers.addAll(details.whitelist().playerUuids());
+                detailsWhitelistEnabledCheckBox.setSelected(details.whitelist().enabled());
+                detailsWhitelistList.getItems().setAll(details.whitelist().playerUuids());
+                detailsWhitelistStatusLabel.setText(details.failure() == null
+                        ? ""
+                        : "Failed to load whitelist: " + details.failure());
+                setServerDetailsLoading(false);
+                updateSaveButton.run();
+            });
         } else {
-            loadedWhitelist = loadWhitelistIntoDialog(
+            WhitelistService.WhitelistConfig loadedWhitelist = loadWhitelistIntoDialog(
                     localPathHolder[0],
                     detailsWhitelistEnabledCheckBox,
                     detailsWhitelistList,
                     detailsWhitelistStatusLabel);
+            originalWhitelistEnabledHolder[0] = loadedWhitelist.enabled();
+            originalWhitelistPlayers.clear();
+            originalWhitelistPlayers.addAll(loadedWhitelist.playerUuids());
         }
-        originalWhitelistEnabledHolder[0] = loadedWhitelist.enabled();
-        originalWhitelistPlayers.clear();
-        originalWhitelistPlayers.addAll(loadedWhitelist.playerUuids());
         detailsWhitelistList.getItems().addListener((ListChangeListener<String>) change -> updateSaveButton.run());
         updateSaveButton.run();
 
@@ -332,6 +364,30 @@ public class WorldDetailsController {
             }
         });
 
+        detailsDuplicateWorldButton.setOnAction(event -> {
+            if (detailsSaveBusy) {
+                return;
+            }
+            setDetailsSaveBusy(true);
+            detailsIdentityStatusLabel.setText("Duplicating world on the server...");
+            runAsync(() -> {
+                try {
+                    String duplicatePath = duplicateServerWorld(world, remoteProfile, transferService);
+                    Platform.runLater(() -> {
+                        detailsIdentityStatusLabel.setText(
+                                "World duplicated as \"" + Paths.get(duplicatePath).getFileName() + "\".");
+                        setDetailsSaveBusy(false);
+                        refreshListsAction.run();
+                    });
+                } catch (IOException exception) {
+                    Platform.runLater(() -> {
+                        detailsIdentityStatusLabel.setText("Failed to duplicate world: " + exception.getMessage());
+                        setDetailsSaveBusy(false);
+                    });
+                }
+            });
+        });
+
         detailsDeleteWorldButton.setOnAction(event ->
                 openDeleteWorldConfirmationWindow(
                         stage,
@@ -400,11 +456,7 @@ public class WorldDetailsController {
         if (world == null || profile == null || transferService == null) {
             throw new IOException("Server world editing context is unavailable.");
         }
-        Path stagingRoot = Files.createTempDirectory("world-portal-server-world-edit");
-        Path stagingWorldPath = stagingRoot.resolve(valueOrUnknown(world.getId()));
         String remoteWorldPath = world.getPath();
-        WorldEntry stagedLocalWorld = new WorldEntry();
-        stagedLocalWorld.setPath(stagingWorldPath.toString());
         try {
             boolean folderChanged = !normalizeIdentityInput(valueOrUnknown(world.getId()))
                     .equals(normalizeIdentityInput(requestedFolder));
@@ -418,23 +470,24 @@ public class WorldDetailsController {
                 }
             }
 
-            WorldEntry remoteWorldForSync = new WorldEntry();
-            remoteWorldForSync.setPath(remoteWorldPath);
-            transferService.syncRemoteToLocalWorld(remoteWorldForSync, stagedLocalWorld, profile);
+            WorldEntry remoteWorld = new WorldEntry();
+            remoteWorld.setPath(remoteWorldPath);
             if (identityChanged) {
-                updateWorldDisplayName(stagingWorldPath, requestedName);
+                transferService.patchRemoteFile(remoteWorld, WORLD_CONFIG_PATH, config -> {
+                    if (config == null) {
+                        throw new IOException("World config file does not exist.");
+                    }
+                    return withWorldDisplayName(config, requestedName);
+                }, profile);
             }
             if (whitelistChanged) {
-                whitelistService.save(
-                        stagingWorldPath,
+                byte[] whitelist = whitelistService.toJson(
                         new WhitelistService.WhitelistConfig(whitelistEnabled, whitelistPlayers));
+                transferService.patchRemoteFile(remoteWorld, WHITELIST_PATH, current -> whitelist, profile);
             }
-            transferService.syncLocalToRemoteWorld(stagedLocalWorld, remoteWorldForSync, profile);
             return remoteWorldPath;
         } catch (Exception exception) {
             throw new IOException("Failed to save server world changes: " + exception.getMessage(), exception);
-        } finally {
-            deleteWorldDirectory(stagingRoot);
         }
     }
 
@@ -522,6 +575,24 @@ public class WorldDetailsController {
         }
     }
 
+    private String duplicateServerWorld(WorldEntry world, RemoteProfile profile, TransferService transferService)
+            throws IOException {
+        if (world == null || profile == null || transferService == null) {
+            throw new IOException("Server world duplication context is unavailable.");
+        }
+        String duplicatePath;
+        try {
+            duplicatePath = transferService.duplicateRemoteWorld(world, profile);
+        } catch (Exception exception) {
+            Throwable cause = exception.getCause() == null ? exception : exception.getCause();
+            throw new IOException(cause.getMessage(), exception);
+        }
+        if (duplicatePath == null || duplicatePath.isBlank()) {
+            throw new IOException("The server did not report the duplicated world.");
+        }
+        return duplicatePath;
+    }
+
     static boolean matchesDeleteConfirmation(String expectedWorldName, String enteredWorldName) {
         if (expectedWorldName == null || enteredWorldName == null) {
             return false;
@@ -596,23 +667,29 @@ public class WorldDetailsController {
             throw new IOException("World folder is unavailable.");
         }
 
-        String normalizedWorldName = normalizeIdentityInput(worldName);
-        Path configPath = worldFolderPath.resolve("universe/worlds/default/config.json");
+        Path configPath = worldFolderPath.resolve(WORLD_CONFIG_PATH);
         if (!Files.exists(configPath)) {
             throw new IOException("World config file does not exist.");
         }
 
-        String config = Files.readString(configPath, StandardCharsets.UTF_8);
-        String escapedName = escapeJson(normalizedWorldName);
-        Matcher displayNameMatcher = DISPLAY_NAME_FIELD_PATTERN.matcher(config);
-        if (displayNameMatcher.find()) {
-            String replacement = Matcher.quoteReplacement("\"DisplayName\": \"" + escapedName + "\"");
-            config = displayNameMatcher.replaceFirst(replacement);
+        Files.write(configPath, withWorldDisplayName(Files.readAllBytes(configPath), worldName));
+    }
+
+    static byte[] withWorldDisplayName(byte[] config, String worldName) {
+        String escapedName = escapeJson(normalizeIdentityInput(worldName));
+        JsonFieldExtractor.Span displayName = JsonFieldExtractor
+                .extract(config, List.of(DISPLAY_NAME_FIELD))
+                .span(DISPLAY_NAME_FIELD);
+        String updated;
+        if (displayName != null) {
+            updated = new String(config, 0, displayName.start(), StandardCharsets.UTF_8)
+                    + "\"" + escapedName + "\""
+                    + new String(config, displayName.end(), config.length - displayName.end(), StandardCharsets.UTF_8);
         } else {
             String insertion = "{\n  \"DisplayName\": \"" + escapedName + "\",";
-            config = config.replaceFirst("\\{", Matcher.quoteReplacement(insertion));
+            updated = new String(config, StandardCharsets.UTF_8).replaceFirst("\\{", Matcher.quoteReplacement(insertion));
         }
-        Files.writeString(configPath, config, StandardCharsets.UTF_8);
+        return updated.getBytes(StandardCharsets.UTF_8);
     }
 
     static void deleteWorldDirectory(Path worldPath) throws IOException {
@@ -678,46 +755,54 @@ public class WorldDetailsController {
         }
     }
 
-    private WhitelistService.WhitelistConfig loadServerWhitelistIntoDialog(
+    private void loadServerDetailsAsync(
             WorldEntry world,
             RemoteProfile profile,
             TransferService transferService,
-            CheckBox enabledCheckBox,
-            ListView<String> playerUuids,
-            Label statusLabel) {
+            Consumer<ServerWorldDetails> onLoaded) {
         if (world == null || profile == null || transferService == null) {
-            enabledCheckBox.setSelected(true);
-            playerUuids.setItems(FXCollections.observableArrayList());
-            statusLabel.setText("Failed to load whitelist: server world context is unavailable.");
-            return new WhitelistService.WhitelistConfig(true, List.of());
+            onLoaded.accept(new ServerWorldDetails(
+                    new WhitelistService.WhitelistConfig(true, List.of()),
+                    null,
+                    null,
+                    null,
+                    "server world context is unavailable."));
+            return;
         }
 
-        Path stagingRoot = null;
-        try {
-            stagingRoot = Files.createTempDirectory("world-portal-server-world-load");
-            Path stagingWorldPath = stagingRoot.resolve(valueOrUnknown(world.getId()));
-            WorldEntry stagedLocalWorld = new WorldEntry();
-            stagedLocalWorld.setPath(stagingWorldPath.toString());
+        runAsync(() -> {
+            ServerWorldDetails details = loadServerDetails(world, profile, transferService, whitelistService);
+            Platform.runLater(() -> onLoaded.accept(details));
+        });
+    }
 
-            transferService.syncRemoteToLocalWorld(world, stagedLocalWorld, profile);
-            WhitelistService.WhitelistConfig config = whitelistService.load(stagingWorldPath);
-            enabledCheckBox.setSelected(config.enabled());
-            playerUuids.setItems(FXCollections.observableArrayList(config.playerUuids()));
-            statusLabel.setText("");
-            return config;
+    static ServerWorldDetails loadServerDetails(
+            WorldEntry world,
+            RemoteProfile profile,
+            TransferService transferService,
+            WhitelistService whitelistService) {
+        WhitelistService.WhitelistConfig whitelist = new WhitelistService.WhitelistConfig(true, List.of());
+        String failure = null;
+        try {
+            whitelist = whitelistService.load(transferService.readRemoteFile(world, WHITELIST_PATH, profile));
         } catch (Exception exception) {
-            enabledCheckBox.setSelected(true);
-            playerUuids.setItems(FXCollections.observableArrayList());
-            statusLabel.setText("Failed to load whitelist: " + exception.getMessage());
-            return new WhitelistService.WhitelistConfig(true, List.of());
-        } finally {
-            if (stagingRoot != null) {
-                try {
-                    deleteWorldDirectory(stagingRoot);
-                } catch (IOException ignored) {
-                }
+            failure = exception.getMessage();
+        }
+
+        try {
+            byte[] content = transferService.readRemoteFile(world, WORLD_CONFIG_PATH, profile);
+            if (content != null) {
+                JsonFieldExtractor.Fields config = JsonFieldExtractor.extract(content, SERVER_CONFIG_FIELDS);
+                return new ServerWorldDetails(
+                        whitelist,
+                        config.string(DISPLAY_NAME_FIELD),
+                        config.string(GAME_MODE_FIELD),
+                        config.string(GAME_TIME_FIELD),
+                        failure);
             }
+        } catch (Exception ignored) {
         }
+        return new ServerWorldDetails(whitelist, null, null, null, failure);
     }
 
     private String displayName(WorldEntry world) {
@@ -794,6 +879,7 @@ public class WorldDetailsController {
         detailsUuidInput.setDisable(busy);
         detailsAddUuidButton.setDisable(busy);
         detailsRemoveUuidButton.setDisable(busy);
+        detailsDuplicateWorldButton.setDisable(busy);
         detailsDeleteWorldButton.setDisable(busy);
         detailsSaveIdentityButton.setDisable(busy);
         detailsWindowMinimizeButton.setDisable(busy);
@@ -804,6 +890,23 @@ public class WorldDetailsController {
         }
     }
 
+    private void setServerDetailsLoading(boolean loading) {
+        detailsWhitelistEnabledCheckBox.setDisable(loading);
+        detailsWhitelistList.setDisable(loading);
+        detailsUuidInput.setDisable(loading);
+        detailsAddUuidButton.setDisable(loading);
+        detailsRemoveUuidButton.setDisable(loading);
+        detailsSaveIdentityButton.setDisable(loading);
+    }
+
+    record ServerWorldDetails(
+            WhitelistService.WhitelistConfig whitelist,
+            String displayName,
+            String gameMode,
+            String gameTime,
+            String failure) {
+    }
+
     private record SaveResult(Path updatedLocalPath, String updatedWorldPath, String updatedWorldId) {
     }
 }
@@ -0,0 +1,76 @@
+package io.worldportal.app.ui;
+
+import io.worldportal.app.model.WorldEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+final class WorldListBatcher implements Consumer<WorldEntry> {
+    static final Comparator<WorldEntry> NEWEST_FIRST = Comparator.comparing(
+            WorldEntry::getLastModified,
+            Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final List<WorldEntry> target;
+    private final Consumer<Runnable> uiExecutor;
+    private final List<WorldEntry> pending = new ArrayList<>();
+    private boolean flushScheduled;
+    private volatile boolean cancelled;
+
+    WorldListBatcher(List<WorldEntry> target, Consumer<Runnable> uiExecutor) {
+        this.target = target;
+        this.uiExecutor = uiExecutor;
+    }
+
+    @Override
+    public void accept(WorldEntry world) {
+        if (world == null || cancelled) {
+            return;
+        }
+        boolean schedule;
+        synchronized (pending) {
+            pending.add(world);
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (schedule) {
+            uiExecutor.accept(this::flush);
+        }
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    private void flush() {
+        List<WorldEntry> batch;
+        synchronized (pending) {
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            flushScheduled = false;
+        }
+        if (cancelled) {
+            return;
+        }
+        for (WorldEntry world : batch) {
+            target.removeIf(existing -> Objects.equals(existing.getId(), world.getId()));
+            target.add(insertionIndex(world), world);
+        }
+    }
+
+    private int insertionIndex(WorldEntry world) {
+        int low = 0;
+        int high = target.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (NEWEST_FIRST.compare(target.get(middle), world) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
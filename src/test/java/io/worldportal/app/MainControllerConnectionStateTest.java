@@ -354,6 +354,38 @@ class MainControllerConnectionStateTest {
         });
     }
 
+    @Test
+    void disconnectedRemoteRefreshShowsCachedRemoteWorlds() throws Exception {
+        Assumptions.assumeTrue(javaFxAvailable, "JavaFX runtime is not available in this environment");
+        WorldEntry cached = new WorldEntry();
+        cached.setId("CachedFolder");
+        cached.setPath("/srv/worlds/CachedFolder");
+        MainController controller = new MainController(new NoOpWorldService() {
+            @Override
+            public List<WorldEntry> listCachedRemoteWorlds(RemoteProfile profile) {
+                return List.of(cached);
+            }
+        }, new RecordingTransferService());
+
+        setField(controller, "hostField", new TextField("example.com"));
+        setField(controller, "portField", new TextField("22"));
+        setField(controller, "usernameField", new TextField("user"));
+        setField(controller, "remotePathField", new TextField("/srv/worlds"));
+        setField(controller, "localWorldsPathField", new TextField("/tmp/worlds"));
+        ComboBox<String> authTypeCombo = new ComboBox<>(FXCollections.observableArrayList("Password"));
+        authTypeCombo.getSelectionModel().select("Password");
+        setField(controller, "authTypeCombo", authTypeCombo);
+        setField(controller, "passwordField", new PasswordField());
+        setField(controller, "publicKeyFileCombo", new ComboBox<String>());
+
+        Method method = MainController.class.getDeclaredMethod("refreshRemoteWorlds");
+        method.setAccessible(true);
+        method.invoke(controller);
+
+        ObservableList<WorldEntry> remoteWorlds = getObservableWorldList(controller, "remoteWorlds");
+        runOnFxThreadAndWait(() -> assertEquals(List.of(cached), remoteWorlds));
+    }
+
     private static void invokeBusyState(MainController controller, boolean busy) {
         try {
             Method method = MainController.class.getDeclaredMethod("setRemoteConnectionBusy", boolean.class);
@@ -107,4 +107,30 @@ class ConnectionSettingsStoreTest {
         String content = Files.readString(file);
         assertFalse(content.contains("publicKeyFile="));
     }
+
+    @Test
+    void persistsTransferParallelismWhenConfigured() throws Exception {
+        Path tempDir = Files.createTempDirectory("world-portal-store-test");
+        ConnectionSettingsStore store = new ConnectionSettingsStore(tempDir.resolve("connection.properties"));
+
+        RemoteProfile profile = new RemoteProfile(
+                "example.com",
+                22,
+                "player",
+                "/srv/worlds",
+                "Password",
+                "",
+                "",
+                ""
+        );
+        profile.setTransferParallelism(6);
+        profile.setMaxSessions(3);
+
+        store.save(profile);
+        RemoteProfile loaded = store.load();
+
+        assertNotNull(loaded);
+        assertEquals(6, loaded.getTransferParallelism());
+        assertEquals(3, loaded.getMaxSessions());
+    }
 }
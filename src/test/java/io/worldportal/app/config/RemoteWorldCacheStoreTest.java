@@ -0,0 +1,95 @@
+package io.worldportal.app.config;
+
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld;
+import io.worldportal.app.model.RemoteProfile;
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteWorldCacheStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void resolvesLinuxCacheDirectoryFromXdgCacheHome() {
+        Path resolved = RemoteWorldCacheStore.resolveCacheDirectory(
+                "Linux",
+                "/home/alice",
+                null,
+                "/home/alice/.cache-custom"
+        );
+
+        assertEquals(Paths.get("/home/alice/.cache-custom", "world-portal", "remote-worlds"), resolved);
+    }
+
+    @Test
+    void resolvesWindowsCacheDirectoryFromLocalAppData() {
+        Path resolved = RemoteWorldCacheStore.resolveCacheDirectory(
+                "Windows 11",
+                "C:\\Users\\alice",
+                "C:\\Users\\alice\\AppData\\Local",
+                null
+        );
+
+        assertEquals(Paths.get("C:\\Users\\alice\\AppData\\Local", "world-portal", "remote-worlds"), resolved);
+    }
+
+    @Test
+    void saveAndLoadRoundTripKeepsWorldsAndStamps() {
+        RemoteWorldCacheStore store = new RemoteWorldCacheStore(tempDir);
+        RemoteProfile profile = profile("/srv/worlds");
+        WorldEntry world = new WorldEntry(
+                "Skyland",
+                "Sky Land",
+                "/srv/worlds/Skyland",
+                "/tmp/preview.png",
+                "Adventure",
+                "release",
+                Instant.ofEpochSecond(1_700_000_000L));
+        world.setUuidBinary("AAAA");
+        world.setGameTimeIso("2026-01-01T00:00:00Z");
+
+        store.save(profile, List.of(new CachedWorld(world, new CachedWorld.FileStamp(1_700_000_000L, 321), null)));
+        List<CachedWorld> loaded = store.load(profile);
+
+        assertEquals(1, loaded.size());
+        CachedWorld cached = loaded.get(0);
+        assertEquals("Sky Land", cached.world().getName());
+        assertEquals("/srv/worlds/Skyland", cached.world().getPath());
+        assertEquals("Adventure", cached.world().getGameMode());
+        assertEquals("release", cached.world().getPatchLine());
+        assertEquals("AAAA", cached.world().getUuidBinary());
+        assertEquals("2026-01-01T00:00:00Z", cached.world().getGameTimeIso());
+        assertEquals(Instant.ofEpochSecond(1_700_000_000L), cached.world().getLastModified());
+        assertEquals(new CachedWorld.FileStamp(1_700_000_000L, 321), cached.config());
+        assertNull(cached.clientMetadata());
+        assertTrue(cached.matches(new CachedWorld.FileStamp(1_700_000_000L, 321), null));
+    }
+
+    @Test
+    void keepsSeparateCachePerRemoteBasePath() {
+        RemoteWorldCacheStore store = new RemoteWorldCacheStore(tempDir);
+        WorldEntry world = new WorldEntry("A", "A", "/srv/a/A", null, "Unknown", "Unknown", Instant.EPOCH);
+
+        store.save(profile("/srv/a"), List.of(new CachedWorld(world, null, null)));
+
+        assertNotEquals(store.cacheFile(profile("/srv/a")), store.cacheFile(profile("/srv/b")));
+        assertTrue(store.load(profile("/srv/b")).isEmpty());
+        assertEquals(1, store.load(profile("/srv/a")).size());
+    }
+
+    private static RemoteProfile profile(String remoteBasePath) {
+        return new RemoteProfile("example.com", 22, "player", remoteBasePath, "Password", "", "", "");
+    }
+}
@@ -0,0 +1,55 @@
+package io.worldportal.app.config;
+
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+import io.worldportal.app.config.WorldSyncStateStore.SyncedFile;
+import io.worldportal.app.model.RemoteProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldSyncStateStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void saveAndLoadRoundTripKeepsStampsAndHashes() {
+        WorldSyncStateStore store = new WorldSyncStateStore(tempDir);
+        RemoteProfile profile = profile();
+        Path localWorld = tempDir.resolve("worlds/Skyland");
+        Map<String, SyncedFile> files = Map.of(
+                "config.json", new SyncedFile(new FileStamp(10L, 20L), new FileStamp(11L, 20L), "abc123"),
+                "universe/worlds/default/chunks/0.region",
+                new SyncedFile(new FileStamp(12L, 4096L), new FileStamp(13L, 4096L), null));
+
+        store.save(profile, "/srv/worlds/Skyland", localWorld, files);
+
+        assertEquals(files, store.load(profile, "/srv/worlds/Skyland", localWorld));
+    }
+
+    @Test
+    void keepsSeparateStatePerWorldPair() {
+        WorldSyncStateStore store = new WorldSyncStateStore(tempDir);
+        RemoteProfile profile = profile();
+        Path localWorld = tempDir.resolve("worlds/Skyland");
+        store.save(profile, "/srv/worlds/Skyland", localWorld, Map.of(
+                "config.json", new SyncedFile(new FileStamp(1L, 2L), new FileStamp(1L, 2L), null)));
+
+        assertNotEquals(
+                store.stateFile(profile, "/srv/worlds/Skyland", localWorld),
+                store.stateFile(profile, "/srv/worlds/Skyland_1", localWorld));
+        assertTrue(store.load(profile, "/srv/worlds/Skyland_1", localWorld).isEmpty());
+        assertTrue(store.load(profile, "/srv/worlds/Skyland", tempDir.resolve("worlds/Other")).isEmpty());
+        assertEquals(1, store.load(profile, "/srv/worlds/Skyland", localWorld).size());
+    }
+
+    private static RemoteProfile profile() {
+        return new RemoteProfile("example.com", 22, "player", "/srv/worlds", "Password", "", "", "");
+    }
+}
@@ -0,0 +1,131 @@
+package io.worldportal.app.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockDeltaTest {
+    private static final int BLOCK = BlockDelta.MIN_BLOCK_SIZE;
+
+    @Test
+    void rollingChecksumMatchesFreshlyComputedChecksum() throws IOException {
+        byte[] data = random(BLOCK * 3, 1);
+        byte[] shifted = new byte[data.length + 1];
+        System.arraycopy(data, 0, shifted, 1, data.length);
+        shifted[0] = 42;
+
+        BlockDelta.Signature signature = signature(data);
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        BlockDelta.Stats stats = BlockDelta.encode(new ByteArrayInputStream(shifted), signature, delta);
+
+        assertEquals(1, stats.literalBytes());
+        assertEquals(data.length, stats.copiedBytes());
+        assertArrayEquals(shifted, apply(data, BLOCK, delta.toByteArray()));
+    }
+
+    @Test
+    void identicalContentIsSentAsOneCopyRun() throws IOException {
+        byte[] data = random(BLOCK * 5 + 123, 2);
+
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        BlockDelta.Stats stats = BlockDelta.encode(new ByteArrayInputStream(data), signature(data), delta);
+
+        assertEquals(0, stats.literalBytes());
+        assertEquals(1 + 8 + 1, delta.size());
+        assertArrayEquals(data, apply(data, BLOCK, delta.toByteArray()));
+    }
+
+    @Test
+    void scatteredEditsOnlySendTheTouchedBlocks() throws IOException {
+        byte[] original = random(BLOCK * 64, 3);
+        byte[] edited = Arrays.copyOf(original, original.length + 500);
+        edited[BLOCK * 10 + 7] ^= 0x55;
+        edited[BLOCK * 40] ^= 0x11;
+        System.arraycopy(random(500, 4), 0, edited, original.length, 500);
+
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        BlockDelta.Stats stats = BlockDelta.encode(new ByteArrayInputStream(edited), signature(original), delta);
+
+        assertTrue(stats.literalBytes() <= 2L * BLOCK + 500, "literal bytes " + stats.literalBytes());
+        assertArrayEquals(edited, apply(original, BLOCK, delta.toByteArray()));
+    }
+
+    @Test
+    void matchesBlocksAcrossLiteralsLargerThanTheReadWindow() throws IOException {
+        byte[] original = random(BLOCK * 8, 5);
+        byte[] inserted = random(3 * 1024 * 1024 + 17, 6);
+        byte[] edited = new byte[original.length + inserted.length];
+        System.arraycopy(original, 0, edited, 0, BLOCK * 4);
+        System.arraycopy(inserted, 0, edited, BLOCK * 4, inserted.length);
+        System.arraycopy(original, BLOCK * 4, edited, BLOCK * 4 + inserted.length, BLOCK * 4);
+
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        BlockDelta.Stats stats = BlockDelta.encode(new ByteArrayInputStream(edited), signature(original), delta);
+
+        assertEquals(inserted.length, stats.literalBytes());
+        assertEquals(original.length, stats.copiedBytes());
+        assertArrayEquals(edited, apply(original, BLOCK, delta.toByteArray()));
+    }
+
+    @Test
+    void repeatedBlocksShareOneWeakChecksum() throws IOException {
+        byte[] block = random(BLOCK, 7);
+        byte[] original = new byte[BLOCK * 4];
+        for (int index = 0; index < 4; index++) {
+            System.arraycopy(block, 0, original, index * BLOCK, BLOCK);
+        }
+
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        byte[] edited = Arrays.copyOf(original, original.length + BLOCK);
+        System.arraycopy(block, 0, edited, original.length, BLOCK);
+        BlockDelta.Stats stats = BlockDelta.encode(new ByteArrayInputStream(edited), signature(original), delta);
+
+        assertEquals(0, stats.literalBytes());
+        assertEquals(edited.length, stats.copiedBytes());
+        assertArrayEquals(edited, apply(original, BLOCK, delta.toByteArray()));
+    }
+
+    @Test
+    void blockSizeGrowsWithFileSizeWithinBounds() {
+        assertEquals(BlockDelta.MIN_BLOCK_SIZE, BlockDelta.blockSizeFor(10_000));
+        assertEquals(4 * 1024, BlockDelta.blockSizeFor(16L * 1024 * 1024));
+        assertEquals(BlockDelta.MAX_BLOCK_SIZE, BlockDelta.blockSizeFor(1L << 40));
+    }
+
+    private static BlockDelta.Signature signature(byte[] data) throws IOException {
+        return BlockDelta.signature(new ByteArrayInputStream(data), BLOCK);
+    }
+
+    private static byte[] apply(byte[] basis, int blockSize, byte[] delta) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(delta));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        while (true) {
+            int op = input.readUnsignedByte();
+            if (op == BlockDelta.OP_END) {
+                return output.toByteArray();
+            }
+            if (op == BlockDelta.OP_COPY) {
+                int start = input.readInt() * blockSize;
+                int end = Math.min(basis.length, start + input.readInt() * blockSize);
+                output.write(basis, start, end - start);
+            } else {
+                output.write(input.readNBytes(input.readInt()));
+            }
+        }
+    }
+
+    private static byte[] random(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
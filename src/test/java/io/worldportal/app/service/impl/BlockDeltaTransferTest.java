@@ -0,0 +1,107 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BlockDeltaTransferTest {
+    private static final int SIZE = 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        assumeTrue(SftpTestServer.supportsRemoteCommands() && pythonAvailable());
+        server = SftpTestServer.start(Files.createDirectories(tempDir.resolve("remote")));
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void uploadSendsOnlyChangedBlocks() throws Exception {
+        byte[] original = random(SIZE, 1);
+        byte[] edited = edit(original);
+        Path remoteFile = tempDir.resolve("remote/0.0.region.bin");
+        Files.write(remoteFile, original);
+        Path localFile = Files.write(tempDir.resolve("local.bin"), edited);
+
+        BlockDelta.Stats stats;
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            stats = BlockDeltaTransfer.upload(lease.session(), localFile, server.remotePath(remoteFile), SIZE);
+        }
+
+        assertArrayEquals(edited, Files.readAllBytes(remoteFile));
+        assertEquals(edited.length, stats.copiedBytes() + stats.literalBytes());
+        assertTrue(stats.literalBytes() < edited.length / 20, "literal bytes " + stats.literalBytes());
+    }
+
+    @Test
+    void downloadFetchesOnlyChangedBlocks() throws Exception {
+        byte[] original = random(SIZE, 2);
+        byte[] edited = edit(original);
+        Path remoteFile = Files.write(tempDir.resolve("remote/0.0.region.bin"), edited);
+        Path localFile = Files.write(tempDir.resolve("local.bin"), original);
+
+        BlockDelta.Stats stats;
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            ChannelSftp channel = lease.openSftpChannel();
+            stats = BlockDeltaTransfer.download(
+                    lease.session(), channel, server.remotePath(remoteFile), localFile, edited.length);
+        }
+
+        assertArrayEquals(edited, Files.readAllBytes(localFile));
+        assertEquals(edited.length, stats.copiedBytes() + stats.literalBytes());
+        assertTrue(stats.literalBytes() < edited.length / 4, "fetched bytes " + stats.literalBytes());
+    }
+
+    private static byte[] edit(byte[] original) {
+        byte[] edited = Arrays.copyOf(original, original.length);
+        edited[100_000] ^= 0x7f;
+        System.arraycopy(random(3000, 9), 0, edited, 600_000, 3000);
+        return edited;
+    }
+
+    private static byte[] random(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static boolean pythonAvailable() {
+        try {
+            Process process = new ProcessBuilder("python3", "--version").redirectErrorStream(true).start();
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            return process.waitFor() == 0;
+        } catch (IOException | InterruptedException exception) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.worldportal.app.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JsonFieldExtractorTest {
+
+    @Test
+    void extractsNestedPathsAndFirstOccurrence() {
+        JsonFieldExtractor.Fields fields = JsonFieldExtractor.extract("""
+                {"Meta":{"DisplayName":"Inner"},"DisplayName":"Outer","GameTime":12,
+                 "Other":{"$binary":"wrong"},"UUID":{"$type":"04","$binary":"AAAA"}}
+                """, List.of("DisplayName", "UUID.$binary", "GameTime"));
+
+        assertEquals("Inner", fields.string("DisplayName"));
+        assertEquals("AAAA", fields.string("UUID.$binary"));
+        assertEquals("12", fields.string("GameTime"));
+    }
+
+    @Test
+    void decodesEscapesAndReportsValueSpan() {
+        String json = "{\"DisplayName\" : \"My \\\"Quoted\\\" \\u00e9 World\", \"GameMode\":\"Creative\"}";
+
+        JsonFieldExtractor.Fields fields = JsonFieldExtractor.extract(json, List.of("DisplayName"));
+
+        assertEquals("My \"Quoted\" é World", fields.string("DisplayName"));
+        JsonFieldExtractor.Span span = fields.span("DisplayName");
+        assertEquals("\"My \\\"Quoted\\\" \\u00e9 World\"", json.substring(span.start(), span.end()));
+    }
+
+    @Test
+    void collectsScalarArraysIncludingRootArray() {
+        JsonFieldExtractor.Fields object = JsonFieldExtractor.extract(
+                "{\"list\":[\"a\", \"b\", null, {\"x\":1}], \"enabled\": false}",
+                List.of("list", "enabled"));
+        JsonFieldExtractor.Fields root = JsonFieldExtractor.extract(
+                "[\"one\",\"two\"]",
+                List.of(JsonFieldExtractor.ROOT));
+
+        assertEquals(List.of("a", "b"), object.strings("list"));
+        assertEquals("false", object.string("enabled"));
+        assertEquals(List.of("one", "two"), root.strings(JsonFieldExtractor.ROOT));
+    }
+
+    @Test
+    void stopsReadingOnceAllFieldsAreFound() throws IOException {
+        byte[] prefix = "{\"DisplayName\":\"World\",\"GameMode\":\"Adventure\",".getBytes(StandardCharsets.UTF_8);
+        InputStream stream = new SequenceInputStream(new ByteArrayInputStream(prefix), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Read past the requested fields.");
+            }
+        });
+
+        JsonFieldExtractor.Fields fields = JsonFieldExtractor.extract(stream, List.of("DisplayName", "GameMode"));
+
+        assertEquals("World", fields.string("DisplayName"));
+        assertEquals("Adventure", fields.string("GameMode"));
+    }
+
+    @Test
+    void rootPathDoesNotDelayEarlyExitForObjectRoots() throws IOException {
+        byte[] prefix = "{\"enabled\":true,\"list\":[\"Steve\"],".getBytes(StandardCharsets.UTF_8);
+        InputStream stream = new SequenceInputStream(new ByteArrayInputStream(prefix), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Read past the requested fields.");
+            }
+        });
+
+        JsonFieldExtractor.Fields fields =
+                JsonFieldExtractor.extract(stream, List.of("enabled", "list", JsonFieldExtractor.ROOT));
+
+        assertEquals("true", fields.string("enabled"));
+        assertEquals(List.of("Steve"), fields.strings("list"));
+        assertNull(fields.strings(JsonFieldExtractor.ROOT));
+    }
+
+    @Test
+    void keepsFieldsFoundBeforeMalformedInput() {
+        JsonFieldExtractor.Fields fields = JsonFieldExtractor.extract(
+                "{\"DisplayName\":\"World\",\"GameMode\":",
+                List.of("DisplayName", "GameMode"));
+
+        assertEquals("World", fields.string("DisplayName"));
+        assertNull(fields.string("GameMode"));
+        assertNull(JsonFieldExtractor.extract((String) null, List.of("DisplayName")).string("DisplayName"));
+    }
+
+    @Test
+    void rejectsDeeplyNestedArraysWithoutOverflowingTheStack() {
+        String nested = "{\"DisplayName\":\"World\",\"Junk\":" + "[".repeat(100_000);
+
+        JsonFieldExtractor.Fields fields = JsonFieldExtractor.extract(nested, List.of("DisplayName", "GameMode"));
+
+        assertEquals("World", fields.string("DisplayName"));
+        assertNull(fields.string("GameMode"));
+    }
+}
@@ -0,0 +1,112 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.WorldEntry;
+import io.worldportal.app.service.LocalWorldListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LocalWorldIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void pushesOnlyChangedWorldsAndServesListingFromIndex() throws Exception {
+        for (int index = 0; index < 5; index++) {
+            StubWorldServiceLocalScanTest.createWorld(
+                    tempDir, "world-" + index, Instant.ofEpochSecond(1_700_000_000L + index));
+        }
+        StubWorldService service = new StubWorldService(null, false, null);
+        RecordingListener listener = new RecordingListener();
+
+        try (AutoCloseable ignored = service.watchLocalWorlds(tempDir.toString(), listener)) {
+            List<WorldEntry> initial = service.listLocalWorlds(tempDir.toString());
+            assertEquals(5, initial.size());
+
+            Path config = tempDir.resolve("world-2").resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH);
+            Files.writeString(config, "{\"DisplayName\":\"Renamed\"}");
+            assertEquals("Renamed", listener.nextUpdate("world-2").getName());
+
+            Files.writeString(tempDir.resolve("world-3").resolve(LocalWorldIndex.PREVIEW_RELATIVE_PATH), "png");
+            assertNotNull(listener.nextUpdate("world-3").getPreviewImagePath());
+
+            StubWorldServiceLocalScanTest.createWorld(tempDir, "world-new", Instant.ofEpochSecond(1_800_000_000L));
+            assertEquals("World new", listener.nextUpdate("world-new").getName());
+
+            Files.delete(tempDir.resolve("world-0").resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH));
+            assertEquals("world-0", listener.removed.poll(10, TimeUnit.SECONDS));
+
+            List<WorldEntry> current = service.listLocalWorlds(tempDir.toString());
+            assertEquals(5, current.size());
+            assertEquals("world-new", current.get(0).getId());
+            assertSame(initial.stream().filter(world -> world.getId().equals("world-4")).findFirst().orElseThrow(),
+                    current.stream().filter(world -> world.getId().equals("world-4")).findFirst().orElseThrow());
+        }
+    }
+
+    @Test
+    void rescanReseedsIndexWithoutWaitingForWatchEvents() throws Exception {
+        for (int index = 0; index < 3; index++) {
+            StubWorldServiceLocalScanTest.createWorld(
+                    tempDir, "world-" + index, Instant.ofEpochSecond(1_700_000_000L + index));
+        }
+        StubWorldService service = new StubWorldService(null, false, null);
+
+        try (AutoCloseable ignored = service.watchLocalWorlds(tempDir.toString(), new RecordingListener())) {
+            StubWorldServiceLocalScanTest.createWorld(tempDir, "world-new", Instant.ofEpochSecond(1_800_000_000L));
+            Files.delete(tempDir.resolve("world-0").resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH));
+
+            List<WorldEntry> rescanned = service.rescanLocalWorlds(tempDir.toString());
+            assertEquals(List.of("world-new", "world-2", "world-1"), ids(rescanned));
+            assertEquals(ids(rescanned), ids(service.listLocalWorlds(tempDir.toString())));
+        }
+    }
+
+    private static List<String> ids(List<WorldEntry> worlds) {
+        return worlds.stream().map(WorldEntry::getId).toList();
+    }
+
+    private static final class RecordingListener implements LocalWorldListener {
+        private final BlockingQueue<WorldEntry> updated = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> removed = new LinkedBlockingQueue<>();
+
+        @Override
+        public void worldUpdated(WorldEntry world) {
+            updated.add(world);
+        }
+
+        @Override
+        public void worldRemoved(String worldId) {
+            removed.add(worldId);
+        }
+
+        private WorldEntry nextUpdate(String worldId) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (System.nanoTime() < deadline) {
+                WorldEntry world = updated.poll(100, TimeUnit.MILLISECONDS);
+                if (world != null && world.getId().equals(worldId)) {
+                    WorldEntry latest = world;
+                    while ((world = updated.poll(300, TimeUnit.MILLISECONDS)) != null) {
+                        if (world.getId().equals(worldId)) {
+                            latest = world;
+                        }
+                    }
+                    return latest;
+                }
+            }
+            throw new AssertionError("No update for " + worldId);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class LocalWorldScanBenchmarkTest {
+    private static final int WORLD_COUNT = 1_000;
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parallelScanOfSyntheticWorldTree() throws Exception {
+        for (int index = 0; index < WORLD_COUNT; index++) {
+            StubWorldServiceLocalScanTest.createWorld(
+                    tempDir, "world-" + index, Instant.ofEpochSecond(1_700_000_000L + index));
+        }
+
+        StubWorldService sequential = new StubWorldService(null, false, null);
+        sequential.setLocalScanConcurrency(1);
+        StubWorldService parallel = new StubWorldService(null, false, null);
+
+        sequential.listLocalWorlds(tempDir.toString());
+        parallel.listLocalWorlds(tempDir.toString());
+
+        long sequentialMillis = bestOf(sequential);
+        long parallelMillis = bestOf(parallel);
+
+        System.out.printf("Local scan of %d worlds: sequential %d ms, parallel %d ms%n",
+                WORLD_COUNT, sequentialMillis, parallelMillis);
+    }
+
+    private long bestOf(StubWorldService service) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long startedAt = System.nanoTime();
+            List<WorldEntry> worlds = service.listLocalWorlds(tempDir.toString());
+            best = Math.min(best, (System.nanoTime() - startedAt) / 1_000_000L);
+            assertEquals(WORLD_COUNT, worlds.size());
+        }
+        return best;
+    }
+}
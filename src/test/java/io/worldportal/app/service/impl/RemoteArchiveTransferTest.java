@@ -0,0 +1,143 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.RemoteProfile;
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RemoteArchiveTransferTest {
+    private static final String LONG_NAME = "universe/worlds/default/" + "nested-directory/".repeat(6) + "deep.json";
+    private static final Instant MODIFIED = Instant.parse("2024-05-01T12:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @AfterEach
+    void stopServer() throws IOException {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void extractRestoresNamesAndTimesAndSkipsEscapingEntries() throws IOException {
+        Path source = Files.createDirectories(tempDir.resolve("source"));
+        Path longFile = write(source, LONG_NAME, "deep");
+        Path escaping = write(source, "escape.txt", "outside");
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(archive)) {
+            TarStreams.Writer writer = new TarStreams.Writer(gzip);
+            writer.putFile(LONG_NAME, longFile);
+            writer.putFile("../escape.txt", escaping);
+            writer.finish();
+        }
+
+        Path target = tempDir.resolve("target/World");
+        RemoteArchiveTransfer.extract(new ByteArrayInputStream(archive.toByteArray()), target);
+
+        assertEquals("deep", Files.readString(target.resolve(LONG_NAME)));
+        assertEquals(MODIFIED, Files.getLastModifiedTime(target.resolve(LONG_NAME)).toInstant());
+        assertFalse(Files.exists(tempDir.resolve("target/escape.txt")));
+    }
+
+    @Test
+    void uploadOfManyFilesStreamsOneArchiveInsteadOfPerFileSftp() throws IOException {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        Path remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        Path localWorld = createWorld(tempDir.resolve("local/Skyland"));
+        startServer(remoteRoot);
+
+        service().uploadWorld(world(localWorld.toString()), server.profile());
+
+        Path remoteWorld = remoteRoot.resolve("Skyland");
+        assertWorldCopied(localWorld, remoteWorld);
+        assertFalse(Files.exists(remoteWorld.resolve("logs")));
+        assertTrue(server.sftpRequestCount() < 40, "sftp requests " + server.sftpRequestCount());
+    }
+
+    @Test
+    void downloadStreamsTheIncludedEntriesAsOneArchive() throws IOException {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        Path remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        Path remoteWorld = createWorld(remoteRoot.resolve("Skyland"));
+        Path localRoot = tempDir.resolve("local");
+        startServer(remoteRoot);
+        RemoteProfile profile = server.profile();
+        profile.setLocalWorldsPath(localRoot.toString());
+
+        service().downloadWorld(world(server.remotePath(remoteWorld)), profile);
+
+        assertWorldCopied(remoteWorld, localRoot.resolve("Skyland"));
+        assertFalse(Files.exists(localRoot.resolve("Skyland/logs")));
+        assertTrue(server.sftpRequestCount() < 40, "sftp requests " + server.sftpRequestCount());
+    }
+
+    private void startServer(Path remoteRoot) throws IOException {
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    private StubTransferService service() {
+        return new StubTransferService(pool);
+    }
+
+    private static WorldEntry world(String path) {
+        WorldEntry world = new WorldEntry();
+        world.setId("Skyland");
+        world.setPath(path);
+        return world;
+    }
+
+    private static Path createWorld(Path world) throws IOException {
+        write(world, "config.json", "{\"DisplayName\":\"Skyland\"}");
+        write(world, LONG_NAME, "deep");
+        write(world, "logs/latest.log", "not transferred");
+        for (int index = 0; index < 60; index++) {
+            write(world, "universe/worlds/default/chunks/" + index + ".region.bin", "chunk-" + index);
+        }
+        return world;
+    }
+
+    private static void assertWorldCopied(Path source, Path target) throws IOException {
+        assertEquals("{\"DisplayName\":\"Skyland\"}", Files.readString(target.resolve("config.json")));
+        assertEquals("deep", Files.readString(target.resolve(LONG_NAME)));
+        for (int index = 0; index < 60; index++) {
+            String chunk = "universe/worlds/default/chunks/" + index + ".region.bin";
+            assertEquals("chunk-" + index, Files.readString(target.resolve(chunk)));
+            assertEquals(
+                    Files.getLastModifiedTime(source.resolve(chunk)).toInstant(),
+                    Files.getLastModifiedTime(target.resolve(chunk)).toInstant());
+        }
+    }
+
+    private static Path write(Path root, String relativePath, String content) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(MODIFIED));
+        return file;
+    }
+}
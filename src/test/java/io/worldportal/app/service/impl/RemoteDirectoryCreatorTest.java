@@ -0,0 +1,95 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteDirectoryCreatorTest {
+    @TempDir
+    Path tempDir;
+
+    private Path remoteRoot;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void newTreesCostOneStatPerKnownAncestorAndOneMkdirPerDirectory() throws Exception {
+        String world = server.remotePath(remoteRoot) + "/Skyland";
+        List<String> directories = new ArrayList<>();
+        for (int region = 0; region < 10; region++) {
+            directories.add(world + "/universe/worlds/default/chunks/r" + region);
+        }
+        int knownAncestors = RemoteDirectoryCreator.withAncestors(server.remotePath(remoteRoot)).size();
+        int naiveRequests = directories.stream().mapToInt(path -> RemoteDirectoryCreator.withAncestors(path).size()).sum();
+
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            ChannelSftp channel = lease.openSftpChannel();
+            RemoteDirectoryCreator creator = new RemoteDirectoryCreator(channel);
+            long before = server.sftpRequestCount();
+
+            creator.ensureAll(directories);
+
+            assertEquals(knownAncestors + 1 + 5 + 10, creator.requests());
+            assertEquals(creator.requests(), server.sftpRequestCount() - before);
+            assertTrue(creator.requests() * 3 < naiveRequests);
+
+            creator.ensureAll(directories);
+            creator.ensure(world + "/universe/worlds");
+            assertEquals(knownAncestors + 1 + 5 + 10, creator.requests());
+        }
+        for (int region = 0; region < 10; region++) {
+            assertTrue(Files.isDirectory(remoteRoot.resolve("Skyland/universe/worlds/default/chunks/r" + region)));
+        }
+    }
+
+    @Test
+    void existingDirectoriesAreStatedOnceAndFilesAreRejected() throws Exception {
+        Files.createDirectories(remoteRoot.resolve("Skyland/universe/players"));
+        Files.writeString(remoteRoot.resolve("Skyland/universe/memories.json"), "{}");
+        String world = server.remotePath(remoteRoot) + "/Skyland";
+        int knownAncestors = RemoteDirectoryCreator.withAncestors(world).size();
+
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            RemoteDirectoryCreator creator = new RemoteDirectoryCreator(lease.openSftpChannel());
+
+            creator.ensureAll(List.of(world + "/universe/players", world + "/universe/worlds"));
+
+            assertEquals(knownAncestors + 2 + 2, creator.requests());
+            assertThrows(IOException.class, () -> creator.ensure(world + "/universe/memories.json"));
+        }
+        assertTrue(Files.isDirectory(remoteRoot.resolve("Skyland/universe/worlds")));
+    }
+
+    @Test
+    void withAncestorsKeepsRelativeAndAbsoluteRoots() {
+        assertEquals(List.of("/srv", "/srv/worlds", "/srv/worlds/Skyland"),
+                RemoteDirectoryCreator.withAncestors("/srv//worlds/Skyland/"));
+        assertEquals(List.of("worlds", "worlds/Skyland"), RemoteDirectoryCreator.withAncestors("worlds\\Skyland"));
+    }
+}
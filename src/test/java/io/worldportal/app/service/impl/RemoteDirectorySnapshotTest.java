@@ -0,0 +1,97 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.RemoteProfile;
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteDirectorySnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private Path remoteRoot;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void answersFromOneListingAndCountsTheAvoidedStats() throws Exception {
+        Path world = Files.createDirectories(remoteRoot.resolve("Skyland/universe"));
+        Files.writeString(remoteRoot.resolve("Skyland/config.json"), "{\"DisplayName\":\"Skyland\"}");
+        AtomicLong avoided = new AtomicLong();
+
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            RemoteDirectorySnapshot snapshot = RemoteDirectorySnapshot.list(
+                    lease.openSftpChannel(), server.remotePath(world.getParent()), avoided);
+            long before = server.sftpRequestCount();
+
+            assertTrue(snapshot.exists());
+            assertTrue(snapshot.isDirectory("universe"));
+            assertTrue(snapshot.isFile("config.json"));
+            assertEquals(25L, snapshot.attributes("config.json").getSize());
+            assertFalse(snapshot.contains("whitelist.json"));
+            assertFalse(snapshot.contains("mods"));
+
+            assertEquals(before, server.sftpRequestCount());
+            assertEquals(4L, avoided.get());
+
+            RemoteDirectorySnapshot missing = RemoteDirectorySnapshot.list(
+                    lease.openSftpChannel(), server.remotePath(remoteRoot.resolve("Missing")), avoided);
+            assertFalse(missing.exists());
+            assertNull(missing.attributes("config.json"));
+        }
+    }
+
+    @Test
+    void sftpDownloadAndUploadResolveExistenceFromListings() throws Exception {
+        Path remoteWorld = remoteRoot.resolve("Skyland");
+        Files.createDirectories(remoteWorld.resolve("universe/worlds/default"));
+        Files.writeString(remoteWorld.resolve("config.json"), "{\"DisplayName\":\"Skyland\"}");
+        Files.writeString(remoteWorld.resolve("whitelist.json"), "{}");
+        Files.writeString(remoteWorld.resolve("universe/worlds/default/0.region.bin"), "chunk");
+        Path localRoot = tempDir.resolve("local");
+        RemoteProfile profile = server.profile();
+        profile.setLocalWorldsPath(localRoot.toString());
+        StubTransferService service = new StubTransferService(pool, null, false);
+
+        WorldEntry world = new WorldEntry();
+        world.setId("Skyland");
+        world.setPath(server.remotePath(remoteWorld));
+        service.downloadWorld(world, profile);
+
+        assertEquals("chunk", Files.readString(localRoot.resolve("Skyland/universe/worlds/default/0.region.bin")));
+        assertEquals(7L, service.avoidedStatRequests());
+
+        WorldEntry local = new WorldEntry();
+        local.setPath(localRoot.resolve("Skyland").toString());
+        service.uploadWorld(local, profile);
+
+        assertTrue(Files.isRegularFile(remoteRoot.resolve("Skyland_1/universe/worlds/default/0.region.bin")));
+        assertEquals(8L, service.avoidedStatRequests());
+    }
+}
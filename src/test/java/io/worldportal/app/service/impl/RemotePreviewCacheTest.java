@@ -0,0 +1,97 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemotePreviewCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lookupOnlyServesEntriesWithMatchingRemoteStamp() throws IOException {
+        RemotePreviewCache cache = new RemotePreviewCache(tempDir, 1024);
+        FileStamp stamp = new FileStamp(100L, 5L);
+
+        Path stored = cache.store("host", "Alpha", stamp, outputStream -> outputStream.write(new byte[5]));
+
+        assertEquals(stored, cache.lookup("host", "Alpha", stamp));
+        assertEquals(stored, cache.lookup("host", "Alpha", null));
+        assertNull(cache.lookup("host", "Alpha", new FileStamp(101L, 5L)));
+        assertNull(cache.lookup("host", "Beta", stamp));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPreviewsOverBudget() throws IOException {
+        RemotePreviewCache cache = new RemotePreviewCache(tempDir, 250);
+        Path alpha = store(cache, "Alpha", 100);
+        Path beta = store(cache, "Beta", 100);
+        assertNotNull(cache.lookup("host", "Alpha", null));
+
+        Path gamma = store(cache, "Gamma", 100);
+
+        assertTrue(Files.exists(alpha));
+        assertFalse(Files.exists(beta));
+        assertTrue(Files.exists(gamma));
+        assertEquals(200L, cache.totalBytes());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void failedDownloadLeavesPreviousPreviewAndNoPartialFiles() throws IOException {
+        RemotePreviewCache cache = new RemotePreviewCache(tempDir, 1024);
+        Path stored = store(cache, "Alpha", 10);
+
+        assertThrows(IOException.class, () -> cache.store("host", "Alpha", new FileStamp(2L, 10L), outputStream -> {
+            outputStream.write(new byte[3]);
+            throw new IOException("connection lost");
+        }));
+
+        assertEquals(10L, Files.size(stored));
+        assertEquals(stored, cache.lookup("host", "Alpha", new FileStamp(1L, 10L)));
+        try (Stream<Path> files = Files.list(stored.getParent())) {
+            assertEquals(1L, files.count());
+        }
+    }
+
+    @Test
+    void indexSurvivesRestartAndDropsTruncatedFiles() throws IOException {
+        RemotePreviewCache cache = new RemotePreviewCache(tempDir, 1024);
+        store(cache, "Alpha", 10);
+        Path beta = store(cache, "Beta", 10);
+        Files.write(beta, new byte[4]);
+
+        RemotePreviewCache reopened = new RemotePreviewCache(tempDir, 1024);
+
+        assertNotNull(reopened.lookup("host", "Alpha", new FileStamp(1L, 10L)));
+        assertNull(reopened.lookup("host", "Beta", new FileStamp(1L, 10L)));
+        assertEquals(1, reopened.size());
+    }
+
+    @Test
+    void cachedStampIsServedFromExistingIndexByFreshInstance() throws IOException {
+        store(new RemotePreviewCache(tempDir, 1024), "Alpha", 10);
+
+        RemotePreviewCache reopened = new RemotePreviewCache(tempDir, 1024);
+
+        assertEquals(new FileStamp(1L, 10L), reopened.cachedStamp("host", "Alpha"));
+        assertNull(reopened.cachedStamp("host", "Beta"));
+    }
+
+    private static Path store(RemotePreviewCache cache, String worldId, int bytes) throws IOException {
+        return cache.store("host", worldId, new FileStamp(1L, bytes), outputStream -> outputStream.write(new byte[bytes]));
+    }
+}
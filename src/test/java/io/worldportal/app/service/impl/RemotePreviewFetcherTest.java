@@ -0,0 +1,164 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.config.RemoteWorldCacheStore.CachedWorld.FileStamp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RemotePreviewFetcherTest {
+
+    @Test
+    void parseDeliversPreviewEntriesWithTheirRemoteStamp() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        writeEntry(archive, "Alpha/preview.png", '0', 1_700_000_000L, bytes("alpha"));
+        writeEntry(archive, "Alpha/other.png", '0', 1_700_000_000L, bytes("ignored"));
+        writeEntry(archive, "Beta/preview.png", '0', 1_700_000_100L, new byte[700]);
+        archive.write(new byte[1024]);
+
+        Map<String, Delivered> delivered = parse(archive.toByteArray());
+
+        assertEquals(2, delivered.size());
+        assertEquals(new FileStamp(1_700_000_000L, 5L), delivered.get("Alpha").stamp());
+        assertArrayEquals(bytes("alpha"), delivered.get("Alpha").content());
+        assertEquals(new FileStamp(1_700_000_100L, 700L), delivered.get("Beta").stamp());
+    }
+
+    @Test
+    void parseResolvesGnuLongNamesAndPaxHeaders() throws IOException {
+        String longWorld = "W".repeat(120);
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        writeEntry(archive, "././@LongLink", 'L', 0L, bytes(longWorld + "/preview.png\0"));
+        writeEntry(archive, "truncated", '0', 1_700_000_000L, bytes("long"));
+        String paxWorld = "Pax World ü";
+        byte[] pax = concat(paxRecord("path=" + paxWorld + "/preview.png"), paxRecord("mtime=1700000200.5000000"));
+        writeEntry(archive, "PaxHeaders/x", 'x', 0L, pax);
+        writeEntry(archive, "Pax World _/preview.png", '0', 1_700_000_000L, bytes("pax"));
+
+        Map<String, Delivered> delivered = parse(archive.toByteArray());
+
+        assertArrayEquals(bytes("long"), delivered.get(longWorld).content());
+        assertEquals(new FileStamp(1_700_000_200L, 3L), delivered.get(paxWorld).stamp());
+    }
+
+    @Test
+    void parseRejectsTruncatedOrCorruptArchives() {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        writeEntry(archive, "Alpha/preview.png", '0', 1L, new byte[600]);
+        byte[] truncated = Arrays.copyOf(archive.toByteArray(), 900);
+        assertThrows(IOException.class, () -> parse(truncated));
+
+        byte[] corrupt = archive.toByteArray();
+        corrupt[10] ^= 1;
+        assertThrows(IOException.class, () -> parse(corrupt));
+    }
+
+    @Test
+    void commandOnlyArchivesPreviewsWhoseStampChanged(@TempDir Path root) throws Exception {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        Path alpha = writePreview(root, "Alpha", "alpha");
+        writePreview(root, "Beta", "beta");
+        writePreview(root, "It's new", "new");
+        Map<String, FileStamp> known = new LinkedHashMap<>();
+        known.put("Alpha", WorldManifest.localStamp(alpha));
+        known.put("Beta", new FileStamp(1L, 4L));
+        known.put("It's new", null);
+        known.put("Missing", null);
+
+        String command = RemotePreviewFetcher.command(root.toString());
+        Process process = new ProcessBuilder("sh", "-c", command).start();
+        try (OutputStream stdin = process.getOutputStream()) {
+            stdin.write(bytes(RemotePreviewFetcher.worldList(known)));
+        }
+        Map<String, Delivered> delivered;
+        try (InputStream stdout = process.getInputStream()) {
+            delivered = parse(stdout.readAllBytes());
+        }
+
+        assertEquals(0, process.waitFor());
+        assertFalse(command.contains("Alpha"));
+        assertEquals(Set.of("Beta", "It's new"), delivered.keySet());
+        assertArrayEquals(bytes("new"), delivered.get("It's new").content());
+    }
+
+    private static Path writePreview(Path root, String world, String content) throws IOException {
+        Path preview = root.resolve(world).resolve(LocalWorldIndex.PREVIEW_RELATIVE_PATH);
+        Files.createDirectories(preview.getParent());
+        Files.writeString(preview, content);
+        return preview;
+    }
+
+    private static Map<String, Delivered> parse(byte[] archive) throws IOException {
+        Map<String, Delivered> delivered = new LinkedHashMap<>();
+        RemotePreviewFetcher.parse(new ByteArrayInputStream(archive),
+                (worldName, stamp, content) -> delivered.put(worldName, new Delivered(stamp, content)));
+        return delivered;
+    }
+
+    private static void writeEntry(ByteArrayOutputStream archive, String name, char type, long mtime, byte[] content) {
+        byte[] header = new byte[512];
+        byte[] nameBytes = bytes(name);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(100, nameBytes.length));
+        putOctal(header, 100, 8, 0644);
+        putOctal(header, 124, 12, content.length);
+        putOctal(header, 136, 12, mtime);
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        header[156] = (byte) type;
+        System.arraycopy(bytes("ustar\0"), 0, header, 257, 6);
+        header[263] = '0';
+        header[264] = '0';
+        long checksum = 0;
+        for (byte value : header) {
+            checksum += value & 0xff;
+        }
+        putOctal(header, 148, 7, checksum);
+        archive.writeBytes(header);
+        archive.writeBytes(content);
+        archive.writeBytes(new byte[(512 - content.length % 512) % 512]);
+    }
+
+    private static void putOctal(byte[] header, int offset, int length, long value) {
+        String digits = String.format("%0" + (length - 1) + "o", value);
+        System.arraycopy(bytes(digits), 0, header, offset, length - 1);
+        header[offset + length - 1] = 0;
+    }
+
+    private static byte[] paxRecord(String keyValue) {
+        int bodyLength = bytes(" " + keyValue + "\n").length;
+        int length = bodyLength + Integer.toString(bodyLength).length();
+        if (Integer.toString(length).length() != Integer.toString(bodyLength).length()) {
+            length++;
+        }
+        return bytes(length + " " + keyValue + "\n");
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Delivered(FileStamp stamp, byte[] content) {
+    }
+}
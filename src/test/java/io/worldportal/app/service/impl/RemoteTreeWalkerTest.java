@@ -0,0 +1,96 @@
+package io.worldportal.app.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RemoteTreeWalkerTest {
+    @TempDir
+    Path tempDir;
+
+    private Path remoteRoot;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void walkDeliversEveryFileOnceAcrossParallelChannels() throws Exception {
+        Set<String> expectedFiles = new TreeSet<>();
+        Set<String> expectedDirectories = new TreeSet<>(Set.of(""));
+        for (int region = 0; region < 12; region++) {
+            for (int chunk = 0; chunk < 5; chunk++) {
+                String relativePath = "worlds/default/r" + region + "/c" + chunk + ".bin";
+                Path file = remoteRoot.resolve("universe").resolve(relativePath);
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, relativePath);
+                expectedFiles.add(relativePath);
+            }
+            expectedDirectories.add("worlds/default/r" + region);
+        }
+        Files.createDirectories(remoteRoot.resolve("universe/players/empty"));
+        expectedDirectories.addAll(List.of("worlds", "worlds/default", "players", "players/empty"));
+
+        String universe = server.remotePath(remoteRoot.resolve("universe"));
+        List<RemoteTreeWalker.RemoteEntry> files = new ArrayList<>();
+        Set<String> directories = new TreeSet<>();
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            RemoteTreeWalker walker = new RemoteTreeWalker(lease, lease.openSftpChannel(), 4);
+            for (RemoteTreeWalker.RemoteEntry directory : walker.walk(universe, files::add)) {
+                directories.add(directory.relativePath());
+            }
+        }
+
+        Set<String> relativePaths = new TreeSet<>();
+        for (RemoteTreeWalker.RemoteEntry file : files) {
+            relativePaths.add(file.relativePath());
+            assertEquals(universe + "/" + file.relativePath(), file.path());
+            assertEquals(file.relativePath().length(), file.attrs().getSize());
+        }
+        assertEquals(expectedFiles.size(), files.size());
+        assertEquals(expectedFiles, relativePaths);
+        assertEquals(expectedDirectories, directories);
+    }
+
+    @Test
+    void missingRootsAndVisitorFailuresAreReported() throws Exception {
+        Files.createDirectories(remoteRoot.resolve("universe/worlds"));
+        Files.writeString(remoteRoot.resolve("universe/worlds/a.bin"), "a");
+
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            RemoteTreeWalker walker = new RemoteTreeWalker(lease, lease.openSftpChannel(), 2);
+
+            assertThrows(IOException.class, () -> walker.walk(server.remotePath(remoteRoot.resolve("missing")), file -> {
+            }));
+            IOException failure = assertThrows(IOException.class,
+                    () -> walker.walk(server.remotePath(remoteRoot.resolve("universe")), file -> {
+                        throw new IOException("visit failed");
+                    }));
+            assertEquals("visit failed", failure.getMessage());
+        }
+    }
+}
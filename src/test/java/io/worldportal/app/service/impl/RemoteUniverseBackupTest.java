@@ -0,0 +1,126 @@
+package io.worldportal.app.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RemoteUniverseBackupTest {
+    private static final List<String> ENTRIES = List.of("memories.json", "players", "worlds");
+    private static final Set<String> EXPECTED = Set.of(
+            "memories.json", "players/alice.json", "worlds/default/chunks/0.0.region.bin");
+
+    @TempDir
+    Path tempDir;
+
+    private Path world;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        Path remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        world = remoteRoot.resolve("Skyland");
+        write("universe/memories.json", "{}");
+        write("universe/players/alice.json", "{\"name\":\"alice\"}");
+        write("universe/worlds/default/chunks/0.0.region.bin", "chunk");
+        write("universe/cache/skip.bin", "not backed up");
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void zipToolsBuildTheArchiveOnTheServerWithoutSftpReads() throws Exception {
+        assumeTrue(onPath("zip") && onPath("python3"));
+        long requestsBefore = server.sftpRequestCount();
+
+        String zip = create("2024-01-15_14-30-00", List.of(RemoteUniverseBackup.Tool.ZIP));
+        String python = create("2024-01-15_14-30-00", List.of(RemoteUniverseBackup.Tool.PYTHON_ZIP));
+
+        assertEquals(world.resolve("backup/2024-01-15_14-30-00.zip").toString(), zip);
+        assertEquals(world.resolve("backup/2024-01-15_14-30-00-1.zip").toString(), python);
+        assertEquals(EXPECTED, zipEntries(Path.of(zip)));
+        assertEquals(EXPECTED, zipEntries(Path.of(python)));
+        assertEquals(requestsBefore, server.sftpRequestCount());
+    }
+
+    @Test
+    void tarIsUsedWhenZipToolsAreMissing() throws Exception {
+        assumeTrue(onPath("tar") && onPath("gzip"));
+
+        String archive = create("2024-01-15_14-30-00", List.of(RemoteUniverseBackup.Tool.TAR_GZIP));
+
+        assertEquals(world.resolve("backup/2024-01-15_14-30-00.tar.gz").toString(), archive);
+        Set<String> entries = new TreeSet<>();
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(Path.of(archive)))) {
+            TarStreams.read(input, (entry, payload) -> {
+                if (entry.isFile()) {
+                    entries.add(entry.name());
+                }
+            });
+        }
+        assertEquals(EXPECTED, entries);
+    }
+
+    @Test
+    void missingToolsAreReportedSoTheCallerCanFallBack() throws Exception {
+        assertNull(create("2024-01-15_14-30-00", List.of()));
+        assertNotEquals(null, create("2024-01-15_14-30-00", RemoteUniverseBackup.DEFAULT_TOOLS));
+    }
+
+    private String create(String name, List<RemoteUniverseBackup.Tool> tools) throws Exception {
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            return RemoteUniverseBackup.create(lease.session(), server.remotePath(world), name, ENTRIES, tools);
+        }
+    }
+
+    private static Set<String> zipEntries(Path archive) throws IOException {
+        Set<String> entries = new TreeSet<>();
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            zipFile.stream().filter(entry -> !entry.isDirectory()).forEach(entry -> entries.add(entry.getName()));
+        }
+        return entries;
+    }
+
+    private static boolean onPath(String tool) {
+        try {
+            Process process = new ProcessBuilder("sh", "-c", "command -v " + tool).start();
+            return process.waitFor() == 0;
+        } catch (IOException | InterruptedException exception) {
+            return false;
+        }
+    }
+
+    private void write(String relativePath, String content) throws IOException {
+        Path file = world.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
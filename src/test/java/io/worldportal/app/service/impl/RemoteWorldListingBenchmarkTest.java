@@ -0,0 +1,113 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import io.worldportal.app.config.RemoteWorldCacheStore;
+import io.worldportal.app.model.RemoteProfile;
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class RemoteWorldListingBenchmarkTest {
+    private static final int WORLD_COUNT = 500;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void singlePassListingNeedsFewerRoundTripsPerWorld() throws Exception {
+        Path remoteRoot = Files.createDirectories(tempDir.resolve("worlds"));
+        for (int index = 0; index < WORLD_COUNT; index++) {
+            Path world = remoteRoot.resolve("world-" + index);
+            Path config = world.resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH);
+            Files.createDirectories(config.getParent());
+            Files.writeString(config, """
+                    {"DisplayName":"World %d","GameMode":"Adventure","GameTime":"2026-01-01T00:00:00Z",
+                     "UUID":{"$binary":"AAAA","$type":"04"}}
+                    """.formatted(index));
+            Files.writeString(world.resolve(WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH),
+                    "{\"CreatedWithPatchline\":\"release\"}");
+        }
+
+        SshSessionPool pool = new SshSessionPool(1, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+        try (SftpTestServer server = SftpTestServer.start(remoteRoot)) {
+            RemoteProfile profile = server.profile();
+
+            long before = server.sftpRequestCount();
+            try (SshSessionPool.Lease lease = pool.borrow(profile)) {
+                listWithPerFieldReads(lease.openSftpChannel(), profile.getRemoteBasePath());
+            }
+            long perFieldRequests = server.sftpRequestCount() - before;
+
+            before = server.sftpRequestCount();
+            long startedAt = System.nanoTime();
+            StubWorldService sftpService =
+                    new StubWorldService(pool, false, new RemoteWorldCacheStore(tempDir.resolve("cache")));
+            List<WorldEntry> worlds = sftpService.listRemoteWorlds(profile);
+            long singlePassMillis = (System.nanoTime() - startedAt) / 1_000_000L;
+            long singlePassRequests = server.sftpRequestCount() - before;
+
+            assertEquals(WORLD_COUNT, worlds.size());
+            System.out.printf(
+                    "Remote listing of %d worlds: %.1f SFTP requests/world before, %.1f after (%d ms)%n",
+                    WORLD_COUNT,
+                    perFieldRequests / (double) WORLD_COUNT,
+                    singlePassRequests / (double) WORLD_COUNT,
+                    singlePassMillis);
+            assertTrue(singlePassRequests * 3 < perFieldRequests * 2,
+                    "expected at least a third fewer requests: " + perFieldRequests + " -> " + singlePassRequests);
+
+            before = server.sftpRequestCount();
+            sftpService.listRemoteWorlds(profile);
+            System.out.printf(
+                    "Cached revalidation of %d unchanged worlds: %.1f SFTP requests/world%n",
+                    WORLD_COUNT,
+                    (server.sftpRequestCount() - before) / (double) WORLD_COUNT);
+
+            if (SftpTestServer.supportsRemoteCommands()) {
+                before = server.sftpRequestCount();
+                startedAt = System.nanoTime();
+                List<WorldEntry> scanned = new StubWorldService(pool).listRemoteWorlds(profile);
+                long scanMillis = (System.nanoTime() - startedAt) / 1_000_000L;
+
+                assertEquals(WORLD_COUNT, scanned.size());
+                assertEquals(0, server.sftpRequestCount() - before);
+                System.out.printf("Remote listing of %d worlds over one exec channel: %d ms%n", WORLD_COUNT, scanMillis);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Mirrors the previous listing: one download per extracted field plus a separate stat of the config.
+    private static void listWithPerFieldReads(ChannelSftp channel, String remoteBasePath) throws Exception {
+        @SuppressWarnings("unchecked")
+        List<ChannelSftp.LsEntry> entries = channel.ls(remoteBasePath);
+        for (ChannelSftp.LsEntry entry : entries) {
+            String name = entry.getFilename();
+            if (!entry.getAttrs().isDir() || ".".equals(name) || "..".equals(name)) {
+                continue;
+            }
+            String worldPath = remoteBasePath + "/" + name;
+            String configPath = worldPath + "/" + WorldMetadataReader.CONFIG_RELATIVE_PATH;
+            for (int field = 0; field < 4; field++) {
+                try (var inputStream = channel.get(configPath)) {
+                    inputStream.readAllBytes();
+                }
+            }
+            try (var inputStream = channel.get(worldPath + "/" + WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH)) {
+                inputStream.readAllBytes();
+            }
+            channel.stat(configPath);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RemoteWorldScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesListingFollowedByFileContents() throws Exception {
+        String config = "{\"DisplayName\":\"Line\\nBreak\",\"GameMode\":\"Creative\"}";
+        String metadata = "{\"CreatedWithPatchline\":\"release\"}";
+        String listing = "1700000000 4096 alpha\n"
+                + "1700000200 4096 beta world\n"
+                + "1700000100 " + bytes(config) + " alpha/" + WorldMetadataReader.CONFIG_RELATIVE_PATH + "\n"
+                + "1700000050 " + bytes(metadata) + " alpha/" + WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH;
+        String stream = "L " + bytes(listing) + "\n" + listing + frame(config) + frame(metadata) + "E 0\n";
+
+        List<String> published = new ArrayList<>();
+        List<RemoteWorldScanner.ScannedWorld> worlds =
+                RemoteWorldScanner.parse(input(stream), true, world -> published.add(world.name()));
+
+        assertEquals(List.of("beta world", "alpha"), published);
+        assertEquals(2, worlds.size());
+        assertEquals("alpha", worlds.get(0).name());
+        assertEquals(config, worlds.get(0).configJson());
+        assertEquals(Instant.ofEpochSecond(1_700_000_100L), worlds.get(0).metadata().lastModified());
+        assertEquals("Creative", worlds.get(0).metadata().gameMode());
+        assertEquals("release", worlds.get(0).metadata().patchLine());
+        assertEquals("beta world", worlds.get(1).name());
+        assertNull(worlds.get(1).configJson());
+        assertEquals(Instant.ofEpochSecond(1_700_000_200L), worlds.get(1).metadata().lastModified());
+    }
+
+    @Test
+    void rejectsTruncatedOrInconsistentStream() {
+        String listing = "1700000000 4096 alpha\n1700000100 100 alpha/" + WorldMetadataReader.CONFIG_RELATIVE_PATH;
+        String truncated = "L " + bytes(listing) + "\n" + listing + "F 100\n{\"DisplayName\"";
+        String unframed = "L " + bytes(listing) + "\n" + listing + "{\"DisplayName\":\"x\"}E 0\n";
+        String missingEnd = "L 0\n";
+        String unknownListing = "1700000000 2 x/" + WorldMetadataReader.CONFIG_RELATIVE_PATH;
+        String unknownWorld = "L " + bytes(unknownListing) + "\n" + unknownListing;
+
+        assertThrows(IOException.class, () -> RemoteWorldScanner.parse(input(truncated)));
+        assertThrows(IOException.class, () -> RemoteWorldScanner.parse(input(unframed)));
+        assertThrows(IOException.class, () -> RemoteWorldScanner.parse(input(missingEnd)));
+        assertThrows(IOException.class, () -> RemoteWorldScanner.parse(input(unknownWorld + "{}E 0\n")));
+    }
+
+    @Test
+    void scriptOutputMatchesFilesOnDisk() throws Exception {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        Path root = Files.createDirectories(tempDir.resolve("it's worlds"));
+        Path config = root.resolve("MyWorld").resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH);
+        Files.createDirectories(config.getParent());
+        Files.writeString(config, "{\"DisplayName\":\"Mÿ World\"}");
+        Files.setLastModifiedTime(config, FileTime.from(Instant.ofEpochSecond(1_700_000_000L)));
+        Files.writeString(root.resolve("MyWorld").resolve(WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH),
+                "{\"CreatedWithPatchline\":\"pre-release\"}");
+        Files.createDirectories(root.resolve("Empty World"));
+        Files.writeString(root.resolve("notes.txt"), "not a world");
+
+        List<RemoteWorldScanner.ScannedWorld> worlds = runLocally(RemoteWorldScanner.command(root.toString(), null, true), true);
+
+        worlds = worlds.stream().sorted(Comparator.comparing(RemoteWorldScanner.ScannedWorld::name)).toList();
+        assertEquals(2, worlds.size());
+        assertEquals("Empty World", worlds.get(0).name());
+        assertNull(worlds.get(0).configJson());
+        assertEquals("MyWorld", worlds.get(1).name());
+        WorldMetadataReader.WorldMetadata metadata = worlds.get(1).metadata();
+        assertEquals("Mÿ World", metadata.displayName());
+        assertEquals("pre-release", metadata.patchLine());
+        assertEquals(Instant.ofEpochSecond(1_700_000_000L), metadata.lastModified());
+
+        List<RemoteWorldScanner.ScannedWorld> stats = runLocally(RemoteWorldScanner.command(root.toString(), null, false), false);
+        assertEquals(2, stats.size());
+        stats.forEach(world -> assertNull(world.configJson()));
+
+        List<RemoteWorldScanner.ScannedWorld> selected =
+                runLocally(RemoteWorldScanner.command(root.toString(), List.of("MyWorld", "Missing"), true), true);
+        assertEquals(1, selected.size());
+        assertEquals(Files.size(config), selected.get(0).configStamp().size());
+    }
+
+    @Test
+    void scriptFollowsSymlinkedMetadataFiles() throws Exception {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        Path root = Files.createDirectories(tempDir.resolve("worlds"));
+        Path target = Files.writeString(tempDir.resolve("shared-config.json"), "{\"DisplayName\":\"Linked World\"}");
+        Path config = root.resolve("Linked").resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH);
+        Files.createDirectories(config.getParent());
+        Files.createSymbolicLink(config, target);
+
+        List<RemoteWorldScanner.ScannedWorld> worlds = runLocally(RemoteWorldScanner.command(root.toString(), null, true), true);
+
+        assertEquals(1, worlds.size());
+        assertEquals(Files.size(target), worlds.get(0).configStamp().size());
+        assertEquals("Linked World", worlds.get(0).metadata().displayName());
+    }
+
+    private static List<RemoteWorldScanner.ScannedWorld> runLocally(String command, boolean withContents) throws Exception {
+        Process process = new ProcessBuilder("sh", "-c", command).start();
+        List<RemoteWorldScanner.ScannedWorld> worlds;
+        try (InputStream stdout = process.getInputStream()) {
+            worlds = RemoteWorldScanner.parse(stdout, withContents);
+        }
+        assertEquals(0, process.waitFor());
+        return worlds;
+    }
+
+    @Test
+    void execListingMatchesSftpListing() throws Exception {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        Path root = Files.createDirectories(tempDir.resolve("remote"));
+        for (String name : List.of("Alpha", "Beta")) {
+            Path config = root.resolve(name).resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH);
+            Files.createDirectories(config.getParent());
+            Files.writeString(config, "{\"DisplayName\":\"" + name + " World\",\"GameMode\":\"Adventure\"}");
+        }
+
+        SshSessionPool pool = new SshSessionPool(1, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+        try (SftpTestServer server = SftpTestServer.start(root)) {
+            long before = server.sftpRequestCount();
+            List<WorldEntry> scanned = new StubWorldService(pool).listRemoteWorlds(server.profile());
+            assertEquals(0, server.sftpRequestCount() - before);
+
+            List<WorldEntry> listed = new StubWorldService(pool, false).listRemoteWorlds(server.profile());
+
+            assertEquals(summary(listed), summary(scanned));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<String> summary(List<WorldEntry> worlds) {
+        return worlds.stream()
+                .map(world -> world.getId() + "|" + world.getName() + "|" + world.getGameMode() + "|"
+                        + world.getPatchLine() + "|" + world.getLastModified() + "|" + world.getPath())
+                .sorted()
+                .toList();
+    }
+
+    private static String frame(String content) {
+        return "F " + bytes(content) + "\n" + content;
+    }
+
+    private static int bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static InputStream input(String stream) {
+        return new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8));
+    }
+}
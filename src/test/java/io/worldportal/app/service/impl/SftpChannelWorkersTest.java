@@ -0,0 +1,110 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.ChannelSftp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SftpChannelWorkersTest {
+    @TempDir
+    Path tempDir;
+
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = SftpTestServer.start(Files.createDirectories(tempDir.resolve("remote")));
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void concurrentWorkerGroupsShareTheLeaseChannelBudget() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Set<String> done = ConcurrentHashMap.newKeySet();
+        SftpChannelWorkers.Task<String> task = (channel, item) -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                done.add(item);
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile());
+             SftpChannelWorkers<String> first = new SftpChannelWorkers<>(lease, null, 8, "first", task, item -> item);
+             SftpChannelWorkers<String> second = new SftpChannelWorkers<>(lease, null, 8, "second", task, item -> item)) {
+            for (int index = 0; index < 8; index++) {
+                first.submit("first-" + index);
+                second.submit("second-" + index);
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (active.get() < SshSessionPool.MAX_WORKER_CHANNELS_PER_SESSION && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(200);
+            assertFalse(lease.hasFreeWorkerChannel());
+
+            release.countDown();
+            first.finish(null);
+            second.finish(null);
+        }
+
+        assertEquals(16, done.size());
+        assertEquals(SshSessionPool.MAX_WORKER_CHANNELS_PER_SESSION, peak.get());
+    }
+
+    @Test
+    void runsLeftoverItemsOnTheCallerChannelWhenTheBudgetIsSpent() throws Exception {
+        List<String> done = new ArrayList<>();
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            ChannelSftp callerChannel = lease.openSftpChannel();
+            List<ChannelSftp> held = new ArrayList<>();
+            for (int index = 0; index < SshSessionPool.MAX_WORKER_CHANNELS_PER_SESSION; index++) {
+                held.add(lease.openWorkerChannel());
+            }
+            assertNull(lease.openWorkerChannel());
+
+            try (SftpChannelWorkers<String> workers = new SftpChannelWorkers<>(lease, null, 4, "worker",
+                    (channel, item) -> {
+                        assertTrue(channel == callerChannel);
+                        done.add(item);
+                    }, item -> item)) {
+                workers.submit("a");
+                workers.submit("b");
+                workers.finish(callerChannel);
+            }
+            held.forEach(lease::closeWorkerChannel);
+            assertTrue(lease.hasFreeWorkerChannel());
+        }
+
+        assertEquals(List.of("a", "b"), done);
+    }
+}
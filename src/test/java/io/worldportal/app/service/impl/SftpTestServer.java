@@ -0,0 +1,88 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.RemoteProfile;
+import org.apache.sshd.common.file.nativefs.NativeFileSystemFactory;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.session.ServerSession;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.shell.ProcessShellFactory;
+import org.apache.sshd.sftp.server.SftpEventListener;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class SftpTestServer implements AutoCloseable {
+    private static final String USERNAME = "player";
+    private static final String PASSWORD = "secret";
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase().contains("win");
+
+    private final SshServer server;
+    private final Path root;
+    private final AtomicLong sftpRequests;
+
+    private SftpTestServer(SshServer server, Path root, AtomicLong sftpRequests) {
+        this.server = server;
+        this.root = root;
+        this.sftpRequests = sftpRequests;
+    }
+
+    static boolean supportsRemoteCommands() {
+        return !WINDOWS;
+    }
+
+    static SftpTestServer start(Path root) throws IOException {
+        SshServer server = SshServer.setUpDefaultServer();
+        server.setHost("127.0.0.1");
+        server.setPort(0);
+        server.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        server.setPasswordAuthenticator((username, password, session) ->
+                USERNAME.equals(username) && PASSWORD.equals(password));
+        server.setFileSystemFactory(WINDOWS ? new VirtualFileSystemFactory(root) : NativeFileSystemFactory.INSTANCE);
+        AtomicLong sftpRequests = new AtomicLong();
+        SftpSubsystemFactory sftp = new SftpSubsystemFactory();
+        sftp.addSftpEventListener(new SftpEventListener() {
+            @Override
+            public void received(ServerSession session, int type, int id) {
+                sftpRequests.incrementAndGet();
+            }
+        });
+        server.setSubsystemFactories(List.of(sftp));
+        server.setCommandFactory((channel, command) ->
+                new ProcessShellFactory(command, "/bin/sh", "-c", command).createShell(channel));
+        server.start();
+        return new SftpTestServer(server, root, sftpRequests);
+    }
+
+    long sftpRequestCount() {
+        return sftpRequests.get();
+    }
+
+    RemoteProfile profile() {
+        return new RemoteProfile(
+                "127.0.0.1",
+                server.getPort(),
+                USERNAME,
+                remotePath(root),
+                "Password",
+                PASSWORD,
+                "",
+                "");
+    }
+
+    String remotePath(Path path) {
+        if (WINDOWS) {
+            String relative = root.relativize(path.toAbsolutePath()).toString().replace('\\', '/');
+            return relative.isEmpty() ? "/" : "/" + relative;
+        }
+        return path.toAbsolutePath().toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.stop(true);
+    }
+}
@@ -0,0 +1,139 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.RemoteProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SftpTransferEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path remoteRoot;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void uploadsAndDownloadsAllFilesAcrossParallelChannels() throws Exception {
+        Path localSource = Files.createDirectories(tempDir.resolve("source"));
+        Path remoteTarget = Files.createDirectories(remoteRoot.resolve("chunks"));
+        List<SftpTransferEngine.FileTransfer> uploads = new ArrayList<>();
+        for (int index = 0; index < 40; index++) {
+            Path file = localSource.resolve("chunk-" + index + ".region");
+            Files.writeString(file, "chunk-data-" + index);
+            uploads.add(SftpTransferEngine.FileTransfer.upload(file, server.remotePath(remoteTarget) + "/" + file.getFileName()));
+        }
+
+        RemoteProfile profile = server.profile();
+        try (SshSessionPool.Lease lease = pool.borrow(profile)) {
+            new SftpTransferEngine(lease, 4).execute(uploads);
+        }
+
+        assertEquals(40, Files.list(remoteTarget).count());
+        assertEquals("chunk-data-7", Files.readString(remoteTarget.resolve("chunk-7.region")));
+
+        Path localTarget = Files.createDirectories(tempDir.resolve("downloaded"));
+        List<SftpTransferEngine.FileTransfer> downloads = new ArrayList<>();
+        for (SftpTransferEngine.FileTransfer upload : uploads) {
+            downloads.add(SftpTransferEngine.FileTransfer.download(
+                    upload.remotePath(),
+                    localTarget.resolve(upload.localPath().getFileName()),
+                    upload.expectedSize()));
+        }
+        try (SshSessionPool.Lease lease = pool.borrow(profile)) {
+            new SftpTransferEngine(lease, 4).execute(downloads);
+        }
+
+        assertEquals(40, Files.list(localTarget).count());
+        assertEquals("chunk-data-39", Files.readString(localTarget.resolve("chunk-39.region")));
+    }
+
+    @Test
+    void sessionTransfersFilesWhileMoreAreStillBeingSubmitted() throws Exception {
+        Path localSource = Files.createDirectories(tempDir.resolve("source"));
+        String remoteTarget = server.remotePath(remoteRoot);
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile());
+                SftpTransferEngine.Session session = new SftpTransferEngine(lease, 2).start()) {
+            for (int index = 0; index < 5; index++) {
+                Path file = localSource.resolve("chunk-" + index + ".region");
+                Files.writeString(file, "chunk-data-" + index);
+                session.submit(SftpTransferEngine.FileTransfer.upload(file, remoteTarget + "/" + file.getFileName()));
+                awaitFile(remoteRoot.resolve(file.getFileName()));
+            }
+            session.finish();
+        }
+
+        assertEquals("chunk-data-4", Files.readString(remoteRoot.resolve("chunk-4.region")));
+    }
+
+    @Test
+    void failsWholeTransferWhenAnyFileFails() throws Exception {
+        Path localFile = tempDir.resolve("level.dat");
+        Files.writeString(localFile, "level");
+        List<SftpTransferEngine.FileTransfer> uploads = List.of(
+                SftpTransferEngine.FileTransfer.upload(localFile, server.remotePath(remoteRoot) + "/level.dat"),
+                SftpTransferEngine.FileTransfer.upload(localFile, server.remotePath(remoteRoot) + "/missing/level.dat"));
+
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            IOException failure = assertThrows(IOException.class, () -> new SftpTransferEngine(lease, 2).execute(uploads));
+            assertTrue(failure.getMessage().contains("missing"));
+        }
+    }
+
+    @Test
+    void rejectsDownloadThatDoesNotMatchListedSize() throws Exception {
+        Files.writeString(remoteRoot.resolve("config.json"), "{}");
+        List<SftpTransferEngine.FileTransfer> downloads = List.of(SftpTransferEngine.FileTransfer.download(
+                server.remotePath(remoteRoot) + "/config.json",
+                tempDir.resolve("config.json"),
+                10));
+
+        try (SshSessionPool.Lease lease = pool.borrow(server.profile())) {
+            assertThrows(IOException.class, () -> new SftpTransferEngine(lease, 2).execute(downloads));
+        }
+    }
+
+    @Test
+    void parallelismFallsBackToDefaultAndIsCapped() {
+        RemoteProfile profile = new RemoteProfile();
+        assertEquals(SftpTransferEngine.DEFAULT_PARALLELISM, SftpTransferEngine.parallelismFor(profile));
+
+        profile.setTransferParallelism(64);
+        assertEquals(SftpTransferEngine.MAX_PARALLELISM, SftpTransferEngine.parallelismFor(profile));
+    }
+
+    private static void awaitFile(Path file) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Files.exists(file) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(Files.exists(file));
+    }
+}
@@ -0,0 +1,224 @@
+package io.worldportal.app.service.impl;
+
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import io.worldportal.app.model.RemoteProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SshSessionPoolTest {
+    private final AtomicInteger connects = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong(1_000L);
+    private final Set<Session> brokenSessions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @Test
+    void reusesIdleSessionForSameProfileIdentity() throws Exception {
+        SshSessionPool pool = pool(2, 60_000L, 0L);
+
+        Session first;
+        try (SshSessionPool.Lease lease = pool.borrow(profile("secret"))) {
+            first = lease.session();
+        }
+        Session second;
+        try (SshSessionPool.Lease lease = pool.borrow(profile("secret"))) {
+            second = lease.session();
+        }
+
+        assertSame(first, second);
+        assertEquals(1, connects.get());
+        assertEquals(1, pool.idleSessionCount(profile("secret")));
+    }
+
+    @Test
+    void differentCredentialsUseSeparateSessions() throws Exception {
+        SshSessionPool pool = pool(2, 60_000L, 0L);
+
+        try (SshSessionPool.Lease first = pool.borrow(profile("secret"));
+                SshSessionPool.Lease second = pool.borrow(profile("other"))) {
+            assertNotSame(first.session(), second.session());
+        }
+        assertEquals(2, connects.get());
+    }
+
+    @Test
+    void evictsSessionsIdleLongerThanTimeout() throws Exception {
+        SshSessionPool pool = pool(2, 5_000L, 0L);
+        pool.borrow(profile("secret")).close();
+
+        now.addAndGet(4_000L);
+        pool.evictIdle();
+        assertEquals(1, pool.idleSessionCount(profile("secret")));
+
+        now.addAndGet(1_000L);
+        pool.evictIdle();
+        assertEquals(0, pool.idleSessionCount(profile("secret")));
+        assertEquals(0, pool.openSessionCount(profile("secret")));
+    }
+
+    @Test
+    void replacesIdleSessionThatFailsHealthCheck() throws Exception {
+        SshSessionPool pool = pool(2, 60_000L, 0L);
+        Session first;
+        try (SshSessionPool.Lease lease = pool.borrow(profile("secret"))) {
+            first = lease.session();
+        }
+        brokenSessions.add(first);
+
+        try (SshSessionPool.Lease lease = pool.borrow(profile("secret"))) {
+            assertNotSame(first, lease.session());
+        }
+        assertEquals(2, connects.get());
+        assertEquals(1, pool.openSessionCount(profile("secret")));
+    }
+
+    @Test
+    void borrowFailsWhenMaximumIsReachedAndNoSessionIsReturned() throws Exception {
+        SshSessionPool pool = pool(1, 60_000L, 0L);
+
+        try (SshSessionPool.Lease ignored = pool.borrow(profile("secret"))) {
+            assertThrows(JSchException.class, () -> pool.borrow(profile("secret")));
+        }
+        assertEquals(1, connects.get());
+    }
+
+    @Test
+    void profileMaximumOverridesPoolDefault() throws Exception {
+        SshSessionPool pool = pool(1, 60_000L, 0L);
+        RemoteProfile profile = profile("secret");
+        profile.setMaxSessions(2);
+
+        try (SshSessionPool.Lease first = pool.borrow(profile);
+             SshSessionPool.Lease second = pool.borrow(profile)) {
+            assertNotSame(first.session(), second.session());
+            assertThrows(JSchException.class, () -> pool.borrow(profile));
+        }
+        assertEquals(2, connects.get());
+
+        profile.setMaxSessions(100);
+        assertEquals(SshSessionPool.MAX_SESSIONS_PER_PROFILE, pool.maxSessionsFor(profile));
+    }
+
+    @Test
+    void sessionKeyDoesNotExposeThePassword() {
+        SshSessionPool.SessionKey key = SshSessionPool.SessionKey.of(profile("hunter2"));
+
+        assertFalse(key.toString().contains("hunter2"));
+        assertFalse(key.passwordHash().contains("hunter2"));
+        assertEquals(key, SshSessionPool.SessionKey.of(profile("hunter2")));
+        assertNotEquals(key, SshSessionPool.SessionKey.of(profile("other")));
+    }
+
+    @Test
+    void failedConnectReleasesReservedSlot() throws Exception {
+        SshSessionPool pool = new SshSessionPool(
+                1,
+                60_000L,
+                0L,
+                profile -> {
+                    throw new JSchException("Auth fail");
+                },
+                session -> true,
+                now::get);
+
+        assertThrows(JSchException.class, () -> pool.borrow(profile("secret")));
+        assertEquals(0, pool.openSessionCount(profile("secret")));
+    }
+
+    @Test
+    void releaseRunsHealthCheckWithoutHoldingThePool() throws Exception {
+        assertHealthCheckRunsOutsideThePool(false, (pool, lease) -> lease.close());
+    }
+
+    @Test
+    void borrowRunsHealthCheckWithoutHoldingThePool() throws Exception {
+        assertHealthCheckRunsOutsideThePool(true, (pool, lease) -> {
+            try {
+                pool.borrow(profile("secret")).close();
+            } catch (JSchException exception) {
+                throw new AssertionError(exception);
+            }
+        });
+    }
+
+    @Test
+    void evictIdleRunsHealthCheckWithoutHoldingThePool() throws Exception {
+        assertHealthCheckRunsOutsideThePool(true, (pool, lease) -> pool.evictIdle());
+    }
+
+    private void assertHealthCheckRunsOutsideThePool(
+            boolean releaseFirst,
+            BiConsumer<SshSessionPool, SshSessionPool.Lease> action) throws Exception {
+        CountDownLatch checking = new CountDownLatch(1);
+        CountDownLatch finishCheck = new CountDownLatch(1);
+        AtomicBoolean blockHealthCheck = new AtomicBoolean();
+        SshSessionPool pool = new SshSessionPool(
+                2,
+                60_000L,
+                0L,
+                profile -> new JSch().getSession(profile.getUsername(), profile.getHost(), profile.getPort()),
+                session -> {
+                    if (blockHealthCheck.get()) {
+                        checking.countDown();
+                        try {
+                            finishCheck.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException interrupted) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return true;
+                },
+                now::get);
+        SshSessionPool.Lease lease = pool.borrow(profile("secret"));
+        if (releaseFirst) {
+            lease.close();
+        }
+        blockHealthCheck.set(true);
+
+        Thread acting = new Thread(() -> action.accept(pool, lease));
+        acting.start();
+        assertTrue(checking.await(5, TimeUnit.SECONDS));
+        assertEquals(1, CompletableFuture.supplyAsync(() -> pool.openSessionCount(profile("secret")))
+                .get(1, TimeUnit.SECONDS));
+        finishCheck.countDown();
+        acting.join(5_000L);
+
+        assertEquals(1, pool.idleSessionCount(profile("secret")));
+        pool.shutdown();
+    }
+
+    private SshSessionPool pool(int maxSessions, long idleTimeoutMillis, long borrowTimeoutMillis) {
+        return new SshSessionPool(
+                maxSessions,
+                idleTimeoutMillis,
+                borrowTimeoutMillis,
+                profile -> {
+                    connects.incrementAndGet();
+                    return new JSch().getSession(profile.getUsername(), profile.getHost(), profile.getPort());
+                },
+                session -> !brokenSessions.contains(session),
+                now::get);
+    }
+
+    private RemoteProfile profile(String password) {
+        return new RemoteProfile("example.com", 22, "player", "/srv/worlds", "Password", password, "", "");
+    }
+}
@@ -1,5 +1,7 @@
 package io.worldportal.app.service.impl;
 
+import com.jcraft.jsch.JSchException;
+import io.worldportal.app.model.RemoteProfile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -8,10 +10,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipFile;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -116,16 +122,39 @@ class StubTransferServiceArchiveTest {
 
         StubTransferService service = new StubTransferService();
 
-        Path backupArchive = service.createUniverseBackup(worldDir, LocalDateTime.of(2024, 1, 15, 14, 30, 0));
+        Path backupManifest = service.createUniverseBackup(worldDir, LocalDateTime.of(2024, 1, 15, 14, 30, 0));
+
+        assertTrue(Files.exists(backupManifest));
+        assertEquals(worldDir.resolve("backup/manifests/2024-01-15_14-30-00.properties"), backupManifest);
+        Path restored = tempDir.resolve("restored");
+        new UniverseBackupStore(worldDir.resolve("backup")).restore("2024-01-15_14-30-00", restored);
+        assertEquals("{\"tick\":1}", Files.readString(restored.resolve("memories.json")));
+        assertEquals("{\"tick\":0}", Files.readString(restored.resolve("memories.json.bak")));
+        assertEquals("{\"id\":\"p1\"}", Files.readString(restored.resolve("players/player.json")));
+        assertEquals("{\"name\":\"default\"}", Files.readString(restored.resolve("worlds/default/config.json")));
+        assertFalse(Files.exists(restored.resolve("ignored.txt")));
+    }
 
-        assertTrue(Files.exists(backupArchive));
-        assertTrue(backupArchive.equals(worldDir.resolve("backup/2024-01-15_14-30-00.zip")));
-        try (ZipFile zipFile = new ZipFile(backupArchive.toFile())) {
-            assertNotNull(zipFile.getEntry("memories.json"));
-            assertNotNull(zipFile.getEntry("memories.json.bak"));
-            assertNotNull(zipFile.getEntry("players/player.json"));
-            assertNotNull(zipFile.getEntry("worlds/default/config.json"));
-            assertTrue(zipFile.getEntry("ignored.txt") == null);
-        }
+    @Test
+    void onlyMissingToolsDisableAnExecFeatureForTheProfile() throws Exception {
+        StubTransferService service = new StubTransferService(null, null, true);
+        Set<SshSessionPool.SessionKey> unsupported = ConcurrentHashMap.newKeySet();
+        RemoteProfile profile = new RemoteProfile("example.com", 22, "player", "/srv/worlds", "Password");
+        AtomicInteger runs = new AtomicInteger();
+
+        assertNull(service.runExecFeature(unsupported, profile, () -> {
+            runs.incrementAndGet();
+            throw new JSchException("channel is not opened.");
+        }));
+        assertTrue(unsupported.isEmpty());
+        assertEquals("done", service.runExecFeature(unsupported, profile, () -> "done"));
+
+        assertNull(service.runExecFeature(unsupported, profile, () -> null));
+        assertEquals(1, unsupported.size());
+        assertNull(service.runExecFeature(unsupported, profile, () -> {
+            runs.incrementAndGet();
+            return "skipped";
+        }));
+        assertEquals(1, runs.get());
     }
 }
@@ -0,0 +1,117 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StubTransferServiceDeleteTest {
+    @TempDir
+    Path tempDir;
+
+    private Path remoteRoot;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void commandDeleteRemovesOnlyTheWorldFolder() throws Exception {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        Path skyland = createWorld("Skyland", 50);
+        Path neighbour = createWorld("Skyland2", 3);
+        long requestsBefore = server.sftpRequestCount();
+
+        new StubTransferService(pool).deleteRemoteWorld(world(skyland), server.profile());
+
+        assertFalse(Files.exists(skyland));
+        assertTrue(Files.isRegularFile(neighbour.resolve("universe/worlds/default/chunks/2.region.bin")));
+        assertTrue(server.sftpRequestCount() - requestsBefore < 10);
+    }
+
+    @Test
+    void sftpFallbackRemovesNestedFilesAcrossChannels() throws Exception {
+        Path skyland = createWorld("Skyland", 50);
+        Path neighbour = createWorld("Other", 3);
+
+        new StubTransferService(pool, null, false).deleteRemoteWorld(world(skyland), server.profile());
+
+        assertFalse(Files.exists(skyland));
+        assertTrue(Files.isDirectory(neighbour));
+    }
+
+    @Test
+    void worldsOutsideTheRemoteBaseFolderAreRefused() throws Exception {
+        Path skyland = createWorld("Skyland", 1);
+        Path outside = Files.createDirectories(tempDir.resolve("outside"));
+        StubTransferService service = new StubTransferService(pool);
+
+        for (String path : new String[] {
+                server.remotePath(remoteRoot),
+                server.remotePath(remoteRoot) + "/",
+                server.remotePath(remoteRoot) + "/..",
+                server.remotePath(remoteRoot) + "/../outside",
+                server.remotePath(remoteRoot) + "/Skyland/universe",
+                server.remotePath(outside) }) {
+            WorldEntry world = new WorldEntry();
+            world.setPath(path);
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.deleteRemoteWorld(world, server.profile()), path);
+        }
+
+        assertTrue(Files.isDirectory(skyland.resolve("universe")));
+        assertTrue(Files.isDirectory(outside));
+    }
+
+    @Test
+    void worldFolderNameRequiresADirectChildOfTheBase() {
+        assertEquals("Skyland", RemoteWorldDeletion.worldFolderName("/srv/worlds/", "/srv//worlds/Skyland/"));
+        assertEquals("Sky land", RemoteWorldDeletion.worldFolderName("worlds", "worlds/Sky land"));
+        assertThrows(IllegalArgumentException.class, () -> RemoteWorldDeletion.worldFolderName("/", "/srv"));
+        assertThrows(IllegalArgumentException.class,
+                () -> RemoteWorldDeletion.worldFolderName("/srv/../worlds", "/srv/../worlds/Skyland"));
+        assertThrows(IllegalArgumentException.class,
+                () -> RemoteWorldDeletion.worldFolderName("/srv/worlds", "/srv/worlds-old/Skyland"));
+        assertThrows(IllegalArgumentException.class, () -> RemoteWorldDeletion.worldFolderName("", "/Skyland"));
+    }
+
+    private Path createWorld(String name, int chunkCount) throws IOException {
+        Path world = remoteRoot.resolve(name);
+        Path chunks = Files.createDirectories(world.resolve("universe/worlds/default/chunks"));
+        Files.writeString(world.resolve("whitelist.json"), "{}");
+        for (int index = 0; index < chunkCount; index++) {
+            Files.writeString(chunks.resolve(index + ".region.bin"), "chunk-" + index);
+        }
+        return world;
+    }
+
+    private WorldEntry world(Path path) {
+        WorldEntry world = new WorldEntry();
+        world.setPath(server.remotePath(path));
+        world.setId(path.getFileName().toString());
+        return world;
+    }
+}
@@ -0,0 +1,116 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StubTransferServiceDuplicateTest {
+    private static final FileTime CHUNK_TIME = FileTime.from(Instant.parse("2024-01-15T14:30:00Z"));
+
+    @TempDir
+    Path tempDir;
+
+    private Path remoteRoot;
+    private Path skyland;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        skyland = remoteRoot.resolve("Skyland");
+        Path chunks = Files.createDirectories(skyland.resolve("universe/worlds/default/chunks"));
+        Files.writeString(skyland.resolve("whitelist.json"), "{\"enabled\":true,\"list\":[]}");
+        for (int index = 0; index < 20; index++) {
+            Path chunk = chunks.resolve(index + ".region.bin");
+            Files.writeString(chunk, "chunk-" + index);
+            Files.setLastModifiedTime(chunk, CHUNK_TIME);
+        }
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void commandDuplicateCopiesTheWorldOnTheServerUnderAUniqueName() throws Exception {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        StubTransferService service = new StubTransferService(pool);
+
+        String first = service.duplicateRemoteWorld(world(), server.profile());
+        String second = service.duplicateRemoteWorld(world(), server.profile());
+
+        assertEquals(server.remotePath(remoteRoot.resolve("Skyland_1")), first);
+        assertEquals(server.remotePath(remoteRoot.resolve("Skyland_2")), second);
+        assertEquals(contents(skyland), contents(remoteRoot.resolve("Skyland_1")));
+        assertEquals(CHUNK_TIME, Files.getLastModifiedTime(
+                remoteRoot.resolve("Skyland_2/universe/worlds/default/chunks/7.region.bin")));
+        assertEquals(3, entryCount(remoteRoot));
+    }
+
+    @Test
+    void sftpFallbackProducesTheSameCopy() throws Exception {
+        String duplicate = new StubTransferService(pool, null, false).duplicateRemoteWorld(world(), server.profile());
+
+        assertEquals(server.remotePath(remoteRoot.resolve("Skyland_1")), duplicate);
+        assertEquals(contents(skyland), contents(remoteRoot.resolve("Skyland_1")));
+        assertEquals(CHUNK_TIME, Files.getLastModifiedTime(
+                remoteRoot.resolve("Skyland_1/universe/worlds/default/chunks/7.region.bin")));
+        assertEquals(2, entryCount(remoteRoot));
+    }
+
+    @Test
+    void missingWorldsAreReported() {
+        WorldEntry missing = new WorldEntry();
+        missing.setPath(server.remotePath(remoteRoot.resolve("Missing")));
+
+        assertThrows(RuntimeException.class,
+                () -> new StubTransferService(pool).duplicateRemoteWorld(missing, server.profile()));
+        assertTrue(Files.notExists(remoteRoot.resolve("Missing_1")));
+    }
+
+    private WorldEntry world() {
+        WorldEntry world = new WorldEntry();
+        world.setPath(server.remotePath(skyland));
+        return world;
+    }
+
+    private static Map<String, String> contents(Path root) throws IOException {
+        Map<String, String> contents = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isRegularFile(path)) {
+                    contents.put(root.relativize(path).toString(), Files.readString(path));
+                }
+            }
+        }
+        return contents;
+    }
+
+    private static long entryCount(Path directory) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.count();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubTransferServicePatchTest {
+    @TempDir
+    Path tempDir;
+
+    private Path remoteWorld;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+    private StubTransferService service;
+    private WorldEntry world;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        Path remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        remoteWorld = Files.createDirectories(remoteRoot.resolve("Skyland"));
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+        service = new StubTransferService(pool);
+        world = new WorldEntry();
+        world.setPath(server.remotePath(remoteWorld));
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void patchRewritesOnlyTheTargetFileAndLeavesNoTempFiles() throws IOException {
+        Path config = remoteWorld.resolve("universe/worlds/default/config.json");
+        Files.createDirectories(config.getParent());
+        Files.writeString(config, "{\"DisplayName\":\"Old\",\"Seed\":1}");
+        Files.writeString(remoteWorld.resolve("universe/worlds/default/0.0.region.bin"), "chunk");
+
+        service.patchRemoteFile(world, "universe/worlds/default/config.json",
+                current -> new String(current, StandardCharsets.UTF_8).replace("Old", "New")
+                        .getBytes(StandardCharsets.UTF_8),
+                server.profile());
+
+        assertEquals("{\"DisplayName\":\"New\",\"Seed\":1}", Files.readString(config));
+        assertEquals("chunk", Files.readString(remoteWorld.resolve("universe/worlds/default/0.0.region.bin")));
+        assertEquals(2, fileCount(remoteWorld));
+    }
+
+    @Test
+    void readRemoteFileReturnsContentOrNullWhenMissing() throws IOException {
+        Files.writeString(remoteWorld.resolve("whitelist.json"), "{\"enabled\":false,\"list\":[]}");
+        Files.createDirectories(remoteWorld.resolve("universe/worlds/default"));
+        Files.write(remoteWorld.resolve("universe/worlds/default/0.0.region.bin"), new byte[256 * 1024]);
+
+        byte[] whitelist = service.readRemoteFile(world, "whitelist.json", server.profile());
+
+        assertEquals("{\"enabled\":false,\"list\":[]}", new String(whitelist, StandardCharsets.UTF_8));
+        assertNull(service.readRemoteFile(world, "universe/worlds/default/config.json", server.profile()));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.readRemoteFile(world, "../Other/whitelist.json", server.profile()));
+    }
+
+    @Test
+    void patchCreatesMissingFilesAndSeesNullContent() throws IOException {
+        AtomicReference<byte[]> seen = new AtomicReference<>(new byte[0]);
+        byte[] whitelist = "{\"enabled\":true,\"list\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        service.patchRemoteFile(world, "whitelist.json", current -> {
+            seen.set(current);
+            return whitelist;
+        }, server.profile());
+
+        assertNull(seen.get());
+        assertArrayEquals(whitelist, Files.readAllBytes(remoteWorld.resolve("whitelist.json")));
+    }
+
+    @Test
+    void failingPatchLeavesTheRemoteFileUntouched() throws IOException {
+        Files.writeString(remoteWorld.resolve("whitelist.json"), "original");
+
+        assertThrows(RuntimeException.class, () -> service.patchRemoteFile(world, "whitelist.json", current -> {
+            throw new IOException("broken");
+        }, server.profile()));
+
+        assertEquals("original", Files.readString(remoteWorld.resolve("whitelist.json")));
+        assertEquals(1, fileCount(remoteWorld));
+    }
+
+    @Test
+    void pathsOutsideTheWorldFolderAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.patchRemoteFile(world, "../other/whitelist.json", current -> current, server.profile()));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.patchRemoteFile(world, "/etc/passwd", current -> current, server.profile()));
+        assertFalse(Files.exists(tempDir.resolve("remote/other")));
+        assertTrue(Files.isDirectory(remoteWorld));
+    }
+
+    private static long fileCount(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).count();
+        }
+    }
+}
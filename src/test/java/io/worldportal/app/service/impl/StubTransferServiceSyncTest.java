@@ -0,0 +1,251 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.config.WorldSyncStateStore;
+import io.worldportal.app.model.RemoteProfile;
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StubTransferServiceSyncTest {
+    private static final String CHUNK_A = "universe/worlds/default/chunks/0.0.region.bin";
+    private static final String CHUNK_B = "universe/worlds/default/chunks/0.1.region.bin";
+
+    @TempDir
+    Path tempDir;
+
+    private Path remoteRoot;
+    private Path localWorld;
+    private Path remoteWorld;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+    private StubTransferService service;
+    private RemoteProfile profile;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        remoteWorld = Files.createDirectories(remoteRoot.resolve("Skyland"));
+        localWorld = Files.createDirectories(tempDir.resolve("local/Skyland"));
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(2, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+        service = new StubTransferService(pool, new WorldSyncStateStore(tempDir.resolve("state")));
+        profile = server.profile();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void localToRemoteSyncTransfersOnlyChangedFilesAndDeletesRemovedOnes() throws IOException {
+        write(localWorld, "config.json", "{\"DisplayName\":\"Skyland\"}");
+        write(localWorld, CHUNK_A, "chunk-a-v1");
+        write(localWorld, CHUNK_B, "chunk-b-v1");
+        write(localWorld, "logs/latest.log", "not synced");
+
+        sync(true);
+        assertEquals("chunk-a-v1", Files.readString(remoteWorld.resolve(CHUNK_A)));
+        assertFalse(Files.exists(remoteWorld.resolve("logs")));
+
+        markUntouched(remoteWorld.resolve(CHUNK_B), "chunk-b-XX");
+        write(localWorld, CHUNK_A, "chunk-a-v2-longer");
+        Files.delete(localWorld.resolve("config.json"));
+
+        sync(true);
+
+        assertEquals("chunk-a-v2-longer", Files.readString(remoteWorld.resolve(CHUNK_A)));
+        assertEquals("chunk-b-XX", Files.readString(remoteWorld.resolve(CHUNK_B)));
+        assertFalse(Files.exists(remoteWorld.resolve("config.json")));
+        assertTrue(Files.isDirectory(remoteWorld.resolve("backup")));
+    }
+
+    @Test
+    void localToRemoteSyncRemovesRemoteDirectoriesItEmptied() throws IOException {
+        write(localWorld, CHUNK_A, "chunk-a");
+        write(localWorld, "universe/players/steve.json", "steve");
+        write(localWorld, "universe/memories.json", "{}");
+        sync(true);
+
+        Files.delete(localWorld.resolve(CHUNK_A));
+        Files.delete(localWorld.resolve("universe/players/steve.json"));
+        sync(true);
+
+        assertFalse(Files.exists(remoteWorld.resolve("universe/worlds")));
+        assertFalse(Files.exists(remoteWorld.resolve("universe/players")));
+        assertEquals("{}", Files.readString(remoteWorld.resolve("universe/memories.json")));
+    }
+
+    @Test
+    void remoteToLocalSyncTransfersOnlyChangedFilesAndDeletesRemovedOnes() throws IOException {
+        write(remoteWorld, "config.json", "{}");
+        write(remoteWorld, CHUNK_A, "chunk-a-v1");
+        write(remoteWorld, CHUNK_B, "chunk-b-v1");
+
+        sync(false);
+        assertEquals("chunk-b-v1", Files.readString(localWorld.resolve(CHUNK_B)));
+
+        markUntouched(localWorld.resolve(CHUNK_A), "chunk-a-XX");
+        write(remoteWorld, CHUNK_B, "chunk-b-v2-longer");
+        Files.delete(remoteWorld.resolve(CHUNK_A));
+
+        sync(false);
+
+        assertEquals("chunk-b-v2-longer", Files.readString(localWorld.resolve(CHUNK_B)));
+        assertFalse(Files.exists(localWorld.resolve(CHUNK_A)));
+        assertTrue(Files.exists(localWorld.resolve("config.json")));
+    }
+
+    @Test
+    void touchedButIdenticalLocalFilesAreNotTransferredAgain() throws IOException {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        write(localWorld, CHUNK_A, "chunk-a");
+        sync(true);
+
+        Files.setLastModifiedTime(localWorld.resolve(CHUNK_A), FileTime.from(Instant.now().plusSeconds(60)));
+        long touchedSyncRequests = countSftpRequests(() -> sync(true));
+        long idleSyncRequests = countSftpRequests(() -> sync(true));
+
+        assertEquals(idleSyncRequests, touchedSyncRequests);
+        assertEquals("chunk-a", Files.readString(remoteWorld.resolve(CHUNK_A)));
+
+        write(localWorld, CHUNK_A, "chunk-b");
+        sync(true);
+
+        assertEquals("chunk-b", Files.readString(remoteWorld.resolve(CHUNK_A)));
+    }
+
+    @Test
+    void syncWithoutStoredStateKeepsUnrelatedTargetFiles() throws IOException {
+        service = new StubTransferService(pool);
+        write(localWorld, CHUNK_A, "chunk-a");
+        write(remoteWorld, CHUNK_B, "remote-only");
+
+        sync(true);
+
+        assertEquals("chunk-a", Files.readString(remoteWorld.resolve(CHUNK_A)));
+        assertEquals("remote-only", Files.readString(remoteWorld.resolve(CHUNK_B)));
+    }
+
+    @Test
+    void firstSyncKeepsTargetOnlyFilesAndLaterSyncsStillDeleteThem() throws IOException {
+        write(remoteWorld, CHUNK_A, "chunk-a");
+        write(localWorld, CHUNK_B, "local-only");
+
+        sync(false);
+        assertEquals("local-only", Files.readString(localWorld.resolve(CHUNK_B)));
+
+        sync(true);
+        assertEquals("local-only", Files.readString(remoteWorld.resolve(CHUNK_B)));
+
+        Files.delete(remoteWorld.resolve(CHUNK_B));
+        sync(false);
+        assertFalse(Files.exists(localWorld.resolve(CHUNK_B)));
+    }
+
+    @Test
+    void largeChunkFilesSyncCorrectlyInBothDirections() throws IOException {
+        byte[] original = new byte[512 * 1024];
+        new Random(7).nextBytes(original);
+        Files.createDirectories(localWorld.resolve(CHUNK_A).getParent());
+        Files.write(localWorld.resolve(CHUNK_A), original);
+        sync(true);
+
+        byte[] edited = original.clone();
+        edited[1000] ^= 1;
+        edited[400_000] ^= 1;
+        Files.write(localWorld.resolve(CHUNK_A), edited);
+        Files.setLastModifiedTime(localWorld.resolve(CHUNK_A), FileTime.from(Instant.now().plusSeconds(60)));
+        sync(true);
+        assertArrayEquals(edited, Files.readAllBytes(remoteWorld.resolve(CHUNK_A)));
+
+        byte[] remoteEdit = edited.clone();
+        remoteEdit[200_000] ^= 1;
+        Files.write(remoteWorld.resolve(CHUNK_A), remoteEdit);
+        Files.setLastModifiedTime(remoteWorld.resolve(CHUNK_A), FileTime.from(Instant.now().plusSeconds(60)));
+        sync(false);
+        assertArrayEquals(remoteEdit, Files.readAllBytes(localWorld.resolve(CHUNK_A)));
+    }
+
+    @Test
+    void sftpBackupZipsTheRemoteUniverseWhileWalkingIt() throws IOException {
+        service = new StubTransferService(pool, new WorldSyncStateStore(tempDir.resolve("state")), false);
+        write(remoteWorld, "universe/memories.json", "{}");
+        write(remoteWorld, "universe/players/steve.json", "steve");
+        write(remoteWorld, CHUNK_A, "chunk-a-remote");
+        write(localWorld, CHUNK_A, "chunk-a-local");
+
+        sync(true);
+
+        Path backup;
+        try (Stream<Path> backups = Files.list(remoteWorld.resolve("backup"))) {
+            backup = backups.findFirst().orElseThrow();
+        }
+        Set<String> entries = new HashSet<>();
+        try (ZipFile zip = new ZipFile(backup.toFile())) {
+            zip.stream().forEach(entry -> entries.add(entry.getName()));
+            assertEquals("chunk-a-remote",
+                    new String(zip.getInputStream(zip.getEntry("worlds/default/chunks/0.0.region.bin")).readAllBytes()));
+        }
+        assertEquals(Set.of("memories.json", "players/steve.json", "worlds/default/chunks/0.0.region.bin"), entries);
+        assertEquals("chunk-a-local", Files.readString(remoteWorld.resolve(CHUNK_A)));
+    }
+
+    private void sync(boolean localToRemote) throws IOException {
+        WorldEntry local = new WorldEntry();
+        local.setId("Skyland");
+        local.setPath(localWorld.toString());
+        WorldEntry remote = new WorldEntry();
+        remote.setId("Skyland");
+        remote.setPath(server.remotePath(remoteWorld));
+        if (localToRemote) {
+            service.syncLocalToRemoteWorld(local, remote, profile);
+        } else {
+            service.syncRemoteToLocalWorld(remote, local, profile);
+        }
+    }
+
+    private long countSftpRequests(SyncAction action) throws IOException {
+        long before = server.sftpRequestCount();
+        action.run();
+        return server.sftpRequestCount() - before;
+    }
+
+    @FunctionalInterface
+    private interface SyncAction {
+        void run() throws IOException;
+    }
+
+    private static void markUntouched(Path file, String sameSizeContent) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        Files.writeString(file, sameSizeContent);
+        Files.setLastModifiedTime(file, modified);
+    }
+
+    private static void write(Path root, String relativePath, String content) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
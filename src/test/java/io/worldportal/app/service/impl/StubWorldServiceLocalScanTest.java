@@ -0,0 +1,59 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StubWorldServiceLocalScanTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parallelScanMatchesSequentialScan() throws Exception {
+        for (int index = 0; index < 40; index++) {
+            createWorld(tempDir, "world-" + index, Instant.ofEpochSecond(1_700_000_000L + index * 60L));
+        }
+        Files.createDirectories(tempDir.resolve("not-a-world"));
+        Files.writeString(tempDir.resolve("notes.txt"), "ignored");
+
+        StubWorldService sequential = new StubWorldService(null, false, null);
+        sequential.setLocalScanConcurrency(1);
+        StubWorldService parallel = new StubWorldService(null, false, null);
+
+        List<WorldEntry> expected = sequential.listLocalWorlds(tempDir.toString());
+        List<WorldEntry> actual = parallel.listLocalWorlds(tempDir.toString());
+
+        assertEquals(40, actual.size());
+        assertEquals(ids(expected), ids(actual));
+        assertEquals("world-39", actual.get(0).getId());
+        assertEquals("World 39", actual.get(0).getName());
+        assertEquals("release", actual.get(0).getPatchLine());
+        assertEquals(Instant.ofEpochSecond(1_700_000_000L + 39 * 60L), actual.get(0).getLastModified());
+    }
+
+    static void createWorld(Path root, String name, Instant modified) throws Exception {
+        Path world = root.resolve(name);
+        Path config = world.resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH);
+        Files.createDirectories(config.getParent());
+        Files.writeString(config, """
+                {"DisplayName":"%s","GameMode":"Adventure","GameTime":"2026-01-01T00:00:00Z",
+                 "UUID":{"$binary":"AAAA","$type":"04"}}
+                """.formatted(name.replace("world-", "World ")));
+        Files.setLastModifiedTime(config, FileTime.from(modified));
+        Files.writeString(world.resolve(WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH),
+                "{\"CreatedWithPatchline\":\"release\"}");
+    }
+
+    private static List<String> ids(List<WorldEntry> worlds) {
+        return worlds.stream().map(WorldEntry::getId).toList();
+    }
+}
@@ -2,44 +2,175 @@ package io.worldportal.app.service.impl;
 
 import io.worldportal.app.model.RemoteProfile;
 import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class StubWorldServicePreviewTest {
 
+    @TempDir
+    Path tempDir;
+
+    private Path remoteRoot;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+    private RemotePreviewCache previewCache;
+    private StubWorldService service;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(1, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+        previewCache = new RemotePreviewCache(tempDir.resolve("previews"), RemotePreviewCache.DEFAULT_MAX_BYTES);
+        service = new StubWorldService(pool, false, null, previewCache);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
     @Test
     void downloadRemotePreviewReturnsNullForInvalidInput() {
-        StubWorldService service = new StubWorldService();
-
         assertNull(service.downloadRemotePreview(null, null));
         assertNull(service.downloadRemotePreview(new WorldEntry(), null));
     }
 
     @Test
-    void downloadRemotePreviewReturnsCachedFileWhenPresent() throws IOException {
-        StubWorldService service = new StubWorldService();
-        RemoteProfile profile = new RemoteProfile();
-        profile.setHost("example.com");
+    void downloadRemotePreviewRevalidatesWithStatInsteadOfDownloading() throws IOException {
+        RemoteProfile profile = server.profile();
+        WorldEntry world = remoteWorld("MyRemoteWorld");
+        writeRemotePreview("MyRemoteWorld", "preview-v1", 1_700_000_000L);
 
-        WorldEntry world = new WorldEntry();
-        world.setId("MyRemoteWorld");
-        world.setPath("/remote/worlds/MyRemoteWorld");
+        String first = service.downloadRemotePreview(world, profile);
+        assertEquals(service.previewCacheFile(profile, world).toString(), first);
+        assertEquals("preview-v1", Files.readString(Path.of(first)));
+
+        long before = server.sftpRequestCount();
+        assertEquals(first, service.downloadRemotePreview(world, profile));
+        assertTrue(server.sftpRequestCount() - before <= 3,
+                "revalidation should stat the preview without downloading it");
+
+        writeRemotePreview("MyRemoteWorld", "preview-v2-larger", 1_700_000_100L);
+        assertEquals("preview-v2-larger", Files.readString(Path.of(service.downloadRemotePreview(world, profile))));
+    }
+
+    @Test
+    void downloadRemotePreviewReplacesUntrackedCacheFiles() throws IOException {
+        RemoteProfile profile = server.profile();
+        WorldEntry world = remoteWorld("MyRemoteWorld");
+        writeRemotePreview("MyRemoteWorld", "complete-preview", 1_700_000_000L);
 
         Path cacheFile = service.previewCacheFile(profile, world);
         Files.createDirectories(cacheFile.getParent());
-        Files.writeString(cacheFile, "preview");
+        Files.writeString(cacheFile, "partial");
+
+        String result = service.downloadRemotePreview(world, profile);
+
+        assertEquals(cacheFile.toString(), result);
+        assertEquals("complete-preview", Files.readString(cacheFile));
+    }
+
+    @Test
+    void downloadRemotePreviewDropsCacheWhenRemotePreviewIsGone() throws IOException {
+        RemoteProfile profile = server.profile();
+        WorldEntry world = remoteWorld("MyRemoteWorld");
+        writeRemotePreview("MyRemoteWorld", "preview", 1_700_000_000L);
+        Path cached = Path.of(service.downloadRemotePreview(world, profile));
+
+        Files.delete(remoteRoot.resolve("MyRemoteWorld").resolve(LocalWorldIndex.PREVIEW_RELATIVE_PATH));
+
+        assertNull(service.downloadRemotePreview(world, profile));
+        assertFalse(Files.exists(cached));
+        assertEquals(0, previewCache.size());
+    }
 
-        try {
-            String result = service.downloadRemotePreview(world, profile);
-            assertEquals(cacheFile.toString(), result);
-        } finally {
-            Files.deleteIfExists(cacheFile);
+    @Test
+    void downloadRemotePreviewServesValidatedCopyWhileOffline() throws IOException {
+        RemoteProfile profile = server.profile();
+        WorldEntry world = remoteWorld("MyRemoteWorld");
+        writeRemotePreview("MyRemoteWorld", "preview", 1_700_000_000L);
+        String cached = service.downloadRemotePreview(world, profile);
+
+        pool.shutdown();
+        server.close();
+
+        assertEquals(cached, service.downloadRemotePreview(world, profile));
+        assertArrayEquals("preview".getBytes(), Files.readAllBytes(Path.of(cached)));
+    }
+
+    @Test
+    void downloadRemotePreviewsStreamsOnlyChangedPreviewsThroughExec() throws IOException {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        service = new StubWorldService(pool, true, null, previewCache);
+        RemoteProfile profile = server.profile();
+        List<WorldEntry> worlds = new ArrayList<>();
+        for (int index = 0; index < 5; index++) {
+            writeRemotePreview("World" + index, "preview-" + index, 1_700_000_000L + index);
+            worlds.add(remoteWorld("World" + index));
         }
+        worlds.add(remoteWorld("NoPreview"));
+        Files.createDirectories(remoteRoot.resolve("NoPreview"));
+
+        long before = server.sftpRequestCount();
+        Map<String, String> previews = service.downloadRemotePreviews(worlds, profile);
+
+        assertEquals(before, server.sftpRequestCount());
+        assertEquals(5, previews.size());
+        assertEquals("preview-3", Files.readString(Path.of(previews.get("World3"))));
+
+        writeRemotePreview("World1", "preview-1-changed", 1_700_000_500L);
+        Map<String, String> refreshed = service.downloadRemotePreviews(worlds, profile);
+
+        assertEquals("preview-1-changed", Files.readString(Path.of(refreshed.get("World1"))));
+        assertEquals(previews.get("World3"), refreshed.get("World3"));
+        assertEquals(service.previewCacheFile(profile, worlds.get(1)).toString(), refreshed.get("World1"));
+    }
+
+    @Test
+    void downloadRemotePreviewsFallsBackToSftpWithoutExec() throws IOException {
+        RemoteProfile profile = server.profile();
+        writeRemotePreview("Alpha", "alpha", 1_700_000_000L);
+        writeRemotePreview("Beta", "beta", 1_700_000_000L);
+
+        Map<String, String> previews = service.downloadRemotePreviews(
+                List.of(remoteWorld("Alpha"), remoteWorld("Beta")), profile);
+
+        assertEquals("alpha", Files.readString(Path.of(previews.get("Alpha"))));
+        assertEquals("beta", Files.readString(Path.of(previews.get("Beta"))));
+    }
+
+    private WorldEntry remoteWorld(String name) {
+        WorldEntry world = new WorldEntry();
+        world.setId(name);
+        world.setPath(server.remotePath(remoteRoot.resolve(name)));
+        return world;
+    }
+
+    private void writeRemotePreview(String worldName, String content, long modifiedSeconds) throws IOException {
+        Path preview = remoteRoot.resolve(worldName).resolve(LocalWorldIndex.PREVIEW_RELATIVE_PATH);
+        Files.createDirectories(preview.getParent());
+        Files.writeString(preview, content);
+        Files.setLastModifiedTime(preview, FileTime.from(Instant.ofEpochSecond(modifiedSeconds)));
     }
 }
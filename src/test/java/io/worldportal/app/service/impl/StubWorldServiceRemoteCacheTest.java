@@ -0,0 +1,127 @@
+package io.worldportal.app.service.impl;
+
+import io.worldportal.app.config.RemoteWorldCacheStore;
+import io.worldportal.app.model.RemoteProfile;
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StubWorldServiceRemoteCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path remoteRoot;
+    private SftpTestServer server;
+    private SshSessionPool pool;
+    private RemoteWorldCacheStore cacheStore;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        remoteRoot = Files.createDirectories(tempDir.resolve("remote"));
+        writeWorld("Alpha", "Alpha World", 1_700_000_000L);
+        writeWorld("Beta", "Beta World", 1_700_000_100L);
+        server = SftpTestServer.start(remoteRoot);
+        pool = new SshSessionPool(1, 60_000L, 5_000L, SshSessionFactory::createConnectedSession,
+                session -> session.isConnected(), System::currentTimeMillis);
+        cacheStore = new RemoteWorldCacheStore(tempDir.resolve("cache"));
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        pool.shutdown();
+        server.close();
+    }
+
+    @Test
+    void sftpRevalidationOnlyStatsUnchangedWorlds() throws Exception {
+        StubWorldService service = new StubWorldService(pool, false, cacheStore);
+        RemoteProfile profile = server.profile();
+
+        List<WorldEntry> first = service.listRemoteWorlds(profile);
+        assertEquals(List.of("Beta World", "Alpha World"), names(first));
+
+        long before = server.sftpRequestCount();
+        List<WorldEntry> second = service.listRemoteWorlds(profile);
+        long revalidationRequests = server.sftpRequestCount() - before;
+
+        assertEquals(names(first), names(second));
+        assertTrue(revalidationRequests <= 2 + 2 * 2 + 4,
+                "revalidation should stat files without downloading them: " + revalidationRequests);
+
+        writeWorld("Alpha", "Alpha Renamed", 1_700_000_200L);
+        assertEquals(List.of("Alpha Renamed", "Beta World"), names(service.listRemoteWorlds(profile)));
+    }
+
+    @Test
+    void execRevalidationPicksUpChangedAndRemovedWorlds() throws Exception {
+        assumeTrue(SftpTestServer.supportsRemoteCommands());
+        StubWorldService service = new StubWorldService(pool, true, cacheStore);
+        RemoteProfile profile = server.profile();
+
+        assertEquals(List.of("Beta World", "Alpha World"), names(service.listRemoteWorlds(profile)));
+
+        writeWorld("Alpha", "Alpha Renamed", 1_700_000_200L);
+        deleteTree(remoteRoot.resolve("Beta"));
+        writeWorld("Gamma", "Gamma World", 1_700_000_050L);
+        long before = server.sftpRequestCount();
+
+        assertEquals(List.of("Alpha Renamed", "Gamma World"), names(service.listRemoteWorlds(profile)));
+        assertEquals(0, server.sftpRequestCount() - before);
+    }
+
+    @Test
+    void streamsEveryWorldToSinkBeforeReturning() {
+        StubWorldService service = new StubWorldService(pool, false, cacheStore);
+        List<String> streamed = new ArrayList<>();
+
+        List<WorldEntry> listed = service.listRemoteWorlds(server.profile(), world -> streamed.add(world.getName()));
+
+        assertEquals(List.of("Alpha World", "Beta World"), streamed.stream().sorted().toList());
+        assertEquals(List.of("Beta World", "Alpha World"), names(listed));
+    }
+
+    @Test
+    void cachedListIsAvailableWithoutConnection() {
+        StubWorldService service = new StubWorldService(pool, false, cacheStore);
+        RemoteProfile profile = server.profile();
+        service.listRemoteWorlds(profile);
+
+        RemoteProfile offline = server.profile();
+        offline.setPassword("");
+        assertEquals(List.of("Beta World", "Alpha World"), names(service.listCachedRemoteWorlds(offline)));
+    }
+
+    private void writeWorld(String id, String displayName, long modifiedSeconds) throws IOException {
+        Path config = remoteRoot.resolve(id).resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH);
+        Files.createDirectories(config.getParent());
+        Files.writeString(config, "{\"DisplayName\":\"" + displayName + "\",\"GameMode\":\"Adventure\"}");
+        Files.setLastModifiedTime(config, FileTime.from(Instant.ofEpochSecond(modifiedSeconds)));
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (var paths = Files.walk(root)) {
+            for (Path path : paths.sorted((left, right) -> right.getNameCount() - left.getNameCount()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static List<String> names(List<WorldEntry> worlds) {
+        return worlds.stream().map(WorldEntry::getName).toList();
+    }
+}
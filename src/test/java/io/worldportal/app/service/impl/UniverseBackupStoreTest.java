@@ -0,0 +1,135 @@
+package io.worldportal.app.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniverseBackupStoreTest {
+    private static final Set<String> ROOT_FILES = Set.of("memories.json");
+    private static final Set<String> ROOT_DIRECTORIES = Set.of("players", "worlds");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void laterBackupsOnlyStoreThePiecesThatChanged() throws IOException {
+        Path universe = tempDir.resolve("universe");
+        for (int index = 0; index < 20; index++) {
+            writeRandom(universe.resolve("worlds/default/chunks/" + index + ".region.bin"), 3 * 1024 * 1024, index);
+        }
+        Files.writeString(universe.resolve("memories.json"), "{}");
+        UniverseBackupStore store = new UniverseBackupStore(tempDir.resolve("backup"));
+
+        store.backup(universe, ROOT_FILES, ROOT_DIRECTORIES, "2024-01-01_00-00-00");
+        long objectsAfterFirst = objectCount();
+        assertEquals(61, objectsAfterFirst);
+
+        Path changed = universe.resolve("worlds/default/chunks/7.region.bin");
+        byte[] content = Files.readAllBytes(changed);
+        content[UniverseBackupStore.PIECE_SIZE + 10] ^= 1;
+        Files.write(changed, content);
+        Files.setLastModifiedTime(changed, FileTime.from(Instant.now().plusSeconds(60)));
+        store.backup(universe, ROOT_FILES, ROOT_DIRECTORIES, "2024-01-01_00-10-00");
+
+        assertEquals(objectsAfterFirst + 1, objectCount());
+        assertEquals(List.of("2024-01-01_00-00-00", "2024-01-01_00-10-00"), store.backups());
+        assertEquals(List.of(), store.verify("2024-01-01_00-10-00"));
+
+        Path restoredOld = tempDir.resolve("restored-old");
+        store.restore("2024-01-01_00-00-00", restoredOld);
+        content[UniverseBackupStore.PIECE_SIZE + 10] ^= 1;
+        assertArrayEquals(content, Files.readAllBytes(restoredOld.resolve("worlds/default/chunks/7.region.bin")));
+        assertEquals("{}", Files.readString(restoredOld.resolve("memories.json")));
+    }
+
+    @Test
+    void verifyAndRestoreDetectDamagedObjects() throws IOException {
+        Path universe = tempDir.resolve("universe");
+        Files.createDirectories(universe.resolve("players"));
+        Files.writeString(universe.resolve("players/alice.json"), "{\"name\":\"alice\"}");
+        Files.writeString(universe.resolve("players/bob.json"), "{\"name\":\"bob\"}");
+        UniverseBackupStore store = new UniverseBackupStore(tempDir.resolve("backup"));
+        store.backup(universe, ROOT_FILES, ROOT_DIRECTORIES, "snapshot");
+
+        try (Stream<Path> objects = Files.walk(tempDir.resolve("backup/objects"))) {
+            Path object = objects.filter(Files::isRegularFile)
+                    .filter(path -> readQuietly(path).contains("bob"))
+                    .findFirst()
+                    .orElseThrow();
+            Files.writeString(object, "{\"name\":\"eve\"}");
+        }
+
+        assertEquals(List.of("players/bob.json"), store.verify("snapshot"));
+        assertThrows(IOException.class, () -> store.restore("snapshot", tempDir.resolve("restored")));
+    }
+
+    @Test
+    void pruneKeepsTheNewestBackupsAndDropsUnreferencedObjects() throws IOException {
+        Path universe = tempDir.resolve("universe");
+        Files.createDirectories(universe.resolve("players"));
+        UniverseBackupStore store = new UniverseBackupStore(tempDir.resolve("backup"));
+        for (int index = 0; index < 4; index++) {
+            Path player = universe.resolve("players/alice.json");
+            Files.writeString(player, "{\"version\":" + index + "}");
+            Files.setLastModifiedTime(player, FileTime.from(Instant.now().plusSeconds(index * 60L)));
+            store.backup(universe, ROOT_FILES, ROOT_DIRECTORIES, "2024-01-01_00-0" + index + "-00");
+        }
+        assertEquals(4, objectCount());
+
+        assertEquals(2, store.prune(2));
+
+        assertEquals(List.of("2024-01-01_00-02-00", "2024-01-01_00-03-00"), store.backups());
+        assertEquals(2, objectCount());
+        Path restored = tempDir.resolve("restored");
+        store.restore("2024-01-01_00-02-00", restored);
+        assertEquals("{\"version\":2}", Files.readString(restored.resolve("players/alice.json")));
+    }
+
+    @Test
+    void backupsTakenInTheSameSecondGetDistinctIds() throws IOException {
+        Path universe = Files.createDirectories(tempDir.resolve("universe"));
+        UniverseBackupStore store = new UniverseBackupStore(tempDir.resolve("backup"));
+
+        Path first = store.backup(universe, ROOT_FILES, ROOT_DIRECTORIES, "2024-01-01_00-00-00");
+        Path second = store.backup(universe, ROOT_FILES, ROOT_DIRECTORIES, "2024-01-01_00-00-00");
+
+        assertTrue(Files.exists(first));
+        assertTrue(Files.exists(second));
+        assertEquals(List.of("2024-01-01_00-00-00", "2024-01-01_00-00-00_1"), store.backups());
+    }
+
+    private long objectCount() throws IOException {
+        try (Stream<Path> objects = Files.walk(tempDir.resolve("backup/objects"))) {
+            return objects.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static void writeRandom(Path file, int size, long seed) throws IOException {
+        byte[] content = new byte[size];
+        new Random(seed).nextBytes(content);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+    }
+
+    private static String readQuietly(Path file) {
+        try {
+            return Files.readString(file);
+        } catch (IOException exception) {
+            return "";
+        }
+    }
+}
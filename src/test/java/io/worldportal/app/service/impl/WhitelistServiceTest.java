@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -29,6 +30,18 @@ class WhitelistServiceTest {
         assertTrue(config.playerUuids().isEmpty());
     }
 
+    @Test
+    void loadParsesInMemoryContentAndDefaultsWhenMissing() {
+        WhitelistService service = new WhitelistService();
+
+        WhitelistService.WhitelistConfig loaded = service.load(
+                "{\"enabled\": false, \"list\": [\"a\", \"b\"]}".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(loaded.enabled());
+        assertEquals(List.of("a", "b"), loaded.playerUuids());
+        assertTrue(service.load((byte[]) null).enabled());
+    }
+
     @Test
     void saveAndLoadRoundTripKeepsEnabledAndPlayers() throws IOException {
         WhitelistService service = new WhitelistService();
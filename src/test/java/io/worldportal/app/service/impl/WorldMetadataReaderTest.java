@@ -0,0 +1,72 @@
+package io.worldportal.app.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WorldMetadataReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void extractsAllFieldsInSingleScan() {
+        String config = """
+                {
+                  "DisplayName": "Skyland",
+                  "UUID": { "$binary": "q83vEjRWeJA=", "$type": "04" },
+                  "GameTime": "2026-01-02T03:04:05Z",
+                  "GameMode": "Adventure",
+                  "Nested": { "DisplayName": "ignored" }
+                }
+                """;
+        String clientMetadata = "{\"CreatedWithPatchline\":\"release\"}";
+
+        WorldMetadataReader.WorldMetadata metadata = WorldMetadataReader.parse(config, clientMetadata, Instant.EPOCH);
+
+        assertEquals("Skyland", metadata.displayName());
+        assertEquals("Adventure", metadata.gameMode());
+        assertEquals("q83vEjRWeJA=", metadata.uuidBinary());
+        assertEquals("2026-01-02T03:04:05Z", metadata.gameTime());
+        assertEquals("release", metadata.patchLine());
+    }
+
+    @Test
+    void leavesMissingFieldsEmpty() {
+        WorldMetadataReader.WorldMetadata metadata = WorldMetadataReader.parse("{}", null, Instant.EPOCH);
+
+        assertNull(metadata.displayName());
+        assertNull(metadata.gameMode());
+        assertNull(metadata.patchLine());
+    }
+
+    @Test
+    void treatsBlankDisplayNameAsMissing() {
+        WorldMetadataReader.WorldMetadata metadata =
+                WorldMetadataReader.parse("{\"DisplayName\":\"  \"}", null, Instant.EPOCH);
+
+        assertNull(metadata.displayName());
+    }
+
+    @Test
+    void readLocalReadsConfigAndClientMetadata() throws Exception {
+        Path world = tempDir.resolve("MyWorld");
+        Path config = world.resolve(WorldMetadataReader.CONFIG_RELATIVE_PATH);
+        Files.createDirectories(config.getParent());
+        Files.writeString(config, "{\"DisplayName\":\"My World\"}");
+        Files.writeString(world.resolve(WorldMetadataReader.CLIENT_METADATA_RELATIVE_PATH), "{\"CreatedWithPatchline\":\"release\"}");
+
+        WorldMetadataReader.WorldMetadata metadata =
+                WorldMetadataReader.readLocal(world, Instant.ofEpochSecond(1_700_000_000L));
+
+        assertEquals("My World", metadata.displayName());
+        assertEquals("release", metadata.patchLine());
+        assertEquals(Instant.ofEpochSecond(1_700_000_000L), metadata.lastModified());
+    }
+}
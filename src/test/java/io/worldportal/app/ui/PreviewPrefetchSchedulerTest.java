@@ -0,0 +1,185 @@
+package io.worldportal.app.ui;
+
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreviewPrefetchSchedulerTest {
+    private final List<String> loaded = new CopyOnWriteArrayList<>();
+    private final LinkedBlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Test
+    void loadsMostRecentlyShownRowsFirstAndSkipsHiddenRows() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        PreviewPrefetchScheduler scheduler = new PreviewPrefetchScheduler(1, world -> {
+            if (world.getId().equals("A")) {
+                firstStarted.countDown();
+                await(releaseFirst);
+            }
+            loaded.add(world.getId());
+            return "/cache/" + world.getId() + ".png";
+        }, uiQueue::add, () -> {
+        });
+
+        WorldEntry a = world("A");
+        scheduler.shown(a);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        WorldEntry b = world("B");
+        WorldEntry c = world("C");
+        WorldEntry d = world("D");
+        scheduler.shown(b);
+        scheduler.shown(c);
+        scheduler.shown(d);
+        scheduler.hidden(c);
+        scheduler.shown(a);
+        releaseFirst.countDown();
+
+        awaitLoaded(3);
+        assertEquals(List.of("A", "D", "B"), loaded);
+        assertEquals("/cache/D.png", d.getPreviewImagePath());
+        assertEquals(0, scheduler.queuedCount());
+    }
+
+    @Test
+    void boundsConcurrencyAndCoalescesUiRefreshes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+        PreviewPrefetchScheduler scheduler = new PreviewPrefetchScheduler(2, world -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            await(release);
+            inFlight.decrementAndGet();
+            loaded.add(world.getId());
+            return "/cache/" + world.getId() + ".png";
+        }, uiQueue::add, refreshes::incrementAndGet);
+
+        for (int index = 0; index < 20; index++) {
+            scheduler.shown(world("W" + index));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        awaitLoaded(20);
+
+        assertEquals(2, maxInFlight.get());
+        assertTrue(uiQueue.size() < 20);
+        Runnable refresh;
+        while ((refresh = uiQueue.poll()) != null) {
+            refresh.run();
+        }
+        assertTrue(refreshes.get() >= 1);
+    }
+
+    @Test
+    void cancelAllDropsQueuedWork() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PreviewPrefetchScheduler scheduler = new PreviewPrefetchScheduler(1, world -> {
+            started.countDown();
+            await(release);
+            loaded.add(world.getId());
+            return null;
+        }, uiQueue::add, () -> {
+        });
+
+        scheduler.shown(world("A"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        scheduler.shown(world("B"));
+        scheduler.shown(world("C"));
+        assertEquals(2, scheduler.queuedCount());
+        scheduler.cancelAll();
+        release.countDown();
+
+        awaitLoaded(1);
+        Thread.sleep(100);
+        assertEquals(List.of("A"), loaded);
+        assertTrue(uiQueue.isEmpty());
+    }
+
+    @Test
+    void rowsShownDuringBulkPrefetchWaitForItAndOnlyMissesLoadIndividually() throws Exception {
+        CountDownLatch bulkStarted = new CountDownLatch(1);
+        CountDownLatch releaseBulk = new CountDownLatch(1);
+        PreviewPrefetchScheduler scheduler = new PreviewPrefetchScheduler(2, world -> {
+            loaded.add(world.getId());
+            return "/cache/" + world.getId() + ".png";
+        }, uiQueue::add, () -> {
+        });
+        WorldEntry a = world("A");
+        WorldEntry b = world("B");
+
+        scheduler.prefetchAll(List.of(a, b), worlds -> {
+            bulkStarted.countDown();
+            await(releaseBulk);
+            return Map.of("A", "/bulk/A.png");
+        });
+        assertTrue(bulkStarted.await(5, TimeUnit.SECONDS));
+        scheduler.shown(a);
+        scheduler.shown(b);
+        Thread.sleep(100);
+        assertTrue(loaded.isEmpty());
+        releaseBulk.countDown();
+
+        awaitLoaded(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (b.getPreviewImagePath() == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(List.of("B"), loaded);
+        assertEquals("/bulk/A.png", a.getPreviewImagePath());
+        assertEquals("/cache/B.png", b.getPreviewImagePath());
+    }
+
+    @Test
+    void skipsLoadsWhileDisabled() throws Exception {
+        AtomicBoolean connected = new AtomicBoolean();
+        PreviewPrefetchScheduler scheduler = new PreviewPrefetchScheduler(1, world -> {
+            loaded.add(world.getId());
+            return null;
+        }, uiQueue::add, () -> {
+        }, connected::get);
+
+        scheduler.shown(world("A"));
+        Thread.sleep(100);
+        assertTrue(loaded.isEmpty());
+        assertEquals(0, scheduler.queuedCount());
+
+        connected.set(true);
+        scheduler.shown(world("B"));
+        awaitLoaded(1);
+        assertEquals(List.of("B"), loaded);
+    }
+
+    private void awaitLoaded(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loaded.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, loaded.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static WorldEntry world(String id) {
+        return new WorldEntry(id, id, "/worlds/" + id, null, "Adventure", "release", Instant.EPOCH);
+    }
+}
@@ -0,0 +1,144 @@
+package io.worldportal.app.ui;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class PreviewThumbnailBenchmarkTest {
+    private static final int WORLD_COUNT = 1_000;
+    private static final int VISIBLE_ROWS = 10;
+    private static final int SCROLL_PASSES = 3;
+    private static final long BUDGET_BYTES = 32L * 1024 * 1024;
+    private static volatile boolean javaFxAvailable = true;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void startJavaFxRuntime() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (IllegalStateException alreadyStarted) {
+            latch.countDown();
+        } catch (UnsupportedOperationException headlessEnvironment) {
+            javaFxAvailable = false;
+            latch.countDown();
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void scrollingThousandWorldsReusesDecodedThumbnails() throws Exception {
+        Assumptions.assumeTrue(javaFxAvailable, "JavaFX runtime is not available in this environment");
+        List<String> previews = new ArrayList<>();
+        for (int index = 0; index < WORLD_COUNT; index++) {
+            BufferedImage image = new BufferedImage(640, 360, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(new Color(index * 2654435761L > 0 ? (int) (index * 2654435761L) & 0xffffff : index));
+            graphics.fillRect(0, 0, 640, 360);
+            graphics.setColor(Color.WHITE);
+            graphics.drawString("World " + index, 20, 40);
+            graphics.dispose();
+            Path file = tempDir.resolve("preview-" + index + ".png");
+            ImageIO.write(image, "png", file.toFile());
+            previews.add(file.toString());
+        }
+
+        List<Image> fullSizeImages = new ArrayList<>();
+        Result fullSize = scroll(previews, path -> {
+            Image image = new Image(Path.of(path).toUri().toString(), true);
+            fullSizeImages.add(image);
+            return image;
+        });
+        long fullSizeBytes = decodedBytes(fullSizeImages);
+        fullSizeImages.clear();
+
+        List<Image> thumbnailImages = new ArrayList<>();
+        PreviewThumbnailCache cache = new PreviewThumbnailCache(96, 54, BUDGET_BYTES,
+                (uri, width, height) -> {
+                    Image image = new Image(uri, width, height, true, true, true);
+                    thumbnailImages.add(image);
+                    return image;
+                });
+        Result cached = scroll(previews, cache::get);
+        long thumbnailBytes = decodedBytes(thumbnailImages);
+
+        System.out.printf(
+                "Scrolling %d worlds x %d passes: full-size images %d ms on FX thread, %d decodes, %d MB decoded%n",
+                WORLD_COUNT, SCROLL_PASSES, fullSize.fxMillis(), WORLD_COUNT * SCROLL_PASSES, fullSizeBytes >> 20);
+        System.out.printf(
+                "Scrolling %d worlds x %d passes: thumbnail cache %d ms on FX thread, %d decodes, %d MB decoded,"
+                        + " %d KB held by %d cached thumbnails%n",
+                WORLD_COUNT, SCROLL_PASSES, cached.fxMillis(), thumbnailImages.size(), thumbnailBytes >> 20,
+                cache.totalBytes() >> 10, cache.size());
+        assertTrue(cache.totalBytes() <= BUDGET_BYTES);
+    }
+
+    private static long decodedBytes(List<Image> images) throws InterruptedException {
+        long bytes = 0L;
+        for (Image image : images) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (image.getProgress() < 1.0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            bytes += (long) image.getWidth() * (long) image.getHeight() * 4L;
+        }
+        return bytes;
+    }
+
+    private Result scroll(List<String> previews, Function<String, Image> imageForRow) throws Exception {
+        List<Image> visible = new ArrayList<>();
+        long fxNanos = 0L;
+        for (int pass = 0; pass < SCROLL_PASSES; pass++) {
+            for (int top = 0; top < previews.size(); top += VISIBLE_ROWS) {
+                int firstRow = pass % 2 == 0 ? top : previews.size() - VISIBLE_ROWS - top;
+                fxNanos += onFxThread(() -> {
+                    visible.clear();
+                    for (int row = firstRow; row < firstRow + VISIBLE_ROWS; row++) {
+                        visible.add(imageForRow.apply(previews.get(row)));
+                    }
+                });
+            }
+        }
+        return new Result(fxNanos / 1_000_000L);
+    }
+
+    private static long onFxThread(Runnable work) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicLong elapsed = new AtomicLong();
+        Platform.runLater(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                work.run();
+            } finally {
+                elapsed.set(System.nanoTime() - startedAt);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        return elapsed.get();
+    }
+
+    private record Result(long fxMillis) {
+    }
+}
@@ -0,0 +1,106 @@
+package io.worldportal.app.ui;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreviewThumbnailCacheTest {
+    private static volatile boolean javaFxAvailable = true;
+
+    @TempDir
+    Path tempDir;
+
+    private final List<String> loadedUris = new ArrayList<>();
+
+    @BeforeAll
+    static void startJavaFxRuntime() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (IllegalStateException alreadyStarted) {
+            latch.countDown();
+        } catch (UnsupportedOperationException headlessEnvironment) {
+            javaFxAvailable = false;
+            latch.countDown();
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void returnsCachedThumbnailUntilFileModificationTimeChanges() throws Exception {
+        Assumptions.assumeTrue(javaFxAvailable, "JavaFX runtime is not available in this environment");
+        PreviewThumbnailCache cache = new PreviewThumbnailCache(96, 54, 1024 * 1024, this::load);
+        Path preview = preview("a.png", 1_700_000_000L);
+
+        Image first = cache.get(preview.toString());
+        Image second = cache.get(preview.toString());
+        Files.setLastModifiedTime(preview, FileTime.from(Instant.ofEpochSecond(1_700_000_100L)));
+        Image third = cache.get(preview.toString());
+
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertEquals(2, loadedUris.size());
+        assertEquals(1, cache.size());
+        assertEquals(96L * 54 * 4, cache.totalBytes());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedThumbnailsOverBudget() throws Exception {
+        Assumptions.assumeTrue(javaFxAvailable, "JavaFX runtime is not available in this environment");
+        PreviewThumbnailCache cache = new PreviewThumbnailCache(96, 54, 2L * 96 * 54 * 4, this::load);
+        Path a = preview("a.png", 1_700_000_000L);
+        Path b = preview("b.png", 1_700_000_000L);
+        Path c = preview("c.png", 1_700_000_000L);
+
+        Image imageA = cache.get(a.toString());
+        cache.get(b.toString());
+        cache.get(a.toString());
+        cache.get(c.toString());
+
+        assertEquals(2, cache.size());
+        assertSame(imageA, cache.get(a.toString()));
+        assertEquals(3, loadedUris.size());
+        cache.get(b.toString());
+        assertEquals(4, loadedUris.size());
+    }
+
+    @Test
+    void returnsNullForMissingPreview() {
+        PreviewThumbnailCache cache = new PreviewThumbnailCache(96, 54, 1024, this::load);
+
+        assertNull(cache.get(null));
+        assertNull(cache.get(tempDir.resolve("missing.png").toString()));
+        assertTrue(loadedUris.isEmpty());
+    }
+
+    private Image load(String uri, double width, double height) {
+        loadedUris.add(uri);
+        return new WritableImage((int) width, (int) height);
+    }
+
+    private Path preview(String name, long modifiedSeconds) throws Exception {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, "png");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.ofEpochSecond(modifiedSeconds)));
+        return file;
+    }
+}
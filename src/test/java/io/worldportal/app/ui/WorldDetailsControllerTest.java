@@ -1,14 +1,20 @@
 package io.worldportal.app.ui;
 
+import io.worldportal.app.model.RemoteProfile;
+import io.worldportal.app.model.WorldEntry;
+import io.worldportal.app.service.TransferService;
+import io.worldportal.app.service.impl.WhitelistService;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class WorldDetailsControllerTest {
@@ -63,6 +69,20 @@ class WorldDetailsControllerTest {
         assertTrue(updatedConfig.contains("\"DisplayName\": \"New Name\""));
     }
 
+    @Test
+    void updateWorldDisplayNameReplacesNamesContainingEscapedQuotes() throws Exception {
+        Path worldDir = Files.createTempDirectory("world-rename-escaped");
+        Path configDir = Files.createDirectories(worldDir.resolve("universe/worlds/default"));
+        Path configFile = configDir.resolve("config.json");
+        Files.writeString(configFile, "{ \"DisplayName\": \"Old \\\"Quoted\\\" Name\", \"GameMode\": \"Adventure\" }",
+                StandardCharsets.UTF_8);
+
+        WorldDetailsController.updateWorldDisplayName(worldDir, "New Name");
+
+        assertEquals("{ \"DisplayName\": \"New Name\", \"GameMode\": \"Adventure\" }",
+                Files.readString(configFile, StandardCharsets.UTF_8));
+    }
+
     @Test
     void whitelistChangeDetectionTracksEnabledFlagAndPlayerList() {
         assertFalse(WorldDetailsController.hasWhitelistChanges(true, List.of("a", "b"), true, List.of("a", "b")));
@@ -96,4 +116,40 @@ class WorldDetailsControllerTest {
                 null,
                 WorldDetailsController.validateServerWorldFolderEdit("same-folder", "same-folder"));
     }
+
+    @Test
+    void serverWorldDetailsAreReadFileByFileWithoutSyncingTheWorld() {
+        List<String> requested = new ArrayList<>();
+        TransferService transferService = new TransferService() {
+            @Override
+            public void uploadWorld(WorldEntry world, RemoteProfile profile) {
+                throw new AssertionError("upload");
+            }
+
+            @Override
+            public void downloadWorld(WorldEntry world, RemoteProfile profile) {
+                throw new AssertionError("download");
+            }
+
+            @Override
+            public byte[] readRemoteFile(WorldEntry remoteWorld, String relativePath, RemoteProfile profile) {
+                requested.add(relativePath);
+                String content = "whitelist.json".equals(relativePath)
+                        ? "{\"enabled\": false, \"list\": [\"uuid-1\"]}"
+                        : "{\"DisplayName\": \"Skyland\", \"GameMode\": \"Creative\"}";
+                return content.getBytes(StandardCharsets.UTF_8);
+            }
+        };
+
+        WorldDetailsController.ServerWorldDetails details = WorldDetailsController.loadServerDetails(
+                new WorldEntry(), new RemoteProfile(), transferService, new WhitelistService());
+
+        assertEquals(List.of("whitelist.json", "universe/worlds/default/config.json"), requested);
+        assertFalse(details.whitelist().enabled());
+        assertEquals(List.of("uuid-1"), details.whitelist().playerUuids());
+        assertEquals("Skyland", details.displayName());
+        assertEquals("Creative", details.gameMode());
+        assertNull(details.gameTime());
+        assertNull(details.failure());
+    }
 }
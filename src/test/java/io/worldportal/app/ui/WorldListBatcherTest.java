@@ -0,0 +1,83 @@
+package io.worldportal.app.ui;
+
+import io.worldportal.app.model.WorldEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldListBatcherTest {
+    private final Deque<Runnable> uiQueue = new ArrayDeque<>();
+    private final List<WorldEntry> target = new ArrayList<>();
+
+    @Test
+    void coalescesArrivalsIntoSingleUiUpdate() {
+        WorldListBatcher batcher = new WorldListBatcher(target, uiQueue::add);
+
+        batcher.accept(world("A", 10));
+        batcher.accept(world("B", 30));
+        batcher.accept(world("C", 20));
+
+        assertEquals(1, uiQueue.size());
+        assertTrue(target.isEmpty());
+
+        runUi();
+
+        assertEquals(List.of("B", "C", "A"), ids());
+    }
+
+    @Test
+    void keepsArrivalOrderForEqualTimestamps() {
+        WorldListBatcher batcher = new WorldListBatcher(target, Runnable::run);
+
+        batcher.accept(world("first", 10));
+        batcher.accept(world("newer", 20));
+        batcher.accept(world("second", 10));
+        batcher.accept(world("third", 10));
+
+        assertEquals(List.of("newer", "first", "second", "third"), ids());
+    }
+
+    @Test
+    void replacesWorldWithSameIdInsteadOfDuplicating() {
+        target.add(world("A", 50));
+        target.add(world("B", 40));
+        WorldListBatcher batcher = new WorldListBatcher(target, Runnable::run);
+
+        batcher.accept(world("A", 10));
+
+        assertEquals(List.of("B", "A"), ids());
+    }
+
+    @Test
+    void dropsPendingWorldsAfterCancel() {
+        WorldListBatcher batcher = new WorldListBatcher(target, uiQueue::add);
+
+        batcher.accept(world("A", 10));
+        batcher.cancel();
+        batcher.accept(world("B", 20));
+        runUi();
+
+        assertTrue(target.isEmpty());
+    }
+
+    private void runUi() {
+        while (!uiQueue.isEmpty()) {
+            uiQueue.poll().run();
+        }
+    }
+
+    private List<String> ids() {
+        return target.stream().map(WorldEntry::getId).toList();
+    }
+
+    private static WorldEntry world(String id, long modifiedSeconds) {
+        return new WorldEntry(id, id, "/worlds/" + id, null, "Unknown", "Unknown", Instant.ofEpochSecond(modifiedSeconds));
+    }
+}